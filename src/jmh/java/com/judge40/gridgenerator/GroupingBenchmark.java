@@ -0,0 +1,94 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for partitioning a class's participants in to their groups and for drawing a heat,
+ * for fields ranging from few to all participants matching the grouping filter.
+ *
+ * <p>Run with {@code gradlew jmh}, allocation per operation is reported by the GC profiler as
+ * {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupingBenchmark {
+
+  @Param({"1000", "100000"})
+  private int numberOfParticipants;
+
+  @Param({"0.1", "0.9", "1.0"})
+  private double groupedShare;
+
+  private List<String> participants;
+  private DrawConfiguration configuration;
+
+  /**
+   * Generate the participants, the grouped participants are spread randomly through the field.
+   */
+  @Setup
+  public void setUp() {
+    MeetingGenerator meetingGenerator = new MeetingGenerator(numberOfParticipants);
+    meetingGenerator.setFieldSize(numberOfParticipants, numberOfParticipants);
+    meetingGenerator.setGroupedShare(groupedShare);
+    participants = meetingGenerator.generateParticipants(0);
+
+    configuration = new DrawConfiguration(8, 1, MeetingGenerator.GROUPING_FILTER, 4,
+      DrawMode.RANDOM, 0);
+  }
+
+  /**
+   * Partition the participants in to grouped and ungrouped participants.
+   *
+   * @return The partitioned participants.
+   */
+  @Benchmark
+  public ParticipantClassifier.Partition partition() {
+    return configuration.getClassifier().partition(participants);
+  }
+
+  /**
+   * Draw a single heat for the participants.
+   *
+   * @return The drawn heat.
+   */
+  @Benchmark
+  public List<List<List<String>>> drawGrids() {
+    return GridDrawHelper.drawGrids(participants, Collections.emptySet(), configuration, 1);
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+import com.judge40.gridgenerator.storage.FileStorageProvider;
+import com.judge40.gridgenerator.storage.PreferenceStorage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.prefs.BackingStoreException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for drawing a whole meeting generated by {@link MeetingGenerator}, including reading
+ * every class's participants and settings from the preferences. The meeting is stored by either
+ * the in-memory or the file storage provider, the file provider stores it in a temporary
+ * directory, so the benchmarks do not affect the user's meeting.
+ *
+ * <p>Run with {@code gradlew jmh}, each storage provider is benchmarked in its own fork as the
+ * provider is selected once per JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeetingDrawBenchmark {
+
+  @Param({"memory", "file"})
+  private String storage;
+
+  @Param({"10", "100"})
+  private int numberOfClasses;
+
+  @Param({"50", "1000"})
+  private int fieldSize;
+
+  @Param({"0", "2"})
+  private int numberOfExcludedGrids;
+
+  private Set<Integer> excludedGrids;
+  private PreferenceTestHelper preferenceTestHelper;
+
+  /**
+   * Generate the meeting and write it to the selected storage provider.
+   *
+   * @throws BackingStoreException If the meeting could not be written.
+   * @throws IOException           If the meeting could not be written.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws BackingStoreException, IOException {
+    // The provider must be selected before PreferenceHelper is first used.
+    System.setProperty(PreferenceStorage.STORAGE_PROPERTY, storage);
+    System.setProperty(FileStorageProvider.DIRECTORY_PROPERTY,
+      Files.createTempDirectory("grid-generator-preferences").toString());
+    preferenceTestHelper = new PreferenceTestHelper();
+
+    MeetingGenerator meetingGenerator = new MeetingGenerator(numberOfClasses);
+    meetingGenerator.setNumberOfClasses(numberOfClasses);
+    meetingGenerator.setFieldSize(fieldSize / 2, fieldSize);
+    meetingGenerator.setNumberOfExcludedGrids(numberOfExcludedGrids);
+    meetingGenerator.writeMeeting();
+    excludedGrids = meetingGenerator.generateExcludedGrids();
+  }
+
+  /**
+   * Remove the generated meeting.
+   *
+   * @throws BackingStoreException If the meeting could not be removed.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws BackingStoreException {
+    preferenceTestHelper.clearPreferences();
+  }
+
+  /**
+   * Draw every class of the meeting.
+   *
+   * @return The meeting's draw.
+   * @throws BackingStoreException  If the meeting could not be read.
+   * @throws ClassNotFoundException If the meeting could not be read.
+   * @throws IOException            If the meeting could not be read.
+   */
+  @Benchmark
+  public MeetingDraw drawGridsForMeeting()
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    return GridDrawHelper.drawGridsForMeeting(excludedGrids);
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+import com.judge40.gridgenerator.storage.FileStorageProvider;
+import com.judge40.gridgenerator.storage.PreferenceStorage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for storing and retrieving class participants through {@link PreferenceHelper}, which
+ * serializes the participants and splits them in to preference chunks. The preferences are held by
+ * either the in-memory or the file storage provider, the file provider stores them in a temporary
+ * directory, so the benchmarks do not affect the user's meeting.
+ *
+ * <p>Run with {@code gradlew jmh}, allocation per operation is reported by the GC profiler as
+ * {@code gc.alloc.rate.norm} and the flushed size as {@code bytesOnDisk}. Each storage provider
+ * is benchmarked in its own fork as the provider is selected once per JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PreferenceHelperBenchmark {
+
+  private static final String CLASS_NAME = "benchmark";
+
+  @Param({"memory", "file"})
+  private String storage;
+
+  @Param({"10", "1000", "100000", "1000000"})
+  private int numberOfParticipants;
+
+  private Path storageDirectory;
+  private List<String> participants;
+  private Preferences classNode;
+
+  /**
+   * The size of the stored participants, reported alongside the benchmark results. The size is
+   * measured once each iteration has ended so that walking the storage directory is not timed.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class DiskUsage {
+
+    public long bytesOnDisk;
+
+    /**
+     * Measure the size of the stored participants at the end of an iteration.
+     *
+     * @param benchmark The benchmark whose storage directory is measured.
+     * @throws IOException If the size could not be read.
+     */
+    @TearDown(Level.Iteration)
+    public void measure(PreferenceHelperBenchmark benchmark) throws IOException {
+      bytesOnDisk = benchmark.getBytesOnDisk();
+    }
+  }
+
+  /**
+   * Create the participants and store them so there is a value to read.
+   *
+   * @throws BackingStoreException If the participants could not be stored.
+   * @throws IOException           If the participants could not be stored.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws BackingStoreException, IOException {
+    // The provider must be selected before PreferenceHelper is first used.
+    storageDirectory = Files.createTempDirectory("grid-generator-preferences");
+    System.setProperty(PreferenceStorage.STORAGE_PROPERTY, storage);
+    System.setProperty(FileStorageProvider.DIRECTORY_PROPERTY, storageDirectory.toString());
+
+    participants = IntStream.range(0, numberOfParticipants)
+      .mapToObj(participant -> "Participant " + participant)
+      .collect(Collectors.toList());
+    PreferenceHelper.setClassParticipants(CLASS_NAME, participants);
+
+    classNode = PreferenceStorage.getUserRoot()
+      .node(PreferenceHelper.class.getPackageName().replace('.', '/'))
+      .node("participants/" + CLASS_NAME);
+    classNode.flush();
+  }
+
+  /**
+   * Remove the stored participants.
+   *
+   * @throws BackingStoreException If the participants could not be removed.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws BackingStoreException {
+    classNode.removeNode();
+  }
+
+  /**
+   * Store the participants and flush them to disk.
+   *
+   * @param diskUsage The disk usage counters, measured once the iteration has ended.
+   * @throws BackingStoreException If the participants could not be stored.
+   * @throws IOException           If the participants could not be stored.
+   */
+  @Benchmark
+  public void write(DiskUsage diskUsage) throws BackingStoreException, IOException {
+    PreferenceHelper.setClassParticipants(CLASS_NAME, participants);
+    classNode.flush();
+  }
+
+  /**
+   * Retrieve the stored participants.
+   *
+   * @return The participants.
+   * @throws BackingStoreException  If the participants could not be retrieved.
+   * @throws ClassNotFoundException If the participants could not be retrieved.
+   * @throws IOException            If the participants could not be retrieved.
+   */
+  @Benchmark
+  public List<String> read() throws BackingStoreException, ClassNotFoundException, IOException {
+    return PreferenceHelper.getClassParticipants(CLASS_NAME);
+  }
+
+  /**
+   * Get the total size of the files within the storage directory, which is always empty for the
+   * in-memory provider.
+   *
+   * @return The number of bytes used on disk.
+   * @throws IOException If the size could not be read.
+   */
+  private long getBytesOnDisk() throws IOException {
+    try (Stream<Path> paths = Files.walk(storageDirectory)) {
+      return paths.filter(Files::isRegularFile)
+        .mapToLong(path -> {
+          try {
+            return Files.size(path);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        })
+        .sum();
+    }
+  }
+}
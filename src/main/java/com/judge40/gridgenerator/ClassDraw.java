@@ -0,0 +1,59 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+import java.util.List;
+
+/**
+ * The drawn heats of a class and whether the draw is reproducible. An optimized draw is only
+ * reproducible if the optimizer completed its fixed budget of attempts for every heat, rather than
+ * being stopped by the optimization time limit.
+ */
+public class ClassDraw {
+
+  private final List<List<List<String>>> heats;
+  private final boolean optimizationTimeLimitReached;
+
+  /**
+   * Create a class's draw.
+   *
+   * @param heats                        The drawn heats.
+   * @param optimizationTimeLimitReached Whether the optimization of any heat was stopped by the
+   *                                     time limit.
+   */
+  ClassDraw(List<List<List<String>>> heats, boolean optimizationTimeLimitReached) {
+    this.heats = heats;
+    this.optimizationTimeLimitReached = optimizationTimeLimitReached;
+  }
+
+  /**
+   * Get the drawn heats.
+   *
+   * @return A list of heats containing lists of participants representing the races that have been
+   * drawn.
+   */
+  public List<List<List<String>>> getHeats() {
+    return heats;
+  }
+
+  public boolean isOptimizationTimeLimitReached() {
+    return optimizationTimeLimitReached;
+  }
+}
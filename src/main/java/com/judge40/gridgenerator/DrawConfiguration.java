@@ -0,0 +1,121 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+import java.util.prefs.BackingStoreException;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable snapshot of the settings which control how a class's grids are drawn, so a draw
+ * does not read the preferences for every heat and race and settings can be varied without
+ * changing the stored meeting. A class's settings are resolved from the meeting's settings and the
+ * class's overrides once, which allows classes with different settings to be drawn in parallel.
+ */
+public class DrawConfiguration {
+
+  private final int numberOfGrids;
+  private final int numberOfHeats;
+  private final Pattern groupingFilter;
+  private final ParticipantClassifier classifier;
+  private final int groupingThreshold;
+  private final DrawMode drawMode;
+  private final int optimizationTimeLimit;
+
+  /**
+   * Create a draw configuration.
+   *
+   * @param numberOfGrids         The total number of grids.
+   * @param numberOfHeats         The total number of heats.
+   * @param groupingFilter        The grouping filter RegEx, each named capturing group is a
+   *                              separate group.
+   * @param groupingThreshold     The grouping threshold.
+   * @param drawMode              The draw mode.
+   * @param optimizationTimeLimit The time allowed for optimizing each heat in milliseconds.
+   */
+  public DrawConfiguration(int numberOfGrids, int numberOfHeats, String groupingFilter,
+    int groupingThreshold, DrawMode drawMode, int optimizationTimeLimit) {
+    this.numberOfGrids = numberOfGrids;
+    this.numberOfHeats = numberOfHeats;
+    this.groupingFilter = Pattern.compile(groupingFilter);
+    this.classifier = new ParticipantClassifier(this.groupingFilter);
+    this.groupingThreshold = groupingThreshold;
+    this.drawMode = drawMode;
+    this.optimizationTimeLimit = optimizationTimeLimit;
+  }
+
+  /**
+   * Create a draw configuration for a class from the current meeting's preferences, any of the
+   * class's own settings override the meeting's settings.
+   *
+   * @param className The name of the class.
+   * @return The class's draw configuration.
+   * @throws BackingStoreException If the class's settings could not be read.
+   */
+  public static DrawConfiguration fromPreferences(String className) throws BackingStoreException {
+    return new DrawConfiguration(
+      PreferenceHelper.getClassNumberOfGrids(className)
+        .orElseGet(PreferenceHelper::getNumberOfGrids),
+      PreferenceHelper.getClassNumberOfHeats(className)
+        .orElseGet(PreferenceHelper::getNumberOfHeats),
+      PreferenceHelper.getClassParticipantGroupingFilter(className)
+        .orElseGet(PreferenceHelper::getParticipantGroupingFilter),
+      PreferenceHelper.getClassParticipantGroupingThreshold(className)
+        .orElseGet(PreferenceHelper::getParticipantGroupingThreshold),
+      PreferenceHelper.getDrawMode(), PreferenceHelper.getDrawOptimizationTimeLimit());
+  }
+
+  public int getNumberOfGrids() {
+    return numberOfGrids;
+  }
+
+  public int getNumberOfHeats() {
+    return numberOfHeats;
+  }
+
+  public Pattern getGroupingFilter() {
+    return groupingFilter;
+  }
+
+  ParticipantClassifier getClassifier() {
+    return classifier;
+  }
+
+  public int getGroupingThreshold() {
+    return groupingThreshold;
+  }
+
+  public DrawMode getDrawMode() {
+    return drawMode;
+  }
+
+  public int getOptimizationTimeLimit() {
+    return optimizationTimeLimit;
+  }
+
+  /**
+   * Check whether a participant matches the grouping filter.
+   *
+   * @param participant The participant to check.
+   * @return Whether the participant is grouped.
+   */
+  public boolean isGrouped(String participant) {
+    return classifier.classify(participant) != ParticipantClassifier.UNGROUPED;
+  }
+}
@@ -0,0 +1,371 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * A compact record of a class's draw from which the draw can be reproduced and checked. It holds
+ * everything the draw's seeds are derived from except the participants themselves, which are
+ * recorded as a SHA-256 digest, along with a SHA-256 digest of the drawn heats.
+ *
+ * <p>Each manifest is written as a single tab separated line, text fields are URL encoded:
+ * {@code version, class, salt, excluded grids, grids, heats, grouping filter, grouping threshold,
+ * draw mode, optimization time limit, optimization budget, participants digest, draw digest}. Lines
+ * written before the optimization budget was recorded are read with an empty budget.
+ */
+public class DrawManifest {
+
+  /**
+   * The version of the seed derivation, seeds are derived from the participants, the heat number,
+   * the excluded grids and the salt (the day of the draw).
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * The budget of the {@link DrawMode#OPTIMIZED} draw's search, the number of workers and the
+   * number of attempts made by each worker. An optimized draw can only be reproduced with the same
+   * budget.
+   */
+  public static final String OPTIMIZATION_BUDGET = RepeatPairingOptimizer.NUMBER_OF_WORKERS + "x"
+    + RepeatPairingOptimizer.MAX_ATTEMPTS;
+
+  private static final String FILE_SUFFIX = ".manifest";
+  private static final String SEPARATOR = "\t";
+  private static final int NUMBER_OF_FIELDS = 13;
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final int version;
+  private final String className;
+  private final long salt;
+  private final SortedSet<Integer> excludedGrids;
+  private final DrawConfiguration configuration;
+  private final String optimizationBudget;
+  private final String participantsDigest;
+  private final String drawDigest;
+
+  /**
+   * Create a draw manifest.
+   *
+   * @param version            The version of the seed derivation.
+   * @param className          The name of the drawn class.
+   * @param salt               The salt the draw's seeds were derived from.
+   * @param excludedGrids      The grid numbers which were excluded.
+   * @param configuration      The settings the class was drawn with.
+   * @param optimizationBudget The budget of the optimized draw's search, empty if unknown.
+   * @param participantsDigest The hex SHA-256 digest of the class's participants.
+   * @param drawDigest         The hex SHA-256 digest of the drawn heats.
+   */
+  public DrawManifest(int version, String className, long salt, Set<Integer> excludedGrids,
+    DrawConfiguration configuration, String optimizationBudget, String participantsDigest,
+    String drawDigest) {
+    this.version = version;
+    this.className = className;
+    this.salt = salt;
+    this.excludedGrids = Collections.unmodifiableSortedSet(new TreeSet<>(excludedGrids));
+    this.configuration = configuration;
+    this.optimizationBudget = optimizationBudget;
+    this.participantsDigest = participantsDigest;
+    this.drawDigest = drawDigest;
+  }
+
+  /**
+   * Create the manifest of a class's draw.
+   *
+   * @param className     The name of the drawn class.
+   * @param participants  The class's participants, in the order they were drawn from.
+   * @param excludedGrids The grid numbers which were excluded.
+   * @param configuration The settings the class was drawn with.
+   * @param salt          The salt the draw's seeds were derived from.
+   * @param heats         The drawn heats.
+   * @return The draw's manifest.
+   */
+  public static DrawManifest create(String className, List<String> participants,
+    Set<Integer> excludedGrids, DrawConfiguration configuration, long salt,
+    List<List<List<String>>> heats) {
+    return new DrawManifest(VERSION, className, salt, excludedGrids, configuration,
+      OPTIMIZATION_BUDGET, digestParticipants(participants), digestHeats(heats));
+  }
+
+  /**
+   * Calculate the digest of a class's participants, the order of the participants is significant
+   * as it contributes to the draw's seeds.
+   *
+   * @param participants The participants.
+   * @return The hex SHA-256 digest.
+   */
+  public static String digestParticipants(List<String> participants) {
+    MessageDigest digest = createDigest();
+    updateDigest(digest, participants.size());
+
+    for (String participant : participants) {
+      updateDigest(digest, participant);
+    }
+
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Calculate the digest of a class's drawn heats, including the empty and excluded grids.
+   *
+   * @param heats The drawn heats.
+   * @return The hex SHA-256 digest.
+   */
+  public static String digestHeats(List<List<List<String>>> heats) {
+    MessageDigest digest = createDigest();
+    updateDigest(digest, heats.size());
+
+    for (List<List<String>> races : heats) {
+      updateDigest(digest, races.size());
+
+      for (List<String> race : races) {
+        updateDigest(digest, race.size());
+
+        for (String participant : race) {
+          updateDigest(digest, participant);
+        }
+      }
+    }
+
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Get the manifest file which accompanies an exported draw.
+   *
+   * @param exportFile The file the draw was exported to.
+   * @return The manifest file, alongside the export file.
+   */
+  public static Path getManifestFile(Path exportFile) {
+    return exportFile.resolveSibling(exportFile.getFileName() + FILE_SUFFIX);
+  }
+
+  /**
+   * Write manifests to a file, one per line.
+   *
+   * @param manifests The manifests to write.
+   * @param file      The file to write to, any existing file is replaced.
+   * @throws IOException If the manifests could not be written.
+   */
+  public static void write(List<DrawManifest> manifests, Path file) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      for (DrawManifest manifest : manifests) {
+        writer.write(manifest.toLine());
+        writer.newLine();
+      }
+    }
+  }
+
+  /**
+   * Read the manifests from a file, blank lines are ignored.
+   *
+   * @param file The file to read from.
+   * @return The manifests.
+   * @throws IOException If the manifests could not be read or a line is not a valid manifest.
+   */
+  public static List<DrawManifest> read(Path file) throws IOException {
+    List<DrawManifest> manifests = new ArrayList<>();
+
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        if (!line.isBlank()) {
+          manifests.add(parse(line));
+        }
+      }
+    }
+
+    return manifests;
+  }
+
+  /**
+   * Parse a manifest from its line format.
+   *
+   * @param line The manifest line.
+   * @return The manifest.
+   * @throws IOException If the line is not a valid manifest.
+   */
+  public static DrawManifest parse(String line) throws IOException {
+    String[] fields = line.split(SEPARATOR, -1);
+
+    if (fields.length != NUMBER_OF_FIELDS) {
+      throw new IOException("Invalid draw manifest: " + line);
+    }
+
+    try {
+      SortedSet<Integer> excludedGrids = new TreeSet<>();
+
+      for (String excludedGrid : fields[3].split(",")) {
+        if (!excludedGrid.isEmpty()) {
+          excludedGrids.add(Integer.valueOf(excludedGrid));
+        }
+      }
+
+      DrawConfiguration configuration = new DrawConfiguration(Integer.parseInt(fields[4]),
+        Integer.parseInt(fields[5]), decode(fields[6]), Integer.parseInt(fields[7]),
+        DrawMode.valueOf(fields[8]), Integer.parseInt(fields[9]));
+      return new DrawManifest(Integer.parseInt(fields[0]), decode(fields[1]),
+        Long.parseLong(fields[2]), excludedGrids, configuration, fields[10], fields[11],
+        fields[12]);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Invalid draw manifest: " + line, e);
+    }
+  }
+
+  /**
+   * Format the manifest as a single line.
+   *
+   * @return The manifest line, without a line terminator.
+   */
+  public String toLine() {
+    StringBuilder excluded = new StringBuilder();
+
+    for (int excludedGrid : excludedGrids) {
+      excluded.append(excluded.length() == 0 ? "" : ",").append(excludedGrid);
+    }
+
+    return String.join(SEPARATOR, String.valueOf(version), encode(className),
+      String.valueOf(salt), excluded, String.valueOf(configuration.getNumberOfGrids()),
+      String.valueOf(configuration.getNumberOfHeats()),
+      encode(configuration.getGroupingFilter().pattern()),
+      String.valueOf(configuration.getGroupingThreshold()), configuration.getDrawMode().name(),
+      String.valueOf(configuration.getOptimizationTimeLimit()), optimizationBudget,
+      participantsDigest, drawDigest);
+  }
+
+  public int getVersion() {
+    return version;
+  }
+
+  public String getClassName() {
+    return className;
+  }
+
+  public long getSalt() {
+    return salt;
+  }
+
+  public SortedSet<Integer> getExcludedGrids() {
+    return excludedGrids;
+  }
+
+  public DrawConfiguration getConfiguration() {
+    return configuration;
+  }
+
+  public String getOptimizationBudget() {
+    return optimizationBudget;
+  }
+
+  public String getParticipantsDigest() {
+    return participantsDigest;
+  }
+
+  public String getDrawDigest() {
+    return drawDigest;
+  }
+
+  /**
+   * Create a SHA-256 message digest.
+   *
+   * @return The message digest.
+   */
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported.", e);
+    }
+  }
+
+  /**
+   * Add a value to a digest, sizes are included so that different structures never share input.
+   *
+   * @param digest The digest to update.
+   * @param value  The value to add.
+   */
+  private static void updateDigest(MessageDigest digest, int value) {
+    digest.update(new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8),
+      (byte) value});
+  }
+
+  /**
+   * Add a text value to a digest, prefixed by its length.
+   *
+   * @param digest The digest to update.
+   * @param value  The value to add.
+   */
+  private static void updateDigest(MessageDigest digest, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    updateDigest(digest, bytes.length);
+    digest.update(bytes);
+  }
+
+  /**
+   * Convert bytes to lower case hex.
+   *
+   * @param bytes The bytes to convert.
+   * @return The hex text.
+   */
+  private static String toHex(byte[] bytes) {
+    char[] hex = new char[bytes.length * 2];
+
+    for (int i = 0; i < bytes.length; i++) {
+      hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+      hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+    }
+
+    return new String(hex);
+  }
+
+  /**
+   * Encode a text field so it cannot contain the separator or a line terminator.
+   *
+   * @param value The text to encode.
+   * @return The encoded text.
+   */
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Decode an encoded text field.
+   *
+   * @param value The encoded text.
+   * @return The decoded text.
+   */
+  private static String decode(String value) {
+    return URLDecoder.decode(value, StandardCharsets.UTF_8);
+  }
+}
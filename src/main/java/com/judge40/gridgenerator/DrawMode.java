@@ -0,0 +1,45 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+/**
+ * The modes in which a class's grids can be drawn.
+ */
+public enum DrawMode {
+
+  /**
+   * Each heat is drawn independently, a participant may draw the same grid in every heat.
+   */
+  RANDOM,
+
+  /**
+   * Each heat is drawn randomly and then the participants of each race are reassigned to the
+   * race's grids so that participants who started from the highest grids in the previous heats
+   * start from the lowest grids.
+   */
+  BALANCED,
+
+  /**
+   * Each heat is drawn randomly and then participants are swapped between the heat's races to
+   * minimize the number of times the same participants have raced each other in the previous
+   * heats.
+   */
+  OPTIMIZED
+}
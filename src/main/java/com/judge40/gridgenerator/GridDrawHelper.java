@@ -19,24 +19,95 @@
 
 package com.judge40.gridgenerator;
 
+import com.judge40.gridgenerator.ParticipantClassifier.Partition;
+import com.judge40.gridgenerator.diagnostics.ClassDrawEvent;
+import com.judge40.gridgenerator.diagnostics.DrawMetrics;
+import com.judge40.gridgenerator.diagnostics.DrawMetrics.Stage;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 import java.util.prefs.BackingStoreException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * A helper with methods for performing grid draws.
  */
 public class GridDrawHelper {
 
+  private static final DrawMetrics METRICS = DrawMetrics.getInstance();
+
+  /**
+   * Draw the grids for every class of the meeting.
+   *
+   * @param excludedGrids The grid numbers which have been excluded.
+   * @return The meeting's draw, classes without any drawn heats are not included.
+   * @throws BackingStoreException  If the classes or their participants could not be retrieved.
+   * @throws IOException            If the classes or their participants could not be retrieved.
+   * @throws ClassNotFoundException If the classes or their participants could not be retrieved.
+   */
+  public static MeetingDraw drawGridsForMeeting(Set<Integer> excludedGrids)
+    throws BackingStoreException, IOException, ClassNotFoundException {
+    return drawGridsForClasses(PreferenceHelper.getParticipantClassNames(), excludedGrids);
+  }
+
+  /**
+   * Draw the grids for the given classes of the meeting.
+   *
+   * @param classNames    The names of the classes to perform a draw for.
+   * @param excludedGrids The grid numbers which have been excluded.
+   * @return The meeting's draw, classes without any drawn heats are not included.
+   * @throws BackingStoreException  If the classes' participants could not be retrieved.
+   * @throws IOException            If the classes' participants could not be retrieved.
+   * @throws ClassNotFoundException If the classes' participants could not be retrieved.
+   */
+  public static MeetingDraw drawGridsForClasses(List<String> classNames, Set<Integer> excludedGrids)
+    throws BackingStoreException, IOException, ClassNotFoundException {
+    List<List<String>> classParticipants = new ArrayList<>(classNames.size());
+    List<DrawConfiguration> configurations = new ArrayList<>(classNames.size());
+    long salt = getSalt();
+
+    // Resolve every class's participants and settings first, so the draws do not read the
+    // preferences and each class can be drawn in parallel.
+    for (String className : classNames) {
+      classParticipants.add(PreferenceHelper.getClassParticipants(className));
+      configurations.add(DrawConfiguration.fromPreferences(className));
+    }
+
+    List<List<List<List<String>>>> classDraws = IntStream.range(0, classNames.size()).parallel()
+      .mapToObj(index -> drawGridsForClass(classNames.get(index), classParticipants.get(index),
+        excludedGrids, configurations.get(index), salt))
+      .collect(Collectors.toList());
+
+    Map<String, List<List<List<String>>>> classHeats = new LinkedHashMap<>();
+    List<DrawManifest> manifests = new ArrayList<>();
+
+    for (int index = 0; index < classNames.size(); index++) {
+      List<List<List<String>>> heats = classDraws.get(index);
+
+      if (!heats.isEmpty()) {
+        classHeats.put(classNames.get(index), heats);
+        manifests.add(DrawManifest.create(classNames.get(index), classParticipants.get(index),
+          excludedGrids, configurations.get(index), salt, heats));
+      }
+    }
+
+    return new MeetingDraw(PreferenceHelper.getMeetingName(), LocalDate.now(), classHeats,
+      manifests);
+  }
+
   /**
    * Draw the grids for a given class, organizing the class's participants in to races of equal
    * size.
@@ -51,55 +122,167 @@ public class GridDrawHelper {
   public static List<List<List<String>>> drawGridsForClass(String className,
     Set<Integer> excludedGrids)
     throws BackingStoreException, IOException, ClassNotFoundException {
-    int numberOfHeats = PreferenceHelper.getNumberOfHeats();
-    List<List<List<String>>> heats = new ArrayList<>();
+    return drawGridsForClass(className, PreferenceHelper.getClassParticipants(className),
+      excludedGrids, DrawConfiguration.fromPreferences(className), getSalt());
+  }
+
+  /**
+   * Get the salt for today's draws, the draw changes daily so the salt is the number of days since
+   * the epoch.
+   *
+   * @return The salt.
+   */
+  private static long getSalt() {
+    return LocalDate.now(ZoneId.of("Z")).toEpochDay();
+  }
+
+  /**
+   * Draw the grids for a given class and record the draw's flight recorder event.
+   *
+   * @param className     The name of the class to perform a draw for.
+   * @param participants  The class's participants.
+   * @param excludedGrids The grid numbers which have been excluded.
+   * @param configuration The settings to draw with.
+   * @param salt          The value which is combined with the participants to seed the draw.
+   * @return A list of lists of participants representing the races that have been drawn.
+   */
+  private static List<List<List<String>>> drawGridsForClass(String className,
+    List<String> participants, Set<Integer> excludedGrids, DrawConfiguration configuration,
+    long salt) {
+    ClassDrawEvent event = new ClassDrawEvent();
+    event.begin();
+
+    List<List<List<String>>> heats = drawGrids(participants, excludedGrids, configuration, salt);
+
+    event.end();
+    METRICS.recordClassDraw();
+
+    if (event.shouldCommit()) {
+      event.className = className;
+      event.excludedGrids = excludedGrids.toString();
+      event.heats = heats.size();
+      event.races = heats.stream().mapToInt(List::size).sum();
+      event.commit();
+    }
+
+    return heats;
+  }
+
+  /**
+   * Draw the grids for a list of participants, organizing the participants in to races of equal
+   * size for each heat. The draw is deterministic for the same participants, excluded grids,
+   * configuration and salt.
+   *
+   * @param participants  The participants to draw.
+   * @param excludedGrids The grid numbers which have been excluded.
+   * @param configuration The settings to draw with.
+   * @param salt          The value which is combined with the participants to seed the draw.
+   * @return A list of heats containing lists of participants representing the races that have been
+   * drawn.
+   */
+  public static List<List<List<String>>> drawGrids(List<String> participants,
+    Set<Integer> excludedGrids, DrawConfiguration configuration, long salt) {
+    return drawClass(participants, excludedGrids, configuration, salt).getHeats();
+  }
 
-    for (int heat = 1; heat <= numberOfHeats; heat++) {
-      List<List<String>> races = drawGridsForClassAndHeat(className, heat, excludedGrids);
+  /**
+   * Draw the grids for a list of participants as {@link #drawGrids(List, Set, DrawConfiguration,
+   * long)} does, also reporting whether the optimization time limit was reached so that callers
+   * can tell whether an optimized draw is reproducible.
+   *
+   * @param participants  The participants to draw.
+   * @param excludedGrids The grid numbers which have been excluded.
+   * @param configuration The settings to draw with.
+   * @param salt          The value which is combined with the participants to seed the draw.
+   * @return The class's draw.
+   */
+  public static ClassDraw drawClass(List<String> participants, Set<Integer> excludedGrids,
+    DrawConfiguration configuration, long salt) {
+    List<List<List<String>>> heats = new ArrayList<>();
+    boolean optimizationTimeLimitReached = false;
+
+    // A class may have fewer grids than the meeting, grids beyond the class's grids are ignored.
+    Set<Integer> classExcludedGrids = excludedGrids.stream()
+      .filter(grid -> grid <= configuration.getNumberOfGrids())
+      .collect(Collectors.toCollection(TreeSet::new));
+
+    // The sum of the grid numbers each participant has drawn in the previous heats.
+    Map<String, Integer> gridTotals = new HashMap<>();
+
+    for (int heat = 1; heat <= configuration.getNumberOfHeats(); heat++) {
+      List<List<String>> races = drawGridsForHeat(new ArrayList<>(participants), heat,
+        classExcludedGrids, configuration, salt);
+
+      if (configuration.getDrawMode() == DrawMode.BALANCED) {
+        balanceGrids(races, gridTotals);
+      } else if (configuration.getDrawMode() == DrawMode.OPTIMIZED) {
+        long timeLimit = TimeUnit.MILLISECONDS.toNanos(configuration.getOptimizationTimeLimit());
+        RepeatPairingOptimizer.Optimization optimization = RepeatPairingOptimizer.optimize(races,
+          heats, configuration.getClassifier(), timeLimit, Objects.hash(races, heat));
+        races = optimization.getRaces();
+        optimizationTimeLimitReached |= optimization.isDeadlineReached();
+      }
 
       if (!races.isEmpty()) {
         heats.add(races);
       }
     }
 
-    return heats;
+    return new ClassDraw(heats, optimizationTimeLimitReached);
   }
 
   /**
-   * Draw the grids for a given class, organizing the class's participants in to races of equal
-   * size.
+   * Draw the grids for a heat, organizing the participants in to races of equal size.
    *
-   * @param className     The name of the class to perform a draw for.
+   * @param participants  The participants to draw, which are reordered by the draw.
    * @param heatNumber    The number of the heat to perform the draw for.
    * @param excludedGrids The grid numbers which have been excluded.
+   * @param configuration The settings to draw with.
+   * @param salt          The value which is combined with the participants to seed the draw.
    * @return A list of lists of participants representing the races that have been drawn.
-   * @throws BackingStoreException  If the class's participants could not be retrieved.
-   * @throws IOException            If the class's participants could not be retrieved.
-   * @throws ClassNotFoundException If the class's participants could not be retrieved.
    */
-  private static List<List<String>> drawGridsForClassAndHeat(String className, int heatNumber,
-    Set<Integer> excludedGrids) throws BackingStoreException, IOException, ClassNotFoundException {
-    List<String> participants = PreferenceHelper.getClassParticipants(className);
-
+  private static List<List<String>> drawGridsForHeat(List<String> participants, int heatNumber,
+    Set<Integer> excludedGrids, DrawConfiguration configuration, long salt) {
     if (participants.isEmpty()) {
       return Collections.emptyList();
     }
 
+    METRICS.recordHeatDraw();
+
+    // The stages are timed once per heat, and only when enabled, to keep the draw's overhead low.
+    boolean timed = METRICS.isStageTimingEnabled();
+    long shuffleStart = timed ? System.nanoTime() : 0;
+
     // Randomize the participants.
-    randomizeParticipants(participants, heatNumber, excludedGrids);
+    randomizeParticipants(participants, heatNumber, excludedGrids, salt);
 
-    List<List<String>> races = splitCombinedParticipants(participants, excludedGrids.size());
+    long splitStart = timed ? System.nanoTime() : 0;
+    List<List<String>> races = splitCombinedParticipants(participants, excludedGrids.size(),
+      configuration);
+    long raceShuffleStart = timed ? System.nanoTime() : 0;
 
+    // Randomize each race's participants.
     for (List<String> race : races) {
-      // Randomize the race's participants.
-      randomizeParticipants(race, heatNumber, excludedGrids);
+      randomizeParticipants(race, heatNumber, excludedGrids, salt);
+    }
+
+    long padStart = timed ? System.nanoTime() : 0;
 
-      // Insert the excluded grids.
+    // Insert the excluded grids.
+    for (List<String> race : races) {
       for (int excludedGrid : excludedGrids) {
         race.add(excludedGrid - 1, "");
       }
     }
 
+    if (timed) {
+      long padEnd = System.nanoTime();
+      METRICS.recordStage(Stage.SHUFFLE,
+        splitStart - shuffleStart + padStart - raceShuffleStart);
+      METRICS.recordStage(Stage.SPLIT, raceShuffleStart - splitStart);
+      METRICS.recordStage(Stage.PAD, padEnd - padStart);
+    }
+
     return races;
   }
 
@@ -110,56 +293,92 @@ public class GridDrawHelper {
    *
    * @param participants          The participants to split.
    * @param numberOfExcludedGrids The number of excluded grids.
+   * @param configuration         The settings to draw with.
    * @return A list of participant lists.
    */
   private static List<List<String>> splitCombinedParticipants(List<String> participants,
-    int numberOfExcludedGrids) {
-    int groupingThreshold = PreferenceHelper.getParticipantGroupingThreshold();
-    List<String> ungroupedParticipants = new ArrayList<>(participants);
-    List<String> groupedParticipants = applyGroupingFilter(ungroupedParticipants);
+    int numberOfExcludedGrids, DrawConfiguration configuration) {
+    int groupingThreshold = configuration.getGroupingThreshold();
+    Partition partition = configuration.getClassifier().partition(participants);
+    List<List<String>> groups = partition.getGroups();
+    List<String> ungroupedParticipants = partition.getUngrouped();
 
     List<List<String>> races = new ArrayList<>();
 
-    // If the ungrouped participants do not meet the threshold then distribute evenly between races.
+    // If the ungrouped participants do not meet the threshold then distribute them between the
+    // groups in proportion to the groups' sizes, and then evenly between each group's races.
     if (!ungroupedParticipants.isEmpty() && ungroupedParticipants.size() < groupingThreshold) {
-      int groupedSize = groupedParticipants.size();
+      int groupedSize = partition.getNumberOfGrouped();
       int ungroupedSize = ungroupedParticipants.size();
-      int spacing = (int) Math.ceil((double) (groupedSize + ungroupedSize) / ungroupedSize);
+      int groupedEnd = 0;
+      int ungroupedStart = 0;
+      boolean timed = METRICS.isStageTimingEnabled();
+      long interleaveStart = timed ? System.nanoTime() : 0;
+
+      for (int group = 0; group < groups.size(); group++) {
+        groupedEnd += groups.get(group).size();
+
+        // The last group takes any remainder, or every participant if none are grouped.
+        int ungroupedEnd = group == groups.size() - 1 ? ungroupedSize
+          : groupedSize == 0 ? 0 : (int) ((long) ungroupedSize * groupedEnd / groupedSize);
+        groups.set(group, interleaveParticipants(groups.get(group),
+          ungroupedParticipants.subList(ungroupedStart, ungroupedEnd)));
+        ungroupedStart = ungroupedEnd;
+      }
 
-      for (ListIterator<String> iterator = ungroupedParticipants.listIterator();
-          iterator.hasNext(); ) {
-        groupedParticipants.add(iterator.nextIndex() * spacing, iterator.next());
+      if (timed) {
+        METRICS.recordStage(Stage.INTERLEAVE, System.nanoTime() - interleaveStart);
       }
 
-      races.addAll(splitGroupedParticipants(groupedParticipants, numberOfExcludedGrids));
+      for (List<String> groupParticipants : groups) {
+        races.addAll(splitGroupedParticipants(groupParticipants, numberOfExcludedGrids,
+          configuration));
+      }
     } else {
-      races.addAll(splitGroupedParticipants(groupedParticipants, numberOfExcludedGrids));
-      races.addAll(splitGroupedParticipants(ungroupedParticipants, numberOfExcludedGrids));
+      for (List<String> groupParticipants : groups) {
+        races.addAll(splitGroupedParticipants(groupParticipants, numberOfExcludedGrids,
+          configuration));
+      }
+
+      races.addAll(splitGroupedParticipants(ungroupedParticipants, numberOfExcludedGrids,
+        configuration));
     }
 
     return races;
   }
 
   /**
-   * Remove any participants matching the grouping filter.
+   * Interleave ungrouped participants evenly between grouped participants, each ungrouped
+   * participant is placed a fixed spacing after the previous one. The participants are merged in
+   * a single pass rather than inserted in to the grouped participants.
    *
-   * @param participants The participants to filter.
-   * @return The removed participants.
+   * @param groupedParticipants   The grouped participants.
+   * @param ungroupedParticipants The ungrouped participants to interleave.
+   * @return The interleaved participants.
    */
-  private static List<String> applyGroupingFilter(List<String> participants) {
-    String groupingFilter = PreferenceHelper.getParticipantGroupingFilter();
-    List<String> groupedParticipants = new ArrayList<>();
+  private static List<String> interleaveParticipants(List<String> groupedParticipants,
+    List<String> ungroupedParticipants) {
+    if (ungroupedParticipants.isEmpty()) {
+      return groupedParticipants;
+    }
 
-    for (Iterator<String> iterator = participants.iterator(); iterator.hasNext(); ) {
-      String participant = iterator.next();
+    int groupedSize = groupedParticipants.size();
+    int ungroupedSize = ungroupedParticipants.size();
+    int spacing = (int) Math.ceil((double) (groupedSize + ungroupedSize) / ungroupedSize);
+    List<String> interleavedParticipants = new ArrayList<>(groupedSize + ungroupedSize);
+    int grouped = 0;
 
-      if (participant.matches(groupingFilter)) {
-        groupedParticipants.add(participant);
-        iterator.remove();
+    for (int ungrouped = 0; ungrouped < ungroupedSize; ungrouped++) {
+      // Spacing is rounded up, so the last participants may be spaced past the end.
+      while (interleavedParticipants.size() < ungrouped * spacing && grouped < groupedSize) {
+        interleavedParticipants.add(groupedParticipants.get(grouped++));
       }
+
+      interleavedParticipants.add(ungroupedParticipants.get(ungrouped));
     }
 
-    return groupedParticipants;
+    interleavedParticipants.addAll(groupedParticipants.subList(grouped, groupedSize));
+    return interleavedParticipants;
   }
 
   /**
@@ -168,11 +387,12 @@ public class GridDrawHelper {
    *
    * @param participants          The participants to split.
    * @param numberOfExcludedGrids The number of excluded grids.
+   * @param configuration         The settings to draw with.
    * @return A list of participant lists.
    */
   private static List<List<String>> splitGroupedParticipants(List<String> participants,
-    int numberOfExcludedGrids) {
-    int numberOfGrids = PreferenceHelper.getNumberOfGrids();
+    int numberOfExcludedGrids, DrawConfiguration configuration) {
+    int numberOfGrids = configuration.getNumberOfGrids();
     int numberOfAvailableGrids = numberOfGrids - numberOfExcludedGrids;
 
     // If there are no available grids or no participants return empty list.
@@ -214,17 +434,54 @@ public class GridDrawHelper {
     return splitParticipants;
   }
 
+  /**
+   * Reassign the participants of each race to the grids they occupy, so the participants with the
+   * highest grid totals from the previous heats start from the lowest grids, and then add the grids
+   * drawn to each participant's total. Pairing the highest totals with the lowest grids minimizes
+   * the sum of total and grid products, so sorting gives the optimal assignment in O(n log n). The
+   * sort is stable so tied participants keep their random order and the draw stays deterministic.
+   * Empty and excluded grids are not moved.
+   *
+   * @param races      The races drawn for the heat, which are updated in place.
+   * @param gridTotals The grid totals of each participant, which are updated with the heat's grids.
+   */
+  private static void balanceGrids(List<List<String>> races, Map<String, Integer> gridTotals) {
+    Comparator<String> highestTotalFirst = Comparator
+      .comparingInt((String participant) -> gridTotals.getOrDefault(participant, 0)).reversed();
+
+    for (List<String> race : races) {
+      List<Integer> occupiedGrids = new ArrayList<>(race.size());
+      List<String> participants = new ArrayList<>(race.size());
+
+      for (int grid = 0; grid < race.size(); grid++) {
+        if (!race.get(grid).isEmpty()) {
+          occupiedGrids.add(grid);
+          participants.add(race.get(grid));
+        }
+      }
+
+      participants.sort(highestTotalFirst);
+
+      for (int i = 0; i < participants.size(); i++) {
+        int grid = occupiedGrids.get(i);
+        race.set(grid, participants.get(i));
+        gridTotals.merge(participants.get(i), grid + 1, Integer::sum);
+      }
+    }
+  }
+
   /**
    * Randomize the participants list.
    *
    * @param participants  The participants to randomize.
+   * @param heatNumber    The number of the heat being drawn.
    * @param excludedGrids The grid numbers which have been excluded.
+   * @param salt          The value which is combined with the participants to seed the draw.
    */
   private static void randomizeParticipants(List<String> participants, int heatNumber,
-    Set<Integer> excludedGrids) {
-    // Generate the seed based on variable factors and the current day.
-    long daysSinceEpoch = LocalDate.now(ZoneId.of("Z")).toEpochDay();
-    int seed = Objects.hash(participants, heatNumber, excludedGrids, daysSinceEpoch);
+    Set<Integer> excludedGrids, long salt) {
+    // Generate the seed based on variable factors and the salt.
+    int seed = Objects.hash(participants, heatNumber, excludedGrids, salt);
 
     // Sort and then shuffle the participants.
     Collections.sort(participants);
@@ -19,32 +19,224 @@
 
 package com.judge40.gridgenerator;
 
+import com.judge40.gridgenerator.controller.GridGeneratorController;
+import com.judge40.gridgenerator.diagnostics.DrawMetrics;
+import com.judge40.gridgenerator.ingest.EntryFolderWatcher;
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.prefs.BackingStoreException;
+import javax.management.JMException;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
-import javafx.scene.layout.BorderPane;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 
 /**
- * An application for organizing race competitors in to randomized starting grids.
+ * An application for organizing race competitors in to randomized starting grids. When the watch
+ * option is given the entry files in the folder are ingested as they arrive and the changed classes
+ * are redrawn.
+ *
+ * <p>Usage: {@code [--watch <entry folder>]}
  */
 public class GridGenerator extends Application {
 
+  /**
+   * When set to true the time from process launch to the first frame is logged and the application
+   * exits, used for class-data sharing training runs and startup benchmarks.
+   */
+  static final String STARTUP_BENCHMARK_PROPERTY = "gridgenerator.startupBenchmark";
+
+  static final String WATCH_OPTION = "--watch";
+
+  private static final Logger LOGGER = Logger.getLogger(GridGenerator.class.getName());
+
+  private static final double SPLASH_SIZE = 200;
+
+  private final CompletableFuture<Void> ready = new CompletableFuture<>();
+  private EntryFolderWatcher entryFolderWatcher;
+
+  /**
+   * Start the application, a splash screen is displayed immediately while the preferences, resource
+   * bundles and main layout are initialized in parallel in the background. If the application
+   * could not be started then an error is displayed and the application exits once it is closed.
+   *
+   * @param primaryStage The stage to display the application on.
+   */
   @Override
-  public void start(Stage primaryStage)
-      throws BackingStoreException, ClassNotFoundException, IOException {
-    ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
-    BorderPane main = FXMLLoader
-        .load(getClass().getResource("/fxml/GridGenerator.fxml"), labelsBundle);
+  public void start(Stage primaryStage) {
+    StackPane splash = new StackPane(new ProgressIndicator());
+    splash.setId("splash");
+    splash.setPrefSize(SPLASH_SIZE, SPLASH_SIZE);
 
     primaryStage.setTitle("Grid Generator");
-    primaryStage.setScene(new Scene(main));
+    primaryStage.setScene(new Scene(splash));
     primaryStage.show();
 
-    PreferenceHelper.initializePreferences();
+    CompletableFuture<Void> preferences = CompletableFuture.runAsync(() -> {
+      try {
+        PreferenceHelper.initializePreferences();
+      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    CompletableFuture<ResourceBundle> labelsBundle = CompletableFuture
+      .supplyAsync(() -> ResourceBundle.getBundle("i18n.Labels"));
+
+    // The platform MBean server is slow to create, so register the metrics off the startup path.
+    CompletableFuture.runAsync(() -> {
+      try {
+        DrawMetrics.register();
+      } catch (JMException e) {
+        LOGGER.log(Level.WARNING, "The draw metrics could not be registered.", e);
+      }
+    });
+
+    // The main layout pre-loads views which depend on the preferences, so wait for both.
+    preferences.thenCombine(labelsBundle, (ignored, bundle) -> loadMainLayout(bundle))
+      .thenAcceptAsync(main -> displayMainLayout(primaryStage, main), Platform::runLater)
+      .whenComplete((ignored, throwable) -> {
+        if (throwable == null) {
+          ready.complete(null);
+        } else {
+          Throwable cause = throwable instanceof CompletionException ? throwable.getCause()
+            : throwable;
+          LOGGER.log(Level.SEVERE, "The application could not be started.", cause);
+          ready.completeExceptionally(cause);
+
+          // The splash screen would otherwise remain, so exit once the error is acknowledged.
+          Platform.runLater(() -> {
+            new Alert(AlertType.ERROR, cause.getLocalizedMessage()).showAndWait();
+            Platform.exit();
+          });
+        }
+      });
+  }
+
+  /**
+   * Stop watching the entry folder, if it is being watched.
+   *
+   * @throws IOException If the entry folder watcher could not be closed.
+   */
+  @Override
+  public void stop() throws IOException {
+    if (entryFolderWatcher != null) {
+      entryFolderWatcher.close();
+    }
+  }
+
+  /**
+   * Get a signal which is completed once the main layout is displayed and the application is ready
+   * for interaction.
+   *
+   * @return The ready signal.
+   */
+  public CompletableFuture<Void> getReady() {
+    return ready;
+  }
+
+  /**
+   * Load the main layout from FXML.
+   *
+   * @param labelsBundle The resource bundle to use for the layout's labels.
+   * @return The loader which loaded the main layout, providing access to the layout and its
+   *     controller.
+   */
+  private FXMLLoader loadMainLayout(ResourceBundle labelsBundle) {
+    FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/GridGenerator.fxml"),
+      labelsBundle);
+
+    try {
+      loader.load();
+      return loader;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Replace the splash screen with the main layout.
+   *
+   * @param primaryStage The stage to display the main layout on.
+   * @param main         The loader which loaded the main layout.
+   */
+  private void displayMainLayout(Stage primaryStage, FXMLLoader main) {
+    Scene scene = new Scene(main.<Parent>getRoot());
+    primaryStage.setScene(scene);
+    primaryStage.sizeToScene();
+
+    if (Boolean.getBoolean(STARTUP_BENCHMARK_PROPERTY)) {
+      exitAfterFirstFrame(scene);
+    } else {
+      watchEntryFolder(main.getController());
+    }
+  }
+
+  /**
+   * Start watching the entry folder given by the watch option, if present, the classes changed by
+   * new entries are refreshed on the application thread.
+   *
+   * @param controller The main layout's controller.
+   */
+  private void watchEntryFolder(GridGeneratorController controller) {
+    // There are no parameters when the application is not started by the launcher.
+    Parameters parameters = getParameters();
+    List<String> args = parameters == null ? Collections.emptyList() : parameters.getRaw();
+    int watchIndex = args.indexOf(WATCH_OPTION);
+
+    if (watchIndex == -1) {
+      return;
+    }
+
+    if (watchIndex + 1 >= args.size()) {
+      LOGGER.warning("Usage: " + WATCH_OPTION + " <entry folder>");
+      return;
+    }
+
+    entryFolderWatcher = new EntryFolderWatcher(Paths.get(args.get(watchIndex + 1)),
+      classNames -> Platform.runLater(() -> controller.refreshClasses(classNames)));
+
+    try {
+      entryFolderWatcher.start();
+    } catch (IOException e) {
+      LOGGER.log(Level.SEVERE, "The entry folder could not be watched.", e);
+    }
+  }
+
+  /**
+   * Log the time from process launch until the first frame of the scene and then exit.
+   *
+   * @param scene The scene to wait for the first frame of.
+   */
+  private void exitAfterFirstFrame(Scene scene) {
+    scene.addPostLayoutPulseListener(new Runnable() {
+      @Override
+      public void run() {
+        scene.removePostLayoutPulseListener(this);
+
+        // The frame is rendered after the layout pulse, so wait for the next event.
+        Platform.runLater(() -> {
+          Instant launched = ProcessHandle.current().info().startInstant().orElse(Instant.now());
+          long startupTime = Duration.between(launched, Instant.now()).toMillis();
+          LOGGER.info(String.format("Launch to first frame: %d ms", startupTime));
+          Platform.exit();
+        });
+      }
+    });
   }
 }
@@ -19,13 +19,45 @@
 
 package com.judge40.gridgenerator;
 
+import com.judge40.gridgenerator.audit.DrawVerificationCommand;
+import com.judge40.gridgenerator.export.DrawExportCommand;
+import com.judge40.gridgenerator.simulation.DrawSimulationCommand;
+
 /**
  * A launcher for {@link GridGenerator}, allows execution without a JavaFX SDK installation being
- * required.
+ * required. When the export option is given the meeting's draw is exported, when the simulate
+ * option is given the meeting's draw is simulated, and when the verify option is given the draws in
+ * a manifest are verified, without starting the user interface.
  */
 public class GridGeneratorLauncher {
 
+  /**
+   * Start the application, or run a headless export, simulation or verification if requested by
+   * the arguments.
+   *
+   * @param args The command line arguments.
+   */
   public static void main(String[] args) {
-    GridGenerator.launch(GridGenerator.class, args);
+    if (DrawExportCommand.isExportCommand(args)) {
+      int exitStatus = DrawExportCommand.run(args);
+
+      if (exitStatus != 0) {
+        System.exit(exitStatus);
+      }
+    } else if (DrawSimulationCommand.isSimulationCommand(args)) {
+      int exitStatus = DrawSimulationCommand.run(args);
+
+      if (exitStatus != 0) {
+        System.exit(exitStatus);
+      }
+    } else if (DrawVerificationCommand.isVerificationCommand(args)) {
+      int exitStatus = DrawVerificationCommand.run(args);
+
+      if (exitStatus != 0) {
+        System.exit(exitStatus);
+      }
+    } else {
+      GridGenerator.launch(GridGenerator.class, args);
+    }
   }
 }
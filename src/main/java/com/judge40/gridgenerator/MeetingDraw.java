@@ -0,0 +1,93 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The drawn grids for every class of a meeting, the classes are kept in the order they were drawn.
+ */
+public class MeetingDraw {
+
+  private final String meetingName;
+  private final LocalDate date;
+  private final Map<String, List<List<List<String>>>> classHeats;
+  private final List<DrawManifest> manifests;
+
+  /**
+   * Create a meeting draw without any manifests.
+   *
+   * @param meetingName The name of the meeting.
+   * @param date        The date of the draw.
+   * @param classHeats  The drawn heats for each class, keyed by class name.
+   */
+  public MeetingDraw(String meetingName, LocalDate date,
+    Map<String, List<List<List<String>>>> classHeats) {
+    this(meetingName, date, classHeats, Collections.emptyList());
+  }
+
+  /**
+   * Create a meeting draw.
+   *
+   * @param meetingName The name of the meeting.
+   * @param date        The date of the draw.
+   * @param classHeats  The drawn heats for each class, keyed by class name.
+   * @param manifests   The manifests of each class's draw.
+   */
+  public MeetingDraw(String meetingName, LocalDate date,
+    Map<String, List<List<List<String>>>> classHeats, List<DrawManifest> manifests) {
+    this.meetingName = meetingName;
+    this.date = date;
+    this.classHeats = Collections.unmodifiableMap(new LinkedHashMap<>(classHeats));
+    this.manifests = Collections.unmodifiableList(new ArrayList<>(manifests));
+  }
+
+  public String getMeetingName() {
+    return meetingName;
+  }
+
+  public LocalDate getDate() {
+    return date;
+  }
+
+  /**
+   * Get the drawn heats for each class, classes with no heats are not included.
+   *
+   * @return A map of class name to a list of heats containing lists of races containing lists of
+   * participants.
+   */
+  public Map<String, List<List<List<String>>>> getClassHeats() {
+    return classHeats;
+  }
+
+  /**
+   * Get the manifests from which each class's draw can be reproduced and checked.
+   *
+   * @return The manifests of the drawn classes, in the order they were drawn.
+   */
+  public List<DrawManifest> getManifests() {
+    return manifests;
+  }
+}
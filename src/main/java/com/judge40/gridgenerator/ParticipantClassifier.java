@@ -0,0 +1,226 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies participants in to the groups of a grouping filter. Each named capturing group of the
+ * filter, e.g. {@code (?<ARC>ARC\d+)|(?<LM>LM\d+)|(?<NW>NW\d+)}, is a separate group so that
+ * grouped participants only race others from their own group. Participants which match the filter
+ * but none of its named groups, including every match of a filter without named groups, are
+ * classified in to an unnamed group which follows the named groups.
+ *
+ * <p>The filter is matched once for each participant, the matching group is found from the
+ * groups which took part in the match, so classification and partitioning are linear in the number
+ * of participants regardless of the number of groups or how many participants are grouped.
+ */
+class ParticipantClassifier {
+
+  /**
+   * The classification of participants which do not match the grouping filter.
+   */
+  static final int UNGROUPED = -1;
+
+  private final Pattern groupingFilter;
+  private final List<String> groupNames;
+
+  /**
+   * Create a classifier for a grouping filter.
+   *
+   * @param groupingFilter The grouping filter, its named capturing groups are the participant
+   *                       groups.
+   */
+  ParticipantClassifier(Pattern groupingFilter) {
+    this.groupingFilter = groupingFilter;
+    this.groupNames = Collections.unmodifiableList(findGroupNames(groupingFilter.pattern()));
+  }
+
+  /**
+   * Get the names of the grouping filter's named groups, in the order they are declared.
+   *
+   * @return The group names.
+   */
+  List<String> getGroupNames() {
+    return groupNames;
+  }
+
+  /**
+   * Get the number of groups participants can be classified in to, the named groups followed by
+   * the unnamed group.
+   *
+   * @return The number of groups.
+   */
+  int getNumberOfGroups() {
+    return groupNames.size() + 1;
+  }
+
+  /**
+   * Classify a participant.
+   *
+   * @param participant The participant to classify.
+   * @return The index of the participant's group, or {@link #UNGROUPED}.
+   */
+  int classify(String participant) {
+    return classify(groupingFilter.matcher(participant));
+  }
+
+  /**
+   * Partition participants in to their groups, keeping the participants' order within each group.
+   * The participants are classified in a single pass and then placed by a counting sort in to one
+   * array, which is shared by the views of each group, so no participant is moved more than once.
+   *
+   * @param participants The participants to partition.
+   * @return The partitioned participants.
+   */
+  Partition partition(List<String> participants) {
+    // Classify each participant, the ungrouped participants are placed after the last group.
+    int ungroupedIndex = getNumberOfGroups();
+    int[] classifications = new int[participants.size()];
+    int[] boundaries = new int[ungroupedIndex + 2];
+    Matcher matcher = groupingFilter.matcher("");
+    int participant = 0;
+
+    for (String name : participants) {
+      int group = classify(matcher.reset(name));
+      classifications[participant] = group == UNGROUPED ? ungroupedIndex : group;
+      boundaries[classifications[participant++] + 1]++;
+    }
+
+    // Convert the counts to the index each group starts from.
+    for (int group = 1; group < boundaries.length; group++) {
+      boundaries[group] += boundaries[group - 1];
+    }
+
+    int[] nextIndexes = Arrays.copyOf(boundaries, ungroupedIndex + 1);
+    String[] partitionedParticipants = new String[participants.size()];
+    participant = 0;
+
+    for (String name : participants) {
+      partitionedParticipants[nextIndexes[classifications[participant++]]++] = name;
+    }
+
+    return new Partition(partitionedParticipants, boundaries);
+  }
+
+  /**
+   * Classify the participant a matcher has been reset to.
+   *
+   * @param matcher The grouping filter's matcher for the participant.
+   * @return The index of the participant's group, or {@link #UNGROUPED}.
+   */
+  private int classify(Matcher matcher) {
+    if (!matcher.matches()) {
+      return UNGROUPED;
+    }
+
+    for (int group = 0; group < groupNames.size(); group++) {
+      if (matcher.start(groupNames.get(group)) != -1) {
+        return group;
+      }
+    }
+
+    return groupNames.size();
+  }
+
+  /**
+   * Find the names of the named capturing groups declared by a RegEx, ignoring escaped characters,
+   * quoted sections and character classes.
+   *
+   * @param regex The RegEx to search.
+   * @return The group names, in the order they are declared.
+   */
+  private static List<String> findGroupNames(String regex) {
+    List<String> names = new ArrayList<>();
+    int characterClassDepth = 0;
+
+    for (int i = 0; i < regex.length(); i++) {
+      char character = regex.charAt(i);
+
+      if (character == '\\') {
+        if (regex.startsWith("Q", i + 1)) {
+          int quoteEnd = regex.indexOf("\\E", i + 2);
+          i = quoteEnd == -1 ? regex.length() : quoteEnd + 1;
+        } else {
+          i++;
+        }
+      } else if (character == '[') {
+        characterClassDepth++;
+      } else if (character == ']' && characterClassDepth > 0) {
+        characterClassDepth--;
+      } else if (characterClassDepth == 0 && regex.startsWith("(?<", i)
+        && i + 3 < regex.length() && Character.isLetter(regex.charAt(i + 3))) {
+        int nameEnd = regex.indexOf('>', i + 3);
+        names.add(regex.substring(i + 3, nameEnd));
+        i = nameEnd;
+      }
+    }
+
+    return names;
+  }
+
+  /**
+   * Participants partitioned in to their groups, each group is a view of a range of a single array
+   * and the ungrouped participants are the final range.
+   */
+  static class Partition {
+
+    private final List<List<String>> groups;
+    private final List<String> ungrouped;
+    private final int numberOfGrouped;
+
+    /**
+     * Create a partition.
+     *
+     * @param participants The partitioned participants.
+     * @param boundaries   The index each group's range starts from, followed by the index the
+     *                     ungrouped range starts from and the number of participants.
+     */
+    private Partition(String[] participants, int[] boundaries) {
+      List<String> participantList = Arrays.asList(participants);
+      int ungroupedIndex = boundaries.length - 2;
+      groups = new ArrayList<>(ungroupedIndex);
+
+      for (int group = 0; group < ungroupedIndex; group++) {
+        groups.add(participantList.subList(boundaries[group], boundaries[group + 1]));
+      }
+
+      ungrouped = participantList.subList(boundaries[ungroupedIndex], participants.length);
+      numberOfGrouped = boundaries[ungroupedIndex];
+    }
+
+    List<List<String>> getGroups() {
+      return groups;
+    }
+
+    List<String> getUngrouped() {
+      return ungrouped;
+    }
+
+    int getNumberOfGrouped() {
+      return numberOfGrouped;
+    }
+  }
+}
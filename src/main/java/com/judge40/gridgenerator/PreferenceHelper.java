@@ -19,31 +19,84 @@
 
 package com.judge40.gridgenerator;
 
+import com.judge40.gridgenerator.diagnostics.DrawMetrics;
+import com.judge40.gridgenerator.diagnostics.PreferenceObjectEvent;
+import com.judge40.gridgenerator.storage.PreferenceStorage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.prefs.BackingStoreException;
+import java.util.prefs.InvalidPreferencesFormatException;
 import java.util.prefs.Preferences;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 /**
  * A helper class for retrieving and setting preference values using {@link
- * java.util.prefs.Preferences}.
+ * java.util.prefs.Preferences} from the selected {@link PreferenceStorage} provider.
+ *
+ * <p>The helper is safe for concurrent use. Objects are stored as multiple chunk values, so each
+ * object key is guarded by one of a set of striped read/write locks, readers never observe a
+ * partially written set of chunks and writers of different keys rarely block each other. Bulk
+ * operations on the whole meeting hold every lock.
  */
 public class PreferenceHelper {
 
-  private static final Preferences PREFERENCES = Preferences
-    .userNodeForPackage(GridGenerator.class);
+  private static final Preferences PREFERENCES = PreferenceStorage.getUserRoot()
+    .node(PreferenceHelper.class.getPackageName().replace('.', '/'));
   private static final int BYTE_CHUNK_SIZE = (int) (Preferences.MAX_VALUE_LENGTH * 0.75);
 
+  // Objects which do not fit in a single chunk are compressed, marked by a leading header byte.
+  // Uncompressed objects always start with the serialization stream magic number (0xACED).
+  private static final int COMPRESSION_THRESHOLD = BYTE_CHUNK_SIZE;
+  private static final int DEFLATE_HEADER = 0x01;
+
+  private static final int LOCK_STRIPES = 16;
+  private static final ReadWriteLock[] LOCKS = new ReadWriteLock[LOCK_STRIPES];
+
+  static {
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      LOCKS[i] = new ReentrantReadWriteLock();
+    }
+  }
+
+  private static final String DEFAULT_MEETING = "/preferences/default-meeting.xml";
+  private static final String TEMPORARY_FILE_PREFIX = "grid-generator";
+
   private static final String MEETING_NAME = "meetingName";
 
   private static final String CLASS_PARTICIPANTS = "participants/%s";
+  private static final String CLASS_SETTINGS = "classSettings/%s";
   private static final String PARTICIPANT_CLASS_NAMES = "participantClassNames";
   private static final String PARTICIPANT_VALIDATOR = "participantValidator";
   private static final String PARTICIPANT_GROUPING_FILTER = "participantGroupingFilter";
@@ -52,39 +105,177 @@ public class PreferenceHelper {
   private static final String GRIDS_TOTAL_NUMBER = "gridsTotalNumber";
   private static final String HEATS_TOTAL_NUMBER = "heatsTotalNumber";
 
+  private static final String DRAW_MODE = "drawMode";
+  private static final String DRAW_OPTIMIZATION_TIME_LIMIT = "drawOptimizationTimeLimit";
+  private static final int DEFAULT_DRAW_OPTIMIZATION_TIME_LIMIT = 500;
+
   /**
-   * Initialize the preferences with default values if they are not already present.
+   * Initialize the preferences with the values of the default meeting template if they are not
+   * already present. The template holds the class names as numbered entries so it can be edited,
+   * and every missing value is set while holding every lock.
    */
-  // TODO: Use XML import to populate the preferences.
   public static void initializePreferences()
     throws BackingStoreException, ClassNotFoundException, IOException {
-    if (PREFERENCES.get(MEETING_NAME, null) == null) {
-      setMeetingName("NWAA Qualifier");
+    Properties defaultMeeting = new Properties();
+
+    try (InputStream inputStream = PreferenceHelper.class.getResourceAsStream(DEFAULT_MEETING)) {
+      defaultMeeting.loadFromXML(inputStream);
     }
 
-    if (getObject(PARTICIPANT_CLASS_NAMES, null) == null) {
-      setParticipantClassNames(Arrays.asList("Class 1", "Class 2", "Class 3", "Class 4", "Class 5",
-        "Class 6", "Class 7", "Class 8", "Class 9", "Class 10"));
+    lockAll(true);
+
+    try {
+      for (String key : Arrays.asList(MEETING_NAME, PARTICIPANT_VALIDATOR,
+        PARTICIPANT_GROUPING_FILTER, PARTICIPANT_GROUPING_THRESHOLD, GRIDS_TOTAL_NUMBER,
+        HEATS_TOTAL_NUMBER)) {
+        if (PREFERENCES.get(key, null) == null) {
+          PREFERENCES.put(key, getDefaultValue(defaultMeeting, key));
+        }
+      }
+
+      if (getObject(PARTICIPANT_CLASS_NAMES, null) == null) {
+        List<String> participantClassNames = new ArrayList<>();
+
+        // The class names are numbered from one, in the order they are displayed.
+        for (int classNumber = 1;
+          defaultMeeting.containsKey(PARTICIPANT_CLASS_NAMES + "." + classNumber); classNumber++) {
+          participantClassNames.add(
+            defaultMeeting.getProperty(PARTICIPANT_CLASS_NAMES + "." + classNumber));
+        }
+
+        setParticipantClassNames(participantClassNames);
+      }
+    } finally {
+      unlockAll(true);
     }
+  }
 
-    if (PREFERENCES.get(PARTICIPANT_VALIDATOR, null) == null) {
-      setParticipantValidator("[A-Z]+\\d+[A-Z]*|\\d+F");
+  /**
+   * Get a value from the default meeting template.
+   *
+   * @param defaultMeeting The values of the default meeting template.
+   * @param key            The key of the value to get.
+   * @return The default value.
+   */
+  private static String getDefaultValue(Properties defaultMeeting, String key) {
+    String value = defaultMeeting.getProperty(key);
+
+    if (value == null) {
+      throw new IllegalStateException("The default meeting does not contain " + key + ".");
     }
 
-    if (PREFERENCES.get(PARTICIPANT_GROUPING_FILTER, null) == null) {
-      setParticipantGroupingFilter("ARC\\d+|LM\\d+|NW\\d+");
+    return value;
+  }
+
+  /**
+   * Import a meeting which was previously exported using {@link #exportMeeting(OutputStream)},
+   * the imported meeting replaces the current meeting in a single bulk operation. A document which
+   * was not exported from the meeting's preferences is rejected before the current meeting is
+   * cleared, if the meeting could not otherwise be imported then the current meeting is restored.
+   *
+   * @param inputStream The stream to read the meeting XML from.
+   * @throws BackingStoreException             If the current meeting could not be cleared.
+   * @throws IOException                       If the meeting could not be read.
+   * @throws InvalidPreferencesFormatException If the meeting XML was not valid or was not exported
+   *                                           from the meeting's preferences.
+   */
+  public static void importMeeting(InputStream inputStream)
+    throws BackingStoreException, IOException, InvalidPreferencesFormatException {
+    // The meeting is checked while it is copied to a temporary file, so a large meeting is read in
+    // a single pass and is not held in memory before the current meeting is cleared.
+    Path meeting = Files.createTempFile(TEMPORARY_FILE_PREFIX, ".xml");
+
+    try {
+      try (OutputStream meetingOutputStream = new BufferedOutputStream(
+        Files.newOutputStream(meeting))) {
+        CopyingInputStream copyingInputStream = new CopyingInputStream(inputStream,
+          meetingOutputStream);
+        PreferenceStorage.checkSubtree(copyingInputStream, PREFERENCES.absolutePath());
+
+        // Copy anything following the document which the check did not need to read.
+        copyingInputStream.transferTo(OutputStream.nullOutputStream());
+      }
+
+      replaceMeeting(meeting);
+    } finally {
+      Files.delete(meeting);
     }
+  }
+
+  /**
+   * Replace the current meeting with a meeting which has already been checked, the current meeting
+   * is backed up to a temporary file and restored if the meeting could not be imported.
+   *
+   * @param meeting The file to read the meeting XML from.
+   * @throws BackingStoreException             If the current meeting could not be cleared.
+   * @throws IOException                       If the meeting could not be read.
+   * @throws InvalidPreferencesFormatException If the meeting XML was not valid.
+   */
+  private static void replaceMeeting(Path meeting)
+    throws BackingStoreException, IOException, InvalidPreferencesFormatException {
+    Path currentMeeting = Files.createTempFile(TEMPORARY_FILE_PREFIX, ".xml");
+    lockAll(true);
+
+    try {
+      // Keep a copy of the current meeting in case the import fails.
+      try (OutputStream outputStream = new BufferedOutputStream(
+        Files.newOutputStream(currentMeeting))) {
+        PREFERENCES.exportSubtree(outputStream);
+      }
 
-    if (PREFERENCES.getInt(PARTICIPANT_GROUPING_THRESHOLD, -1) == -1) {
-      setParticipantGroupingThreshold(4);
+      // Existing object chunks must be removed so they are not combined with imported chunks.
+      clearMeeting();
+
+      try (InputStream meetingInputStream = new BufferedInputStream(
+        Files.newInputStream(meeting))) {
+        PreferenceStorage.importPreferences(meetingInputStream);
+      } catch (IOException | InvalidPreferencesFormatException e) {
+        clearMeeting();
+
+        try (InputStream currentMeetingInputStream = new BufferedInputStream(
+          Files.newInputStream(currentMeeting))) {
+          PreferenceStorage.importPreferences(currentMeetingInputStream);
+        }
+
+        throw e;
+      }
+    } finally {
+      unlockAll(true);
+      Files.delete(currentMeeting);
     }
+  }
+
+  /**
+   * Export the current meeting, including all settings and participants, as XML.
+   *
+   * @param outputStream The stream to write the meeting XML to.
+   * @throws BackingStoreException If the meeting could not be read.
+   * @throws IOException           If the meeting could not be written.
+   */
+  public static void exportMeeting(OutputStream outputStream)
+    throws BackingStoreException, IOException {
+    BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(outputStream);
+    lockAll(false);
 
-    if (PREFERENCES.getInt(GRIDS_TOTAL_NUMBER, -1) == -1) {
-      setNumberOfGrids(8);
+    try {
+      PREFERENCES.exportSubtree(bufferedOutputStream);
+    } finally {
+      unlockAll(false);
     }
 
-    if (PREFERENCES.getInt(HEATS_TOTAL_NUMBER, -1) == -1) {
-      setNumberOfHeats(3);
+    bufferedOutputStream.flush();
+  }
+
+  /**
+   * Remove all values and child nodes from the meeting's preferences.
+   *
+   * @throws BackingStoreException If the preferences could not be cleared.
+   */
+  private static void clearMeeting() throws BackingStoreException {
+    PREFERENCES.clear();
+
+    for (String childName : PREFERENCES.childrenNames()) {
+      PREFERENCES.node(childName).removeNode();
     }
   }
 
@@ -137,6 +328,34 @@ public class PreferenceHelper {
     putObject(String.format(CLASS_PARTICIPANTS, className), participants);
   }
 
+  /**
+   * Remove participants from a class, the class's participants are read and written while holding
+   * the class's lock so that participants added concurrently are not lost.
+   *
+   * @param className The class to remove the participants from.
+   * @param participants The participants to remove.
+   * @throws BackingStoreException If the number of object chunks could not be determined or the
+   * previous preference node value could not be cleared.
+   * @throws ClassNotFoundException If the preference values could not be recombined in to a valid
+   * object.
+   * @throws IOException If the preference values could not be read or written.
+   */
+  public static void removeClassParticipants(String className, Collection<String> participants)
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    Lock writeLock = getLock(String.format(CLASS_PARTICIPANTS, className)).writeLock();
+    writeLock.lock();
+
+    try {
+      List<String> classParticipants = getClassParticipants(className);
+
+      if (classParticipants.removeAll(participants)) {
+        setClassParticipants(className, classParticipants);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
   /**
    * Get the participant class names.
    *
@@ -165,6 +384,62 @@ public class PreferenceHelper {
     putObject(PARTICIPANT_CLASS_NAMES, participantClassNames);
   }
 
+  /**
+   * Add participants to their classes in a single batch, participants which are already in their
+   * class are ignored and classes which do not exist are added after the existing classes. Every
+   * lock is held for the whole batch so readers observe either none or all of the additions.
+   *
+   * @param classParticipants The participants to add, keyed by class name.
+   * @return The names of the classes whose participants changed, in the order they were given.
+   * @throws BackingStoreException If the number of object chunks could not be determined or the
+   * previous preference node values could not be cleared.
+   * @throws ClassNotFoundException If the preference values could not be recombined in to a valid
+   * object.
+   * @throws IOException If the preference values could not be read or written.
+   */
+  public static Set<String> addClassParticipants(
+    Map<String, ? extends Collection<String>> classParticipants)
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    Set<String> changedClassNames = new LinkedHashSet<>();
+    lockAll(true);
+
+    try {
+      List<String> participantClassNames = getParticipantClassNames();
+      boolean classAdded = false;
+
+      for (Map.Entry<String, ? extends Collection<String>> entry : classParticipants.entrySet()) {
+        String className = entry.getKey();
+        List<String> participants = getClassParticipants(className);
+        Set<String> existingParticipants = new HashSet<>(participants);
+        int numberOfParticipants = participants.size();
+
+        for (String participant : entry.getValue()) {
+          if (existingParticipants.add(participant)) {
+            participants.add(participant);
+          }
+        }
+
+        if (participants.size() > numberOfParticipants) {
+          setClassParticipants(className, participants);
+          changedClassNames.add(className);
+        }
+
+        if (!participantClassNames.contains(className)) {
+          participantClassNames.add(className);
+          classAdded = true;
+        }
+      }
+
+      if (classAdded) {
+        setParticipantClassNames(participantClassNames);
+      }
+    } finally {
+      unlockAll(true);
+    }
+
+    return changedClassNames;
+  }
+
   /**
    * Get the validator for participants.
    *
@@ -255,9 +530,199 @@ public class PreferenceHelper {
     PREFERENCES.putInt(HEATS_TOTAL_NUMBER, numberOfHeats);
   }
 
+  /**
+   * Get the number of grids for a particular class, overriding the total number of grids.
+   *
+   * @param className The class name to get the number of grids for.
+   * @return The class's number of grids, or empty if the class does not override it.
+   * @throws BackingStoreException If the class's settings could not be read.
+   */
+  public static OptionalInt getClassNumberOfGrids(String className) throws BackingStoreException {
+    return getClassIntSetting(className, GRIDS_TOTAL_NUMBER);
+  }
+
+  /**
+   * Set the number of grids for a particular class, overriding the total number of grids.
+   *
+   * @param className     The class name to set the number of grids for.
+   * @param numberOfGrids The class's number of grids.
+   */
+  public static void setClassNumberOfGrids(String className, int numberOfGrids) {
+    PREFERENCES.node(String.format(CLASS_SETTINGS, className))
+      .putInt(GRIDS_TOTAL_NUMBER, numberOfGrids);
+  }
+
+  /**
+   * Get the number of heats for a particular class, overriding the total number of heats.
+   *
+   * @param className The class name to get the number of heats for.
+   * @return The class's number of heats, or empty if the class does not override it.
+   * @throws BackingStoreException If the class's settings could not be read.
+   */
+  public static OptionalInt getClassNumberOfHeats(String className) throws BackingStoreException {
+    return getClassIntSetting(className, HEATS_TOTAL_NUMBER);
+  }
+
+  /**
+   * Set the number of heats for a particular class, overriding the total number of heats.
+   *
+   * @param className     The class name to set the number of heats for.
+   * @param numberOfHeats The class's number of heats.
+   */
+  public static void setClassNumberOfHeats(String className, int numberOfHeats) {
+    PREFERENCES.node(String.format(CLASS_SETTINGS, className))
+      .putInt(HEATS_TOTAL_NUMBER, numberOfHeats);
+  }
+
+  /**
+   * Get the grouping filter for a particular class's participants, overriding the grouping filter
+   * for participants.
+   *
+   * @param className The class name to get the grouping filter for.
+   * @return The class's grouping filter RegEx, or empty if the class does not override it.
+   * @throws BackingStoreException If the class's settings could not be read.
+   */
+  public static Optional<String> getClassParticipantGroupingFilter(String className)
+    throws BackingStoreException {
+    return getClassSetting(className, PARTICIPANT_GROUPING_FILTER);
+  }
+
+  /**
+   * Set the grouping filter for a particular class's participants, overriding the grouping filter
+   * for participants.
+   *
+   * @param className                 The class name to set the grouping filter for.
+   * @param participantGroupingFilter The class's grouping filter RegEx.
+   */
+  public static void setClassParticipantGroupingFilter(String className,
+    String participantGroupingFilter) {
+    PREFERENCES.node(String.format(CLASS_SETTINGS, className))
+      .put(PARTICIPANT_GROUPING_FILTER, participantGroupingFilter);
+  }
+
+  /**
+   * Get the grouping threshold for a particular class's participants, overriding the grouping
+   * threshold for participants.
+   *
+   * @param className The class name to get the grouping threshold for.
+   * @return The class's grouping threshold, or empty if the class does not override it.
+   * @throws BackingStoreException If the class's settings could not be read.
+   */
+  public static OptionalInt getClassParticipantGroupingThreshold(String className)
+    throws BackingStoreException {
+    return getClassIntSetting(className, PARTICIPANT_GROUPING_THRESHOLD);
+  }
+
+  /**
+   * Set the grouping threshold for a particular class's participants, overriding the grouping
+   * threshold for participants.
+   *
+   * @param className                    The class name to set the grouping threshold for.
+   * @param participantGroupingThreshold The class's grouping threshold.
+   */
+  public static void setClassParticipantGroupingThreshold(String className,
+    int participantGroupingThreshold) {
+    PREFERENCES.node(String.format(CLASS_SETTINGS, className))
+      .putInt(PARTICIPANT_GROUPING_THRESHOLD, participantGroupingThreshold);
+  }
+
+  /**
+   * Remove all of a particular class's settings, so the class is drawn with the meeting's
+   * settings.
+   *
+   * @param className The class name to remove the settings for.
+   * @throws BackingStoreException If the class's settings could not be removed.
+   */
+  public static void removeClassSettings(String className) throws BackingStoreException {
+    String path = String.format(CLASS_SETTINGS, className);
+
+    if (PREFERENCES.nodeExists(path)) {
+      PREFERENCES.node(path).removeNode();
+    }
+  }
+
+  /**
+   * Get one of a class's settings, the class's settings node is not created if it does not exist.
+   *
+   * @param className The class name to get the setting for.
+   * @param key       The setting's preference name.
+   * @return The setting's value, or empty if the class does not override it.
+   * @throws BackingStoreException If the class's settings could not be read.
+   */
+  private static Optional<String> getClassSetting(String className, String key)
+    throws BackingStoreException {
+    String path = String.format(CLASS_SETTINGS, className);
+
+    if (!PREFERENCES.nodeExists(path)) {
+      return Optional.empty();
+    }
+
+    return Optional.ofNullable(PREFERENCES.node(path).get(key, null));
+  }
+
+  /**
+   * Get one of a class's integer settings, a value which is not an integer is ignored.
+   *
+   * @param className The class name to get the setting for.
+   * @param key       The setting's preference name.
+   * @return The setting's value, or empty if the class does not override it.
+   * @throws BackingStoreException If the class's settings could not be read.
+   */
+  private static OptionalInt getClassIntSetting(String className, String key)
+    throws BackingStoreException {
+    Optional<String> value = getClassSetting(className, key);
+
+    try {
+      return value.isPresent() ? OptionalInt.of(Integer.parseInt(value.get()))
+        : OptionalInt.empty();
+    } catch (NumberFormatException e) {
+      return OptionalInt.empty();
+    }
+  }
+
+  /**
+   * Get the mode in which grids are drawn.
+   *
+   * @return The draw mode, defaults to {@link DrawMode#RANDOM} if not set or not recognized.
+   */
+  public static DrawMode getDrawMode() {
+    try {
+      return DrawMode.valueOf(PREFERENCES.get(DRAW_MODE, DrawMode.RANDOM.name()));
+    } catch (IllegalArgumentException e) {
+      return DrawMode.RANDOM;
+    }
+  }
+
+  /**
+   * Set the mode in which grids are drawn.
+   *
+   * @param drawMode The draw mode.
+   */
+  public static void setDrawMode(DrawMode drawMode) {
+    PREFERENCES.put(DRAW_MODE, drawMode.name());
+  }
+
+  /**
+   * Get the time allowed for optimizing each heat when drawing in {@link DrawMode#OPTIMIZED} mode.
+   *
+   * @return The time limit in milliseconds, defaults to 500 if not set.
+   */
+  public static int getDrawOptimizationTimeLimit() {
+    return PREFERENCES.getInt(DRAW_OPTIMIZATION_TIME_LIMIT, DEFAULT_DRAW_OPTIMIZATION_TIME_LIMIT);
+  }
+
+  /**
+   * Set the time allowed for optimizing each heat when drawing in {@link DrawMode#OPTIMIZED} mode.
+   *
+   * @param drawOptimizationTimeLimit The time limit in milliseconds.
+   */
+  public static void setDrawOptimizationTimeLimit(int drawOptimizationTimeLimit) {
+    PREFERENCES.putInt(DRAW_OPTIMIZATION_TIME_LIMIT, drawOptimizationTimeLimit);
+  }
+
   /**
    * Get a serializable object from the preference store, any object which were split will be
-   * reconstructed.
+   * reconstructed and any object which was compressed will be decompressed.
    *
    * @param key The preference name.
    * @param defaultValue The default value to return if there is no preference set.
@@ -269,41 +734,51 @@ public class PreferenceHelper {
    */
   private static Object getObject(String key, Object defaultValue)
     throws BackingStoreException, ClassNotFoundException, IOException {
-    Preferences preferenceNode = PREFERENCES.node(key);
-    int numberOfChunks = preferenceNode.keys().length;
-
-    // If no chunks were found then the preference does not exist, return the default value.
-    if (numberOfChunks == 0) {
-      return defaultValue;
-    }
+    PreferenceObjectEvent event = new PreferenceObjectEvent();
+    event.begin();
 
-    byte[] objectBytes = null;
+    Lock readLock = getLock(key).readLock();
+    readLock.lock();
 
-    // Iterate through the chunks and combine the bytes in to a single array.
-    for (int i = numberOfChunks - 1; i >= 0; i--) {
-      byte[] chunkBytes = preferenceNode.getByteArray(String.valueOf(i), new byte[0]);
-      int chunkStart = i * BYTE_CHUNK_SIZE;
+    try {
+      Preferences preferenceNode = PREFERENCES.node(key);
+      int numberOfChunks = preferenceNode.keys().length;
 
-      // If the byte array is not initialized, calculate the correct size and initialize it.
-      if (objectBytes == null) {
-        int objectSize = chunkStart + chunkBytes.length;
-        objectBytes = new byte[objectSize];
+      // If no chunks were found then the preference does not exist, return the default value.
+      if (numberOfChunks == 0) {
+        commitPreferenceObjectEvent(event, key, PreferenceObjectEvent.READ, 0, 0);
+        return defaultValue;
       }
 
-      // Copy the chunk bytes in to the object bytes array.
-      System.arraycopy(chunkBytes, 0, objectBytes, chunkStart, chunkBytes.length);
-    }
+      // Decode the chunks one at a time as the object is deserialized, rather than combining them.
+      ChunkEnumeration chunks = new ChunkEnumeration(preferenceNode, numberOfChunks);
+
+      PushbackInputStream chunkStream = new PushbackInputStream(new SequenceInputStream(chunks));
+      int header = chunkStream.read();
+      InputStream objectStream = chunkStream;
+
+      if (header == DEFLATE_HEADER) {
+        objectStream = new BufferedInputStream(new InflaterInputStream(chunkStream));
+      } else if (header != -1) {
+        chunkStream.unread(header);
+      }
 
-    // Convert the object bytes in to an object.
-    try (ByteArrayInputStream bais = new ByteArrayInputStream(
-      objectBytes); ObjectInputStream ois = new ObjectInputStream(bais)) {
-      return ois.readObject();
+      try (ObjectInputStream ois = new ObjectInputStream(objectStream)) {
+        Object object = ois.readObject();
+        DrawMetrics.getInstance().recordPreferenceBytesRead(chunks.getBytesRead());
+        commitPreferenceObjectEvent(event, key, PreferenceObjectEvent.READ, numberOfChunks,
+          chunks.getBytesRead());
+        return object;
+      }
+    } finally {
+      readLock.unlock();
     }
   }
 
   /**
-   * Put a serializable object in to the preference store, the object will be split across as many
-   * byte array preferences as required for the whole object to be stored.
+   * Put a serializable object in to the preference store, the object will be compressed if it is
+   * larger than a single chunk and then split across as many byte array preferences as required
+   * for the whole object to be stored.
    *
    * @param key The preference name.
    * @param object The preference value to store.
@@ -312,26 +787,242 @@ public class PreferenceHelper {
    */
   private static void putObject(String key, Object object)
     throws BackingStoreException, IOException {
+    PreferenceObjectEvent event = new PreferenceObjectEvent();
+    event.begin();
+
     try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
       ObjectOutputStream oos = new ObjectOutputStream(baos)) {
       oos.writeObject(object);
+      oos.flush();
       byte[] objectBytes = baos.toByteArray();
+
+      if (objectBytes.length > COMPRESSION_THRESHOLD) {
+        objectBytes = compress(objectBytes);
+      }
+
       int numberOfChunks = (int) Math.ceil((double) objectBytes.length / BYTE_CHUNK_SIZE);
 
-      // Clear any existing values in the preference node.
-      Preferences preferenceNode = PREFERENCES.node(key);
-      preferenceNode.clear();
+      // The chunks are replaced while holding the key's lock so they are never read part written.
+      Lock writeLock = getLock(key).writeLock();
+      writeLock.lock();
 
-      // Split the object's byte in to storable chunks.
-      for (int i = 0; i < numberOfChunks; i++) {
-        int start = i * BYTE_CHUNK_SIZE;
-        int length = Math.min(BYTE_CHUNK_SIZE, objectBytes.length - start);
-        byte[] chunkBytes = new byte[length];
+      try {
+        // Clear any existing values in the preference node.
+        Preferences preferenceNode = PREFERENCES.node(key);
+        preferenceNode.clear();
 
-        // Copy the object chunk in to the chunk array and store it.
-        System.arraycopy(objectBytes, start, chunkBytes, 0, length);
-        preferenceNode.putByteArray(String.valueOf(i), chunkBytes);
+        // Split the object's byte in to storable chunks.
+        for (int i = 0; i < numberOfChunks; i++) {
+          int start = i * BYTE_CHUNK_SIZE;
+          int length = Math.min(BYTE_CHUNK_SIZE, objectBytes.length - start);
+          byte[] chunkBytes = new byte[length];
+
+          // Copy the object chunk in to the chunk array and store it.
+          System.arraycopy(objectBytes, start, chunkBytes, 0, length);
+          preferenceNode.putByteArray(String.valueOf(i), chunkBytes);
+        }
+      } finally {
+        writeLock.unlock();
       }
+
+      DrawMetrics.getInstance().recordPreferenceBytesWritten(objectBytes.length);
+      commitPreferenceObjectEvent(event, key, PreferenceObjectEvent.WRITE, numberOfChunks,
+        objectBytes.length);
+    }
+  }
+
+  /**
+   * Get the lock which guards the given object key.
+   *
+   * @param key The preference name.
+   * @return The striped lock for the key.
+   */
+  private static ReadWriteLock getLock(String key) {
+    return LOCKS[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+  }
+
+  /**
+   * Acquire every striped lock, always in the same order so bulk operations cannot deadlock.
+   *
+   * @param exclusive Whether to acquire the write locks rather than the read locks.
+   */
+  private static void lockAll(boolean exclusive) {
+    for (ReadWriteLock lock : LOCKS) {
+      (exclusive ? lock.writeLock() : lock.readLock()).lock();
+    }
+  }
+
+  /**
+   * Release every striped lock acquired by {@link #lockAll(boolean)}.
+   *
+   * @param exclusive Whether to release the write locks rather than the read locks.
+   */
+  private static void unlockAll(boolean exclusive) {
+    for (int i = LOCK_STRIPES - 1; i >= 0; i--) {
+      (exclusive ? LOCKS[i].writeLock() : LOCKS[i].readLock()).unlock();
+    }
+  }
+
+  /**
+   * Compress serialized object bytes using Deflate, prefixed with the compressed header byte.
+   * Participant names are highly repetitive so the fastest compression level still significantly
+   * reduces the number of chunks.
+   *
+   * @param objectBytes The serialized object bytes.
+   * @return The header byte followed by the compressed bytes.
+   * @throws IOException If the bytes could not be compressed.
+   */
+  private static byte[] compress(byte[] objectBytes) throws IOException {
+    ByteArrayOutputStream compressedBytes = new ByteArrayOutputStream(objectBytes.length / 4);
+    compressedBytes.write(DEFLATE_HEADER);
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+    try (DeflaterOutputStream dos = new DeflaterOutputStream(compressedBytes, deflater)) {
+      dos.write(objectBytes);
+    } finally {
+      deflater.end();
+    }
+
+    return compressedBytes.toByteArray();
+  }
+
+  /**
+   * Complete a preference object flight recorder event, the event's fields are only populated if
+   * the event is enabled and exceeds its threshold.
+   *
+   * @param event          The event to commit.
+   * @param key            The key of the preference object.
+   * @param operation      The operation performed on the preference object.
+   * @param numberOfChunks The number of chunks the object is stored in.
+   * @param numberOfBytes  The size of the serialized object.
+   */
+  private static void commitPreferenceObjectEvent(PreferenceObjectEvent event, String key,
+    String operation, int numberOfChunks, long numberOfBytes) {
+    event.end();
+
+    if (event.shouldCommit()) {
+      event.key = key;
+      event.operation = operation;
+      event.chunks = numberOfChunks;
+      event.bytes = numberOfBytes;
+      event.commit();
+    }
+  }
+
+  /**
+   * A stream which copies every byte read from the underlying stream to an output stream, so that
+   * a document can be checked and stored in a single pass.
+   */
+  private static class CopyingInputStream extends FilterInputStream {
+
+    private static final int SKIP_BUFFER_SIZE = 8192;
+
+    private final OutputStream copy;
+
+    /**
+     * Create a stream which copies the bytes read from an underlying stream.
+     *
+     * @param inputStream The stream to read from.
+     * @param copy        The stream to copy the bytes read to.
+     */
+    CopyingInputStream(InputStream inputStream, OutputStream copy) {
+      super(inputStream);
+      this.copy = copy;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int value = super.read();
+
+      if (value != -1) {
+        copy.write(value);
+      }
+
+      return value;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+      int bytesRead = super.read(bytes, offset, length);
+
+      if (bytesRead > 0) {
+        copy.write(bytes, offset, bytesRead);
+      }
+
+      return bytesRead;
+    }
+
+    @Override
+    public long skip(long length) throws IOException {
+      // Skipped bytes must still be copied, so they are read instead.
+      byte[] buffer = new byte[(int) Math.min(Math.max(length, 0), SKIP_BUFFER_SIZE)];
+      long skipped = 0;
+
+      while (skipped < length) {
+        int bytesRead = read(buffer, 0, (int) Math.min(buffer.length, length - skipped));
+
+        if (bytesRead <= 0) {
+          break;
+        }
+
+        skipped += bytesRead;
+      }
+
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      // Bytes read again after a reset would be copied twice.
+      return false;
+    }
+  }
+
+  /**
+   * An enumeration of streams over the chunks of a stored object, each chunk is only retrieved
+   * from the preference node when the previous chunk has been fully read.
+   */
+  private static class ChunkEnumeration implements Enumeration<InputStream> {
+
+    private final Preferences preferenceNode;
+    private final int numberOfChunks;
+    private int nextChunk;
+    private long bytesRead;
+
+    /**
+     * Create an enumeration over the chunks of a stored object.
+     *
+     * @param preferenceNode The preference node containing the chunks.
+     * @param numberOfChunks The number of chunks the object was split in to.
+     */
+    ChunkEnumeration(Preferences preferenceNode, int numberOfChunks) {
+      this.preferenceNode = preferenceNode;
+      this.numberOfChunks = numberOfChunks;
+    }
+
+    /**
+     * Get the total size of the chunks which have been retrieved.
+     *
+     * @return The number of bytes retrieved.
+     */
+    long getBytesRead() {
+      return bytesRead;
+    }
+
+    @Override
+    public boolean hasMoreElements() {
+      return nextChunk < numberOfChunks;
+    }
+
+    @Override
+    public InputStream nextElement() {
+      if (!hasMoreElements()) {
+        throw new NoSuchElementException();
+      }
+
+      byte[] chunkBytes = preferenceNode.getByteArray(String.valueOf(nextChunk++), new byte[0]);
+      bytesRead += chunkBytes.length;
+      return new ByteArrayInputStream(chunkBytes);
     }
   }
 }
@@ -0,0 +1,363 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+import com.judge40.gridgenerator.diagnostics.DrawMetrics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Swaps participants between the races of a heat to minimize the number of repeated pairings, two
+ * participants who raced each other in a previous heat and would race each other again. A local
+ * search is run by a fixed number of workers on the common pool, each with its own random stream
+ * split from the seed, and the draw with the fewest repeated pairings is returned.
+ *
+ * <p>Swaps only ever exchange two participants of the same group, or two ungrouped participants,
+ * so the grouping of the races is preserved. Each swap is scored incrementally from the two races
+ * involved, using the race each participant was drawn in for every previous heat. Each worker stops
+ * when no repeated pairings remain or when it has made its fixed budget of attempts, so the result
+ * is deterministic for the same inputs regardless of the number of cores or the machine's load.
+ * The time limit is only a safety cap, a draw which reaches it is not reproducible so reaching it is
+ * reported to the caller, logged and recorded in the {@link DrawMetrics}.
+ */
+class RepeatPairingOptimizer {
+
+  static final int NUMBER_OF_WORKERS = 8;
+  static final int MAX_ATTEMPTS = 50_000;
+
+  private static final Logger LOGGER = Logger.getLogger(RepeatPairingOptimizer.class.getName());
+
+  private static final int DEADLINE_CHECK_INTERVAL = 1024;
+  private static final int EMPTY = -1;
+
+  private final String[] names;
+  private final int[] groups;
+  private final int[][] previousRaces;
+  private final int[][] initialRaces;
+
+  /**
+   * Create an optimizer for a heat's races.
+   *
+   * @param races          The heat's drawn races, empty grids are empty strings.
+   * @param previousHeats  The races drawn for the class's previous heats.
+   * @param classifier     The classifier of the participants' groups.
+   */
+  private RepeatPairingOptimizer(List<List<String>> races, List<List<List<String>>> previousHeats,
+    ParticipantClassifier classifier) {
+    Map<String, Integer> ids = new HashMap<>();
+    initialRaces = new int[races.size()][];
+
+    for (int race = 0; race < races.size(); race++) {
+      List<String> grids = races.get(race);
+      initialRaces[race] = new int[grids.size()];
+
+      for (int grid = 0; grid < grids.size(); grid++) {
+        String participant = grids.get(grid);
+        initialRaces[race][grid] = participant.isEmpty() ? EMPTY
+          : ids.computeIfAbsent(participant, name -> ids.size());
+      }
+    }
+
+    names = new String[ids.size()];
+    groups = new int[ids.size()];
+
+    for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+      names[entry.getValue()] = entry.getKey();
+      groups[entry.getValue()] = classifier.classify(entry.getKey());
+    }
+
+    // Record the race each participant was drawn in for each previous heat.
+    previousRaces = new int[previousHeats.size()][ids.size()];
+
+    for (int heat = 0; heat < previousHeats.size(); heat++) {
+      Arrays.fill(previousRaces[heat], EMPTY);
+      List<List<String>> heatRaces = previousHeats.get(heat);
+
+      for (int race = 0; race < heatRaces.size(); race++) {
+        for (String participant : heatRaces.get(race)) {
+          Integer id = ids.get(participant);
+
+          if (id != null) {
+            previousRaces[heat][id] = race;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Swap participants between a heat's races to minimize the number of repeated pairings with the
+   * previous heats.
+   *
+   * @param races          The heat's drawn races, empty grids are empty strings.
+   * @param previousHeats  The races drawn for the class's previous heats.
+   * @param classifier     The classifier of the participants' groups.
+   * @param timeLimitNanos The safety cap on the time allowed for the search.
+   * @param seed           The seed of the workers' random streams.
+   * @return The races with the fewest repeated pairings found and whether the time limit was
+   *     reached.
+   */
+  static Optimization optimize(List<List<String>> races, List<List<List<String>>> previousHeats,
+    ParticipantClassifier classifier, long timeLimitNanos, long seed) {
+    if (races.size() < 2 || previousHeats.isEmpty()) {
+      return new Optimization(races, false);
+    }
+
+    long deadline = System.nanoTime() + timeLimitNanos;
+    RepeatPairingOptimizer optimizer = new RepeatPairingOptimizer(races, previousHeats,
+      classifier);
+    int initialScore = optimizer.score(optimizer.initialRaces);
+
+    if (initialScore == 0) {
+      return new Optimization(races, false);
+    }
+
+    SplittableRandom seedRandom = new SplittableRandom(seed);
+    SplittableRandom[] workerRandoms = new SplittableRandom[NUMBER_OF_WORKERS];
+
+    for (int worker = 0; worker < NUMBER_OF_WORKERS; worker++) {
+      workerRandoms[worker] = seedRandom.split();
+    }
+
+    List<Result> results = IntStream.range(0, NUMBER_OF_WORKERS).parallel()
+      .mapToObj(worker -> optimizer.search(worker, workerRandoms[worker], initialScore, deadline))
+      .collect(Collectors.toList());
+
+    boolean deadlineReached = results.stream().anyMatch(result -> result.deadlineReached);
+
+    if (deadlineReached) {
+      LOGGER.warning("The draw optimization reached its time limit, the draw is not reproducible.");
+      DrawMetrics.getInstance().recordOptimizationDeadlineReached();
+    }
+
+    // Ties are broken by worker so the same result is chosen regardless of completion order.
+    Result best = results.stream()
+      .min(Comparator.comparingInt((Result result) -> result.score)
+        .thenComparingInt(result -> result.worker))
+      .orElseThrow();
+
+    return new Optimization(optimizer.toNames(best.races), deadlineReached);
+  }
+
+  /**
+   * Run a local search from the initial races, accepting any swap which does not increase the
+   * number of repeated pairings.
+   *
+   * @param worker       The index of the worker.
+   * @param random       The worker's random stream.
+   * @param initialScore The number of repeated pairings of the initial races.
+   * @param deadline     The {@link System#nanoTime()} at which the search must stop, regardless of
+   *                     the remaining attempts.
+   * @return The searched races, their number of repeated pairings and whether the deadline was
+   *     reached.
+   */
+  private Result search(int worker, SplittableRandom random, int initialScore, long deadline) {
+    int[][] races = new int[initialRaces.length][];
+
+    for (int race = 0; race < races.length; race++) {
+      races[race] = initialRaces[race].clone();
+    }
+
+    int score = initialScore;
+    boolean deadlineReached = false;
+
+    for (int attempt = 0; attempt < MAX_ATTEMPTS && score > 0; attempt++) {
+      if (attempt % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+        deadlineReached = true;
+        break;
+      }
+
+      int race1 = random.nextInt(races.length);
+      int race2 = random.nextInt(races.length - 1);
+      race2 += race2 >= race1 ? 1 : 0;
+      int grid1 = random.nextInt(races[race1].length);
+      int grid2 = random.nextInt(races[race2].length);
+      int participant1 = races[race1][grid1];
+      int participant2 = races[race2][grid2];
+
+      if (participant1 == EMPTY || participant2 == EMPTY
+        || groups[participant1] != groups[participant2]) {
+        continue;
+      }
+
+      int delta = pairings(participant1, races[race2], participant2)
+        + pairings(participant2, races[race1], participant1)
+        - pairings(participant1, races[race1], participant1)
+        - pairings(participant2, races[race2], participant2);
+
+      if (delta <= 0) {
+        races[race1][grid1] = participant2;
+        races[race2][grid2] = participant1;
+        score += delta;
+      }
+    }
+
+    return new Result(worker, races, score, deadlineReached);
+  }
+
+  /**
+   * Count the total number of repeated pairings of all races.
+   *
+   * @param races The races to score.
+   * @return The number of repeated pairings.
+   */
+  private int score(int[][] races) {
+    int score = 0;
+
+    for (int[] race : races) {
+      for (int grid = 0; grid < race.length; grid++) {
+        if (race[grid] != EMPTY) {
+          for (int other = grid + 1; other < race.length; other++) {
+            if (race[other] != EMPTY) {
+              score += pairings(race[grid], race[other]);
+            }
+          }
+        }
+      }
+    }
+
+    return score;
+  }
+
+  /**
+   * Count the repeated pairings a participant would have in a race.
+   *
+   * @param participant The participant.
+   * @param race        The race.
+   * @param excluded    A participant of the race to ignore, the participant being swapped out.
+   * @return The number of repeated pairings.
+   */
+  private int pairings(int participant, int[] race, int excluded) {
+    int pairings = 0;
+
+    for (int other : race) {
+      if (other != EMPTY && other != excluded && other != participant) {
+        pairings += pairings(participant, other);
+      }
+    }
+
+    return pairings;
+  }
+
+  /**
+   * Count the number of previous heats in which two participants raced each other.
+   *
+   * @param participant1 The first participant.
+   * @param participant2 The second participant.
+   * @return The number of previous pairings.
+   */
+  private int pairings(int participant1, int participant2) {
+    int pairings = 0;
+
+    for (int[] heatRaces : previousRaces) {
+      if (heatRaces[participant1] != EMPTY && heatRaces[participant1] == heatRaces[participant2]) {
+        pairings++;
+      }
+    }
+
+    return pairings;
+  }
+
+  /**
+   * Convert races of participant IDs back to participant names.
+   *
+   * @param races The races of participant IDs.
+   * @return The races of participant names.
+   */
+  private List<List<String>> toNames(int[][] races) {
+    List<List<String>> namedRaces = new ArrayList<>(races.length);
+
+    for (int[] race : races) {
+      List<String> namedRace = new ArrayList<>(race.length);
+
+      for (int participant : race) {
+        namedRace.add(participant == EMPTY ? "" : names[participant]);
+      }
+
+      namedRaces.add(namedRace);
+    }
+
+    return namedRaces;
+  }
+
+  /**
+   * The races found by a worker, their number of repeated pairings and whether the worker was
+   * stopped by the deadline.
+   */
+  private static class Result {
+
+    private final int worker;
+    private final int[][] races;
+    private final int score;
+    private final boolean deadlineReached;
+
+    /**
+     * Create a worker's result.
+     *
+     * @param worker          The index of the worker.
+     * @param races           The races found.
+     * @param score           The number of repeated pairings.
+     * @param deadlineReached Whether the worker was stopped by the deadline.
+     */
+    private Result(int worker, int[][] races, int score, boolean deadlineReached) {
+      this.worker = worker;
+      this.races = races;
+      this.score = score;
+      this.deadlineReached = deadlineReached;
+    }
+  }
+
+  /**
+   * The races found by an optimization and whether the search was stopped by the time limit, in
+   * which case the races are not reproducible.
+   */
+  static class Optimization {
+
+    private final List<List<String>> races;
+    private final boolean deadlineReached;
+
+    /**
+     * Create an optimization's result.
+     *
+     * @param races           The races found.
+     * @param deadlineReached Whether the search was stopped by the time limit.
+     */
+    private Optimization(List<List<String>> races, boolean deadlineReached) {
+      this.races = races;
+      this.deadlineReached = deadlineReached;
+    }
+
+    List<List<String>> getRaces() {
+      return races;
+    }
+
+    boolean isDeadlineReached() {
+      return deadlineReached;
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.audit;
+
+import com.judge40.gridgenerator.ClassDraw;
+import com.judge40.gridgenerator.DrawManifest;
+import com.judge40.gridgenerator.DrawMode;
+import com.judge40.gridgenerator.GridDrawHelper;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Checks that draws can be reproduced from their {@link DrawManifest}, by redrawing each class from
+ * the manifest's salt and configuration and comparing the digest of the drawn heats. Manifests are
+ * verified in parallel and each class's participants are only looked up and digested once.
+ *
+ * <p>A draw in {@link DrawMode#OPTIMIZED} mode can only be reproduced with the same optimization
+ * budget and if neither its draw nor its redraw reached the optimization time limit. Optimized
+ * draws run their own parallel search against the time limit, so they are verified one at a time
+ * after the other draws, and a redraw which reaches the time limit is reported as not verifiable.
+ */
+public class DrawManifestVerifier {
+
+  /**
+   * The outcome of verifying a manifest.
+   */
+  public enum Status {
+
+    /**
+     * The draw was reproduced exactly.
+     */
+    VERIFIED,
+
+    /**
+     * The class's participants are not those the draw was made from, so it cannot be reproduced.
+     */
+    PARTICIPANTS_CHANGED,
+
+    /**
+     * The draw was made from the same inputs but a different draw was produced.
+     */
+    DRAW_MISMATCH,
+
+    /**
+     * The manifest's seed derivation version is not supported.
+     */
+    UNSUPPORTED_VERSION,
+
+    /**
+     * The draw was optimized with a different optimization budget, or its redraw reached the
+     * optimization time limit, so it cannot be reproduced.
+     */
+    NOT_VERIFIABLE
+  }
+
+  private final Function<String, List<String>> participantsLookup;
+  private final Map<String, Optional<ClassParticipants>> classParticipants =
+    new ConcurrentHashMap<>();
+
+  /**
+   * Create a verifier.
+   *
+   * @param participantsLookup Looks up the participants of a class by class name, returning null
+   *                           if the class is unknown.
+   */
+  public DrawManifestVerifier(Function<String, List<String>> participantsLookup) {
+    this.participantsLookup = participantsLookup;
+  }
+
+  /**
+   * Verify a batch of manifests.
+   *
+   * @param manifests The manifests to verify.
+   * @return The status of each manifest, in the same order as the manifests.
+   */
+  public List<Status> verify(List<DrawManifest> manifests) {
+    Status[] statuses = new Status[manifests.size()];
+    IntStream.range(0, manifests.size()).parallel()
+      .filter(index -> !isOptimized(manifests.get(index)))
+      .forEach(index -> statuses[index] = verify(manifests.get(index)));
+
+    for (int index = 0; index < manifests.size(); index++) {
+      if (isOptimized(manifests.get(index))) {
+        statuses[index] = verify(manifests.get(index));
+      }
+    }
+
+    return Arrays.asList(statuses);
+  }
+
+  /**
+   * Verify a manifest.
+   *
+   * @param manifest The manifest to verify.
+   * @return The manifest's status.
+   */
+  public Status verify(DrawManifest manifest) {
+    if (manifest.getVersion() != DrawManifest.VERSION) {
+      return Status.UNSUPPORTED_VERSION;
+    }
+
+    Optional<ClassParticipants> participants = classParticipants
+      .computeIfAbsent(manifest.getClassName(), this::lookupParticipants);
+
+    if (participants.isEmpty()
+      || !participants.get().digest.equals(manifest.getParticipantsDigest())) {
+      return Status.PARTICIPANTS_CHANGED;
+    }
+
+    if (isOptimized(manifest) && !DrawManifest.OPTIMIZATION_BUDGET.equals(manifest.getOptimizationBudget())) {
+      return Status.NOT_VERIFIABLE;
+    }
+
+    ClassDraw draw = GridDrawHelper.drawClass(participants.get().participants,
+      manifest.getExcludedGrids(), manifest.getConfiguration(), manifest.getSalt());
+
+    if (draw.isOptimizationTimeLimitReached()) {
+      return Status.NOT_VERIFIABLE;
+    }
+
+    return DrawManifest.digestHeats(draw.getHeats()).equals(manifest.getDrawDigest())
+      ? Status.VERIFIED : Status.DRAW_MISMATCH;
+  }
+
+  /**
+   * Check whether a manifest's draw was made in {@link DrawMode#OPTIMIZED} mode.
+   *
+   * @param manifest The manifest to check.
+   * @return Whether the draw was optimized.
+   */
+  private static boolean isOptimized(DrawManifest manifest) {
+    return manifest.getConfiguration().getDrawMode() == DrawMode.OPTIMIZED;
+  }
+
+  /**
+   * Look up a class's participants and calculate their digest.
+   *
+   * @param className The name of the class.
+   * @return The class's participants, or empty if the class is unknown.
+   */
+  private Optional<ClassParticipants> lookupParticipants(String className) {
+    List<String> participants = participantsLookup.apply(className);
+    return Optional.ofNullable(participants).map(ClassParticipants::new);
+  }
+
+  /**
+   * A class's participants and their digest.
+   */
+  private static class ClassParticipants {
+
+    private final List<String> participants;
+    private final String digest;
+
+    /**
+     * Create a class's participants, calculating their digest.
+     *
+     * @param participants The class's participants.
+     */
+    private ClassParticipants(List<String> participants) {
+      this.participants = participants;
+      this.digest = DrawManifest.digestParticipants(participants);
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.audit;
+
+import com.judge40.gridgenerator.DrawManifest;
+import com.judge40.gridgenerator.PreferenceHelper;
+import com.judge40.gridgenerator.audit.DrawManifestVerifier.Status;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.prefs.BackingStoreException;
+
+/**
+ * A headless command which verifies that the draws recorded in a manifest file can be reproduced
+ * from the stored meeting's participants.
+ *
+ * <p>Usage: {@code --verify <manifest file>}
+ */
+public class DrawVerificationCommand {
+
+  static final String VERIFY_OPTION = "--verify";
+
+  static final int EXIT_SUCCESS = 0;
+  static final int EXIT_FAILURE = 1;
+  static final int EXIT_USAGE = 2;
+
+  private static final Logger LOGGER = Logger.getLogger(DrawVerificationCommand.class.getName());
+
+  /**
+   * Check whether the arguments request a verification.
+   *
+   * @param args The command line arguments.
+   * @return Whether the verify option is present.
+   */
+  public static boolean isVerificationCommand(String[] args) {
+    return Arrays.asList(args).contains(VERIFY_OPTION);
+  }
+
+  /**
+   * Run the verification using the given command line arguments.
+   *
+   * @param args The command line arguments.
+   * @return The exit status, zero if every draw was verified.
+   */
+  public static int run(String[] args) {
+    if (args.length != 2 || !VERIFY_OPTION.equals(args[0])) {
+      System.err.println("Usage: " + VERIFY_OPTION + " <manifest file>");
+      return EXIT_USAGE;
+    }
+
+    Path file = Paths.get(args[1]);
+    List<DrawManifest> manifests;
+
+    try {
+      manifests = DrawManifest.read(file);
+    } catch (IOException e) {
+      LOGGER.log(Level.SEVERE, "The draw manifests could not be read.", e);
+      return EXIT_FAILURE;
+    }
+
+    DrawManifestVerifier verifier = new DrawManifestVerifier(className -> {
+      try {
+        List<String> participants = PreferenceHelper.getClassParticipants(className);
+        return participants.isEmpty() ? null : participants;
+      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
+        LOGGER.log(Level.WARNING, "The participants of " + className + " could not be read.", e);
+        return null;
+      }
+    });
+
+    List<Status> statuses = verifier.verify(manifests);
+    Map<Status, Integer> statusCounts = new EnumMap<>(Status.class);
+
+    for (int i = 0; i < manifests.size(); i++) {
+      Status status = statuses.get(i);
+      statusCounts.merge(status, 1, Integer::sum);
+
+      if (status != Status.VERIFIED) {
+        System.out.println(status + ": " + manifests.get(i).getClassName() + " drawn on day "
+          + manifests.get(i).getSalt());
+      }
+    }
+
+    System.out.println(manifests.size() + " draws checked: " + statusCounts);
+    return statusCounts.getOrDefault(Status.VERIFIED, 0) == manifests.size() ? EXIT_SUCCESS
+      : EXIT_FAILURE;
+  }
+}
@@ -19,17 +19,36 @@
 
 package com.judge40.gridgenerator.controller;
 
+import com.judge40.gridgenerator.DrawManifest;
 import com.judge40.gridgenerator.GridDrawHelper;
+import com.judge40.gridgenerator.MeetingDraw;
 import com.judge40.gridgenerator.PreferenceHelper;
+import com.judge40.gridgenerator.diagnostics.DrawnGridsDisplayEvent;
+import com.judge40.gridgenerator.export.ExportFormat;
+import com.judge40.gridgenerator.print.BatchPrintTask;
+import com.judge40.gridgenerator.view.HeatGridCanvas;
+import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.prefs.BackingStoreException;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ReadOnlyStringWrapper;
@@ -37,6 +56,7 @@ import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.print.PrinterJob;
 import javafx.scene.Node;
@@ -47,14 +67,19 @@ import javafx.scene.control.ComboBox;
 import javafx.scene.control.Control;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.CheckBoxListCell;
 import javafx.scene.control.skin.ComboBoxListViewSkin;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
+import javafx.stage.FileChooser;
+import javafx.stage.FileChooser.ExtensionFilter;
+import javafx.stage.Window;
 import javafx.util.Callback;
 
 /**
@@ -66,6 +91,11 @@ public class DrawGridsController {
   private static final double HEAT_TABLE_WIDTH = 480;
   private static final double RACE_COLUMN_WIDTH = 40;
 
+  // Classes with more races than this, across all heats, are displayed using a canvas.
+  private static final int CANVAS_RACE_THRESHOLD = 24;
+
+  private static final Logger LOGGER = Logger.getLogger(DrawGridsController.class.getName());
+
   private final ResourceBundle messageBundle = ResourceBundle.getBundle("i18n.Messages");
   @FXML
   private ResourceBundle resources;
@@ -78,18 +108,41 @@ public class DrawGridsController {
   private TabPane drawnGridsDisplay;
 
   @FXML
-  private void initialize() throws BackingStoreException, ClassNotFoundException, IOException {
+  private ProgressBar printProgress;
+
+  /**
+   * Initialize the elements used by this controller, the grids are not drawn until the view is
+   * refreshed so that the view can be pre-loaded in the background.
+   */
+  @FXML
+  private void initialize() {
     initializeExcludedGridsSelector();
+  }
+
+  /**
+   * Refresh the excluded grids selector and drawn grids display using the current preference
+   * values, this must be called on the application thread before the view is displayed and allows
+   * a previously loaded view to be reused.
+   *
+   * @throws BackingStoreException  If the participants could not be retrieved.
+   * @throws ClassNotFoundException If the participants could not be retrieved.
+   * @throws IOException            If the participants could not be retrieved.
+   */
+  void refresh() throws BackingStoreException, ClassNotFoundException, IOException {
+    updateExcludedGridsSelector();
     initializeDrawnGridsDisplay();
   }
 
   /**
-   * Populate the excluded grids selector based on the total number of grids and initialize the
-   * callbacks for interacting with the selector.
+   * Populate the excluded grids selector based on the total number of grids, any excluded grids
+   * which no longer exist are removed.
    */
-  private void initializeExcludedGridsSelector() {
+  private void updateExcludedGridsSelector() {
     // Populate the selector's choices.
     int numberOfGrids = PreferenceHelper.getNumberOfGrids();
+    ObservableList<Integer> excludedGridsItems = excludedGridsSelector.getItems();
+    excludedGridsItems.clear();
+    excludedGrids.removeIf(grid -> grid > numberOfGrids);
 
     if (numberOfGrids <= 0) {
       excludedGridsSelector.setDisable(true);
@@ -98,12 +151,20 @@ public class DrawGridsController {
       return;
     }
 
-    ObservableList<Integer> excludedGridsItems = excludedGridsSelector.getItems();
+    excludedGridsSelector.setDisable(false);
+    excludedGridsSelector.setPromptText(null);
 
     for (int gridNumber = 1; gridNumber <= numberOfGrids; gridNumber++) {
       excludedGridsItems.add(gridNumber);
     }
 
+    updateExcludedGridsText();
+  }
+
+  /**
+   * Initialize the callbacks for interacting with the excluded grids selector.
+   */
+  private void initializeExcludedGridsSelector() {
     // When a grid's checkbox is changed update the selected grids and the summary text.
     Callback<Integer, ObservableValue<Boolean>> gridCellCallback = grid -> {
       BooleanProperty booleanObservable = new SimpleBooleanProperty();
@@ -115,9 +176,7 @@ public class DrawGridsController {
           excludedGrids.remove(grid);
         }
 
-        String selectedGridsText = String.join(", ", excludedGrids.stream()
-          .map(String::valueOf).toArray(String[]::new));
-        excludedGridsSelector.getButtonCell().setText(selectedGridsText);
+        updateExcludedGridsText();
       });
       return booleanObservable;
     };
@@ -152,13 +211,41 @@ public class DrawGridsController {
   }
 
   /**
-   * Perform a grid draw and populate the drawn grids display with the results.
+   * Update the excluded grids selector's summary text to match the selected grids.
+   */
+  private void updateExcludedGridsText() {
+    String selectedGridsText = String.join(", ", excludedGrids.stream()
+      .map(String::valueOf).toArray(String[]::new));
+    excludedGridsSelector.getButtonCell().setText(selectedGridsText);
+  }
+
+  /**
+   * Perform a grid draw and populate the drawn grids display with the results, recording the time
+   * taken as a flight recorder event.
    *
    * @throws BackingStoreException  If the participants could not be retrieved.
    * @throws ClassNotFoundException If the participants could not be retrieved.
    * @throws IOException            If the participants could not be retrieved.
    */
   private void initializeDrawnGridsDisplay()
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    DrawnGridsDisplayEvent event = new DrawnGridsDisplayEvent();
+    event.begin();
+
+    populateDrawnGridsDisplay();
+
+    event.classes = drawnGridsDisplay.getTabs().size();
+    event.commit();
+  }
+
+  /**
+   * Perform a grid draw and populate the drawn grids display with the results.
+   *
+   * @throws BackingStoreException  If the participants could not be retrieved.
+   * @throws ClassNotFoundException If the participants could not be retrieved.
+   * @throws IOException            If the participants could not be retrieved.
+   */
+  private void populateDrawnGridsDisplay()
     throws BackingStoreException, ClassNotFoundException, IOException {
     // Reset the tabs.
     ObservableList<Tab> drawnGridTabs = drawnGridsDisplay.getTabs();
@@ -167,49 +254,128 @@ public class DrawGridsController {
     List<String> participantClassNames = PreferenceHelper.getParticipantClassNames();
 
     for (String participantClassName : participantClassNames) {
-      List<List<List<String>>> heats = GridDrawHelper
-        .drawGridsForClass(participantClassName, excludedGrids);
-
       Tab classTab = new Tab();
       classTab.setText(participantClassName);
       drawnGridTabs.add(classTab);
+      populateClassTab(classTab, participantClassName);
+    }
+  }
 
-      if (heats.isEmpty()) {
-        classTab.setDisable(true);
-      } else {
-        // TODO: move VBox and standard children to FXML.
-        VBox tabContent = new VBox();
-        classTab.setContent(tabContent);
-        ObservableList<Node> tabChildren = tabContent.getChildren();
-
-        // Add meeting and class headings.
-        String meetingName = PreferenceHelper.getMeetingName();
-        String date = LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-        Text meetingInformation = new Text(String.format("%s - %s", meetingName, date));
-        meetingInformation.setId("meetingInformation");
-        tabChildren.add(meetingInformation);
-        Text classInformation = new Text(participantClassName);
-        classInformation.setId("classInformation");
-        tabChildren.add(classInformation);
-
-        // Add heat headings and tables.
-        for (ListIterator<List<List<String>>> raceIterator = heats.listIterator();
-          raceIterator.hasNext(); ) {
-          List<List<String>> races = raceIterator.next();
-          int heatNumber = raceIterator.nextIndex();
-
-          // TODO: move heat label and base table view to FXML.
-          String heatNumberText = resources.getString("draw.heatNumber");
-          heatNumberText = MessageFormat.format(heatNumberText, heatNumber);
-          Text heatTableText = new Text(heatNumberText);
-          heatTableText.setId("heatTableText" + heatNumber);
-          tabChildren.add(heatTableText);
-
-          TableView<List<String>> heatTable = createHeatTable(races);
-          heatTable.setId("heatTable" + heatNumber);
-          tabChildren.add(heatTable);
-        }
+  /**
+   * Redraw only the given classes, adding tabs for any classes which are not yet displayed and
+   * removing the tabs of classes which no longer exist, so that changes to a few classes do not
+   * require every class to be drawn again. The time taken is recorded as a flight recorder event.
+   *
+   * @param classNames The names of the classes to redraw.
+   * @throws BackingStoreException  If the participants could not be retrieved.
+   * @throws ClassNotFoundException If the participants could not be retrieved.
+   * @throws IOException            If the participants could not be retrieved.
+   */
+  void redrawClasses(Set<String> classNames)
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    DrawnGridsDisplayEvent event = new DrawnGridsDisplayEvent();
+    event.begin();
+
+    ObservableList<Tab> drawnGridTabs = drawnGridsDisplay.getTabs();
+    // Classes may share a name, so each class reuses the next unused tab with its name in order.
+    Map<String, Deque<Tab>> existingTabs = new HashMap<>();
+
+    for (Tab drawnGridTab : drawnGridTabs) {
+      existingTabs.computeIfAbsent(drawnGridTab.getText(), text -> new ArrayDeque<>())
+        .add(drawnGridTab);
+    }
+
+    List<String> participantClassNames = PreferenceHelper.getParticipantClassNames();
+    List<Tab> classTabs = new ArrayList<>(participantClassNames.size());
+
+    for (String participantClassName : participantClassNames) {
+      Deque<Tab> namedTabs = existingTabs.get(participantClassName);
+      Tab classTab = namedTabs == null ? null : namedTabs.poll();
+
+      // New classes are always drawn, existing tabs are only redrawn if their class changed.
+      if (classTab == null) {
+        classTab = new Tab();
+        classTab.setText(participantClassName);
+        populateClassTab(classTab, participantClassName);
+      } else if (classNames.contains(participantClassName)) {
+        populateClassTab(classTab, participantClassName);
       }
+
+      classTabs.add(classTab);
+    }
+
+    // Unused tabs belong to removed classes, the tabs are only replaced if they have changed.
+    if (!drawnGridTabs.equals(classTabs)) {
+      drawnGridTabs.setAll(classTabs);
+    }
+
+    event.classes = classNames.size();
+    event.commit();
+  }
+
+  /**
+   * Perform a grid draw for a class and replace the content of the class's tab with the results,
+   * the tab is disabled if the class has no participants.
+   *
+   * @param classTab             The tab to display the class's drawn grids on.
+   * @param participantClassName The name of the class to draw.
+   * @throws BackingStoreException  If the participants could not be retrieved.
+   * @throws ClassNotFoundException If the participants could not be retrieved.
+   * @throws IOException            If the participants could not be retrieved.
+   */
+  private void populateClassTab(Tab classTab, String participantClassName)
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    List<List<List<String>>> heats = GridDrawHelper
+      .drawGridsForClass(participantClassName, excludedGrids);
+
+    classTab.setDisable(heats.isEmpty());
+    classTab.setContent(null);
+
+    if (heats.isEmpty()) {
+      return;
+    }
+
+    // TODO: move VBox and standard children to FXML.
+    VBox tabContent = new VBox();
+    classTab.setContent(tabContent);
+    ObservableList<Node> tabChildren = tabContent.getChildren();
+
+    // Add meeting and class headings.
+    String meetingName = PreferenceHelper.getMeetingName();
+    String date = LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+    Text meetingInformation = new Text(String.format("%s - %s", meetingName, date));
+    meetingInformation.setId("meetingInformation");
+    tabChildren.add(meetingInformation);
+    Text classInformation = new Text(participantClassName);
+    classInformation.setId("classInformation");
+    tabChildren.add(classInformation);
+
+    // Large classes are drawn on a single virtualized canvas to keep the node count fixed.
+    if (heats.stream().mapToInt(List::size).sum() > CANVAS_RACE_THRESHOLD) {
+      HeatGridCanvas heatGridCanvas = new HeatGridCanvas(resources, heats.get(0).get(0).size());
+      heatGridCanvas.setId("heatGridCanvas");
+      heatGridCanvas.setHeats(heats);
+      VBox.setVgrow(heatGridCanvas, Priority.ALWAYS);
+      tabChildren.add(heatGridCanvas);
+      return;
+    }
+
+    // Add heat headings and tables.
+    for (ListIterator<List<List<String>>> raceIterator = heats.listIterator();
+      raceIterator.hasNext(); ) {
+      List<List<String>> races = raceIterator.next();
+      int heatNumber = raceIterator.nextIndex();
+
+      // TODO: move heat label and base table view to FXML.
+      String heatNumberText = resources.getString("draw.heatNumber");
+      heatNumberText = MessageFormat.format(heatNumberText, heatNumber);
+      Text heatTableText = new Text(heatNumberText);
+      heatTableText.setId("heatTableText" + heatNumber);
+      tabChildren.add(heatTableText);
+
+      TableView<List<String>> heatTable = createHeatTable(races);
+      heatTable.setId("heatTable" + heatNumber);
+      tabChildren.add(heatTable);
     }
   }
 
@@ -220,6 +386,8 @@ public class DrawGridsController {
    * @return A {@link TableView} which will display the heat's races.
    */
   private TableView<List<String>> createHeatTable(List<List<String>> races) {
+    // Classes can override the number of grids, every race has a value for each of its grids.
+    int numberOfGrids = races.get(0).size();
     ObservableList<List<String>> observableRaces = FXCollections.observableArrayList(races);
 
     // Add the race numbers to each row.
@@ -240,7 +408,6 @@ public class DrawGridsController {
     heatTable.setMaxSize(Control.USE_PREF_SIZE, Control.USE_PREF_SIZE);
 
     ObservableList<TableColumn<List<String>, ?>> columns = heatTable.getColumns();
-    int numberOfGrids = PreferenceHelper.getNumberOfGrids();
 
     // Add a column for each grid.
     for (int gridNumber = 0; gridNumber <= numberOfGrids; gridNumber++) {
@@ -270,24 +437,145 @@ public class DrawGridsController {
   }
 
   /**
-   * Prints the currently displayed class's heats and races.
+   * Prints the currently displayed class's heats and races, paginated across as many pages as
+   * required.
    */
   @FXML
   private void printCurrentClass() {
-    // Get the current class tab.
     Tab currentTab = drawnGridsDisplay.getSelectionModel().getSelectedItem();
-    VBox tabContent = (VBox) currentTab.getContent();
 
-    // Print the tab content using default printer and settings.
+    if (currentTab != null) {
+      printClasses(Collections.singletonList(currentTab.getText()));
+    }
+  }
+
+  /**
+   * Prints the heats and races of every class, paginated across as many pages as required.
+   */
+  @FXML
+  private void printAllClasses() {
+    try {
+      printClasses(PreferenceHelper.getParticipantClassNames());
+    } catch (BackingStoreException | ClassNotFoundException | IOException e) {
+      displayPrintError(e);
+    }
+  }
+
+  /**
+   * Draw and print the given classes in the background, using the printer and settings chosen by
+   * the user.
+   *
+   * @param classNames The names of the classes to print.
+   */
+  private void printClasses(List<String> classNames) {
     PrinterJob printerJob = PrinterJob.createPrinterJob();
-    boolean doPrint = printerJob.showPrintDialog(tabContent.getScene().getWindow());
+    Window window = drawnGridsDisplay.getScene().getWindow();
 
-    if (doPrint) {
-      boolean success = printerJob.printPage(tabContent);
+    if (printerJob == null || !printerJob.showPrintDialog(window)) {
+      return;
+    }
 
-      if (success) {
-        printerJob.endJob();
-      }
+    MeetingDraw meetingDraw;
+
+    try {
+      meetingDraw = GridDrawHelper.drawGridsForClasses(classNames, new TreeSet<>(excludedGrids));
+    } catch (BackingStoreException | ClassNotFoundException | IOException e) {
+      printerJob.cancelJob();
+      displayPrintError(e);
+      return;
+    }
+
+    BatchPrintTask printTask = new BatchPrintTask(printerJob, meetingDraw, resources);
+    printProgress.progressProperty().bind(printTask.progressProperty());
+    printProgress.visibleProperty().bind(printTask.runningProperty());
+    printTask.setOnFailed(event -> displayPrintError(printTask.getException()));
+
+    Thread printThread = new Thread(printTask, "batch-print");
+    printThread.setDaemon(true);
+    printThread.start();
+  }
+
+  /**
+   * Export the heats and races of every class to a file chosen by the user, the export format is
+   * chosen by the selected file's extension. The draw's manifests are written alongside the file.
+   */
+  @FXML
+  private void exportAllClasses() {
+    FileChooser fileChooser = new FileChooser();
+
+    for (ExportFormat format : ExportFormat.values()) {
+      String description = messageBundle.getString("draw.export.format." + format.getExtension());
+      fileChooser.getExtensionFilters()
+        .add(new ExtensionFilter(description, "*." + format.getExtension()));
+    }
+
+    File exportFile = fileChooser.showSaveDialog(drawnGridsDisplay.getScene().getWindow());
+
+    if (exportFile == null) {
+      return;
+    }
+
+    Path exportPath = exportFile.toPath();
+
+    // Add the selected filter's extension if the chosen file does not have a supported extension.
+    if (ExportFormat.forFile(exportPath).isEmpty()) {
+      String extension = fileChooser.getSelectedExtensionFilter().getExtensions().get(0);
+      exportPath = Paths.get(exportFile.getPath() + extension.substring(1));
+    }
+
+    Path exportFilePath = exportPath;
+    ExportFormat format = ExportFormat.forFile(exportFilePath).orElseThrow();
+    MeetingDraw meetingDraw;
+
+    try {
+      meetingDraw = GridDrawHelper.drawGridsForMeeting(new TreeSet<>(excludedGrids));
+    } catch (BackingStoreException | ClassNotFoundException | IOException e) {
+      displayExportError(e);
+      return;
     }
+
+    // Write the file in the background, the exporter streams each page directly to the file.
+    Task<Void> exportTask = new Task<>() {
+      @Override
+      protected Void call() throws IOException {
+        try (FileChannel channel = FileChannel.open(exportFilePath,
+          StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+          StandardOpenOption.WRITE)) {
+          format.createExporter(resources).export(meetingDraw, channel);
+        }
+
+        DrawManifest.write(meetingDraw.getManifests(),
+          DrawManifest.getManifestFile(exportFilePath));
+
+        return null;
+      }
+    };
+    exportTask.setOnFailed(event -> displayExportError(exportTask.getException()));
+
+    Thread exportThread = new Thread(exportTask, "draw-export");
+    exportThread.setDaemon(true);
+    exportThread.start();
+  }
+
+  /**
+   * Display an error alert for a failed export.
+   *
+   * @param throwable The cause of the failure.
+   */
+  private void displayExportError(Throwable throwable) {
+    LOGGER.logrb(Level.WARNING, messageBundle, "draw.export.error", throwable);
+    Alert errorAlert = new Alert(AlertType.ERROR, messageBundle.getString("draw.export.error"));
+    errorAlert.show();
+  }
+
+  /**
+   * Display an error alert for a failed print.
+   *
+   * @param throwable The cause of the failure.
+   */
+  private void displayPrintError(Throwable throwable) {
+    LOGGER.logrb(Level.WARNING, messageBundle, "draw.print.error", throwable);
+    Alert errorAlert = new Alert(AlertType.ERROR, messageBundle.getString("draw.print.error"));
+    errorAlert.show();
   }
 }
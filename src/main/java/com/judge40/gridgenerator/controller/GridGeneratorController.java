@@ -19,14 +19,36 @@
 
 package com.judge40.gridgenerator.controller;
 
+import com.judge40.gridgenerator.PreferenceHelper;
+import com.judge40.gridgenerator.diagnostics.DrawMetrics;
+import com.judge40.gridgenerator.diagnostics.ViewLoadEvent;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.InvalidPreferencesFormatException;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
-import javafx.scene.control.TabPane;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
 import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.FileChooser.ExtensionFilter;
 import javafx.stage.Stage;
 import javafx.stage.Window;
 
@@ -35,32 +57,213 @@ import javafx.stage.Window;
  */
 public class GridGeneratorController {
 
+  private static final Logger LOGGER = Logger.getLogger(GridGeneratorController.class.getName());
+
+  private static final String DRAW_GRIDS_FXML = "/fxml/draw-grids.fxml";
+  private static final String INPUT_PARTICIPANTS_FXML = "/fxml/input-participants.fxml";
+
+  // Views are loaded in the background on a single daemon thread.
+  private static final ExecutorService VIEW_LOADER = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "view-loader");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final ResourceBundle messageBundle = ResourceBundle.getBundle("i18n.Messages");
+  private final Map<String, CompletableFuture<FXMLLoader>> viewCache = new HashMap<>();
+  private String currentView;
+
   @FXML
   private ResourceBundle resources;
 
   @FXML
   private BorderPane mainLayout;
 
+  /**
+   * Initialize the elements used by this controller, the navigable views are pre-loaded in the
+   * background so that switching to them does not require the FXML to be loaded. Only the FXML is
+   * loaded in the background, each view is refreshed on the application thread when displayed.
+   */
+  @FXML
+  private void initialize() {
+    for (String view : Arrays.asList(INPUT_PARTICIPANTS_FXML, DRAW_GRIDS_FXML)) {
+      viewCache.put(view, CompletableFuture.supplyAsync(() -> {
+        try {
+          return loadView(view);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }, VIEW_LOADER));
+    }
+  }
+
   /**
    * Display the Draw Grids interface.
+   * @throws BackingStoreException If the participants could not be retrieved.
+   * @throws ClassNotFoundException If the participants could not be retrieved.
    * @throws IOException If the required FXML could not be loaded.
    */
   @FXML
-  private void displayDrawGrids() throws IOException {
-    VBox drawGrids = FXMLLoader
-      .load(getClass().getResource("/fxml/draw-grids.fxml"), resources);
-    mainLayout.setCenter(drawGrids);
+  private void displayDrawGrids()
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    FXMLLoader loader = getView(DRAW_GRIDS_FXML);
+    DrawGridsController drawGridsController = loader.getController();
+    drawGridsController.refresh();
+    mainLayout.setCenter(loader.getRoot());
+    currentView = DRAW_GRIDS_FXML;
   }
 
   /**
    * Display the Input Participants interface.
+   * @throws BackingStoreException If the participant classes could not be retrieved.
+   * @throws ClassNotFoundException If the participant classes could not be retrieved.
    * @throws IOException If the required FXML could not be loaded.
    */
   @FXML
-  private void displayInputParticipants() throws IOException {
-    TabPane inputParticipants = FXMLLoader
-      .load(getClass().getResource("/fxml/input-participants.fxml"), resources);
-    mainLayout.setCenter(inputParticipants);
+  private void displayInputParticipants()
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    FXMLLoader loader = getView(INPUT_PARTICIPANTS_FXML);
+    InputParticipantsController inputParticipantsController = loader.getController();
+    inputParticipantsController.refresh();
+    mainLayout.setCenter(loader.getRoot());
+    currentView = INPUT_PARTICIPANTS_FXML;
+  }
+
+  /**
+   * Refresh the currently displayed view after the participants of the given classes were changed
+   * outside of the user interface. The draw grids view only redraws the changed classes, a view
+   * which is not displayed is refreshed when it is next displayed.
+   *
+   * @param classNames The names of the classes whose participants changed.
+   */
+  public void refreshClasses(Set<String> classNames) {
+    try {
+      if (DRAW_GRIDS_FXML.equals(currentView)) {
+        DrawGridsController drawGridsController = getView(DRAW_GRIDS_FXML).getController();
+        drawGridsController.redrawClasses(classNames);
+      } else if (INPUT_PARTICIPANTS_FXML.equals(currentView)) {
+        displayInputParticipants();
+      }
+    } catch (BackingStoreException | ClassNotFoundException | IOException e) {
+      LOGGER.logrb(Level.WARNING, messageBundle, "entries.refresh.error", e);
+    }
+  }
+
+  /**
+   * Import a meeting from a file chosen by the user, replacing the current meeting.
+   */
+  @FXML
+  private void importMeeting() {
+    File meetingFile = createMeetingFileChooser().showOpenDialog(mainLayout.getScene().getWindow());
+
+    if (meetingFile == null) {
+      return;
+    }
+
+    try (InputStream inputStream = Files.newInputStream(meetingFile.toPath())) {
+      PreferenceHelper.importMeeting(inputStream);
+      refreshCurrentView();
+    } catch (BackingStoreException | ClassNotFoundException | IOException
+      | InvalidPreferencesFormatException e) {
+      LOGGER.logrb(Level.WARNING, messageBundle, "meeting.import.error", e);
+      String errorMessage = messageBundle.getString("meeting.import.error");
+      new Alert(AlertType.ERROR, errorMessage).show();
+    }
+  }
+
+  /**
+   * Export the current meeting to a file chosen by the user.
+   */
+  @FXML
+  private void exportMeeting() {
+    File meetingFile = createMeetingFileChooser().showSaveDialog(mainLayout.getScene().getWindow());
+
+    if (meetingFile == null) {
+      return;
+    }
+
+    try (OutputStream outputStream = Files.newOutputStream(meetingFile.toPath())) {
+      PreferenceHelper.exportMeeting(outputStream);
+    } catch (BackingStoreException | IOException e) {
+      LOGGER.logrb(Level.WARNING, messageBundle, "meeting.export.error", e);
+      String errorMessage = messageBundle.getString("meeting.export.error");
+      new Alert(AlertType.ERROR, errorMessage).show();
+    }
+  }
+
+  /**
+   * Create a file chooser for selecting meeting XML files.
+   *
+   * @return The file chooser.
+   */
+  private FileChooser createMeetingFileChooser() {
+    FileChooser fileChooser = new FileChooser();
+    String description = messageBundle.getString("meeting.file.description");
+    fileChooser.getExtensionFilters().add(new ExtensionFilter(description, "*.xml"));
+    return fileChooser;
+  }
+
+  /**
+   * Refresh the currently displayed view, if there is one, so that it reflects any changes to the
+   * stored preferences.
+   *
+   * @throws BackingStoreException  If the view's data could not be retrieved.
+   * @throws ClassNotFoundException If the view's data could not be retrieved.
+   * @throws IOException            If the view's data could not be retrieved.
+   */
+  private void refreshCurrentView()
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    if (DRAW_GRIDS_FXML.equals(currentView)) {
+      displayDrawGrids();
+    } else if (INPUT_PARTICIPANTS_FXML.equals(currentView)) {
+      displayInputParticipants();
+    }
+  }
+
+  /**
+   * Get a loaded view from the cache, waiting for any background load to complete. If the view is
+   * not cached or the background load failed then the view is loaded immediately.
+   *
+   * @param view The FXML resource of the view.
+   * @return The loader which loaded the view, providing access to the view and its controller.
+   * @throws IOException If the required FXML could not be loaded.
+   */
+  private FXMLLoader getView(String view) throws IOException {
+    CompletableFuture<FXMLLoader> cachedView = viewCache.get(view);
+
+    if (cachedView != null) {
+      try {
+        FXMLLoader loader = cachedView.join();
+        DrawMetrics.getInstance().recordViewCacheRequest(true);
+        return loader;
+      } catch (CompletionException e) {
+        LOGGER.log(Level.WARNING, "The view " + view + " could not be pre-loaded.", e.getCause());
+      }
+    }
+
+    DrawMetrics.getInstance().recordViewCacheRequest(false);
+    FXMLLoader loader = loadView(view);
+    viewCache.put(view, CompletableFuture.completedFuture(loader));
+    return loader;
+  }
+
+  /**
+   * Load a view from its FXML resource.
+   *
+   * @param view The FXML resource of the view.
+   * @return The loader which loaded the view.
+   * @throws IOException If the required FXML could not be loaded.
+   */
+  private FXMLLoader loadView(String view) throws IOException {
+    ViewLoadEvent event = new ViewLoadEvent();
+    event.begin();
+
+    FXMLLoader loader = new FXMLLoader(getClass().getResource(view), resources);
+    loader.load();
+
+    event.view = view;
+    event.commit();
+    return loader;
   }
 
   /**
@@ -25,12 +25,14 @@ import com.judge40.gridgenerator.PreferenceHelper;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.ResourceBundle;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.prefs.BackingStoreException;
 import javafx.collections.ListChangeListener;
+import javafx.collections.ListChangeListener.Change;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -52,6 +54,7 @@ public class InputClassParticipantsController {
   private final ResourceBundle messageBundle = ResourceBundle.getBundle("i18n.Messages");
 
   private String participantClassName;
+  private boolean reloading;
 
   @FXML
   private ListView<String> participantsDisplay;
@@ -105,8 +108,28 @@ public class InputClassParticipantsController {
       LOGGER.log(Level.WARNING, errorMessage, e);
     }
 
-    participants
-      .addListener((ListChangeListener<? super String>) observable -> updateStoredParticipants());
+    participants.addListener((ListChangeListener<? super String>) change -> {
+      if (!reloading) {
+        updateStoredParticipants(change);
+      }
+    });
+  }
+
+  /**
+   * Reload the participant display with the stored data for this controller's participant class,
+   * the reloaded participants are not written back to the stored data.
+   */
+  void reloadData() {
+    try {
+      reloading = true;
+      participantsDisplay.getItems().setAll(getClassParticipants(participantClassName));
+    } catch (BackingStoreException | ClassNotFoundException | IOException e) {
+      String errorMessage = messageBundle.getString("participant.read.error");
+      errorMessage = MessageFormat.format(errorMessage, participantClassName);
+      LOGGER.log(Level.WARNING, errorMessage, e);
+    } finally {
+      reloading = false;
+    }
   }
 
   @FXML
@@ -173,14 +196,32 @@ public class InputClassParticipantsController {
   }
 
   /**
-   * Updated the stored participant list for this controller's participant class.
+   * Update the stored participant list for this controller's participant class with the
+   * participants added and removed by a change to the displayed participants. Only the changed
+   * participants are written, so participants stored since the display was loaded, such as
+   * ingested entries, are not overwritten.
+   *
+   * @param change The change to the displayed participants.
    */
-  private void updateStoredParticipants() {
-    List<String> participants = new ArrayList<>(participantsDisplay.getItems());
+  private void updateStoredParticipants(Change<? extends String> change) {
+    List<String> addedParticipants = new ArrayList<>();
+    List<String> removedParticipants = new ArrayList<>();
+
+    while (change.next()) {
+      addedParticipants.addAll(change.getAddedSubList());
+      removedParticipants.addAll(change.getRemoved());
+    }
 
     try {
-      PreferenceHelper.setClassParticipants(participantClassName, participants);
-    } catch (BackingStoreException | IOException e) {
+      if (!removedParticipants.isEmpty()) {
+        PreferenceHelper.removeClassParticipants(participantClassName, removedParticipants);
+      }
+
+      if (!addedParticipants.isEmpty()) {
+        PreferenceHelper.addClassParticipants(
+          Collections.singletonMap(participantClassName, addedParticipants));
+      }
+    } catch (BackingStoreException | ClassNotFoundException | IOException e) {
       LOGGER.logrb(Level.WARNING, messageBundle, "participant.update.error", e);
     }
   }
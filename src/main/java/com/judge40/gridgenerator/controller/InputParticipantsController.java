@@ -21,8 +21,10 @@ package com.judge40.gridgenerator.controller;
 
 import com.judge40.gridgenerator.PreferenceHelper;
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.prefs.BackingStoreException;
 import javafx.collections.ObservableList;
@@ -43,14 +45,34 @@ public class InputParticipantsController {
   @FXML
   private TabPane inputParticipantLayout;
 
+  private final Map<String, InputClassParticipantsController> classControllers =
+    new LinkedHashMap<>();
+
   /**
-   * Initialize the elements used by this controller.
+   * Refresh the participant class tabs using the current preference values, the existing tabs are
+   * reused if the participant classes have not changed. The tabs are not created when the view is
+   * loaded, so that the view can be pre-loaded in the background, this must be called on the
+   * application thread before the view is displayed.
+   *
+   * @throws BackingStoreException  If the participant class names could not be retrieved.
+   * @throws ClassNotFoundException If the participant class names could not be retrieved.
+   * @throws IOException            If the participant class names could not be retrieved.
    */
-  @FXML
-  private void initialize() throws BackingStoreException, ClassNotFoundException, IOException {
+  void refresh() throws BackingStoreException, ClassNotFoundException, IOException {
     List<String> participantClassNames = PreferenceHelper.getParticipantClassNames();
 
+    // Reuse the existing tabs if the classes are unchanged, only reloading their participants.
+    if (participantClassNames.equals(new ArrayList<>(classControllers.keySet()))) {
+      for (InputClassParticipantsController inputClassController : classControllers.values()) {
+        inputClassController.reloadData();
+      }
+
+      return;
+    }
+
     ObservableList<Tab> tabs = inputParticipantLayout.getTabs();
+    tabs.clear();
+    classControllers.clear();
 
     for (String className : participantClassNames) {
       FXMLLoader loader = new FXMLLoader(
@@ -58,6 +80,7 @@ public class InputParticipantsController {
       VBox inputClassParticipants = loader.load();
       InputClassParticipantsController inputClassController = loader.getController();
       inputClassController.initializeData(className);
+      classControllers.put(className, inputClassController);
 
       Tab classTab = new Tab(className, inputClassParticipants);
       tabs.add(classTab);
@@ -0,0 +1,243 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.diagnostics;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The application wide draw engine, view cache and persistence metrics, recording is lock free so
+ * it can be performed from any thread. Timing the stages of a heat draw adds clock reads to every
+ * draw, so the stage latencies are only recorded while stage timing is enabled, either with the
+ * {@value #STAGE_TIMING_PROPERTY} system property or through the management interface.
+ */
+public class DrawMetrics implements DrawMetricsMXBean {
+
+  /**
+   * The name the metrics are registered with in the platform MBean server.
+   */
+  public static final String OBJECT_NAME = "com.judge40.gridgenerator:type=DrawMetrics";
+
+  /**
+   * When set to true the latencies of the stages of each heat draw are recorded from startup.
+   */
+  public static final String STAGE_TIMING_PROPERTY = "gridgenerator.stageTiming";
+
+  private static final DrawMetrics INSTANCE = new DrawMetrics();
+
+  /**
+   * The stages of a heat draw which have their latencies recorded.
+   */
+  public enum Stage {
+    SHUFFLE, SPLIT, INTERLEAVE, PAD
+  }
+
+  private final LongAdder classDraws = new LongAdder();
+  private final LongAdder heatDraws = new LongAdder();
+  private final LongAdder optimizationDeadlinesReached = new LongAdder();
+  private final Map<Stage, LatencyHistogram> stageLatencies = new EnumMap<>(Stage.class);
+  private final LongAdder viewCacheHits = new LongAdder();
+  private final LongAdder viewCacheMisses = new LongAdder();
+  private final LongAdder preferenceBytesRead = new LongAdder();
+  private final LongAdder preferenceBytesWritten = new LongAdder();
+  private volatile boolean stageTimingEnabled = Boolean.getBoolean(STAGE_TIMING_PROPERTY);
+
+  /**
+   * Create a set of metrics, a histogram is created up front for each stage so the stage map is
+   * never modified after construction.
+   */
+  DrawMetrics() {
+    for (Stage stage : Stage.values()) {
+      stageLatencies.put(stage, new LatencyHistogram());
+    }
+  }
+
+  /**
+   * Get the application wide metrics.
+   *
+   * @return The metrics.
+   */
+  public static DrawMetrics getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Register the application wide metrics with the platform MBean server, allowing them to be
+   * viewed with a JMX client such as JConsole.
+   *
+   * @throws JMException If the metrics could not be registered.
+   */
+  public static void register() throws JMException {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName objectName = new ObjectName(OBJECT_NAME);
+
+    if (!server.isRegistered(objectName)) {
+      server.registerMBean(INSTANCE, objectName);
+    }
+  }
+
+  /**
+   * Record that a class draw has been performed.
+   */
+  public void recordClassDraw() {
+    classDraws.increment();
+  }
+
+  /**
+   * Record that a heat draw has been performed.
+   */
+  public void recordHeatDraw() {
+    heatDraws.increment();
+  }
+
+  /**
+   * Record that a heat's draw optimization was stopped by its time limit.
+   */
+  public void recordOptimizationDeadlineReached() {
+    optimizationDeadlinesReached.increment();
+  }
+
+  /**
+   * Record the latency of a stage of a heat draw, callers should only time the stage while {@link
+   * #isStageTimingEnabled()}.
+   *
+   * @param stage The stage which was performed.
+   * @param nanos The time taken by the stage in nanoseconds.
+   */
+  public void recordStage(Stage stage, long nanos) {
+    stageLatencies.get(stage).record(nanos);
+  }
+
+  /**
+   * Record whether a requested view was retrieved from the view cache.
+   *
+   * @param hit Whether the view was found in the cache.
+   */
+  public void recordViewCacheRequest(boolean hit) {
+    (hit ? viewCacheHits : viewCacheMisses).increment();
+  }
+
+  /**
+   * Record that serialized bytes have been read from the preferences.
+   *
+   * @param bytes The number of bytes read.
+   */
+  public void recordPreferenceBytesRead(long bytes) {
+    preferenceBytesRead.add(bytes);
+  }
+
+  /**
+   * Record that serialized bytes have been written to the preferences.
+   *
+   * @param bytes The number of bytes written.
+   */
+  public void recordPreferenceBytesWritten(long bytes) {
+    preferenceBytesWritten.add(bytes);
+  }
+
+  @Override
+  public long getClassDraws() {
+    return classDraws.sum();
+  }
+
+  @Override
+  public long getHeatDraws() {
+    return heatDraws.sum();
+  }
+
+  @Override
+  public long getOptimizationDeadlinesReached() {
+    return optimizationDeadlinesReached.sum();
+  }
+
+  @Override
+  public LatencyStatistics getShuffleLatency() {
+    return stageLatencies.get(Stage.SHUFFLE).getStatistics();
+  }
+
+  @Override
+  public LatencyStatistics getSplitLatency() {
+    return stageLatencies.get(Stage.SPLIT).getStatistics();
+  }
+
+  @Override
+  public LatencyStatistics getInterleaveLatency() {
+    return stageLatencies.get(Stage.INTERLEAVE).getStatistics();
+  }
+
+  @Override
+  public LatencyStatistics getPadLatency() {
+    return stageLatencies.get(Stage.PAD).getStatistics();
+  }
+
+  @Override
+  public boolean isStageTimingEnabled() {
+    return stageTimingEnabled;
+  }
+
+  @Override
+  public void setStageTimingEnabled(boolean stageTimingEnabled) {
+    this.stageTimingEnabled = stageTimingEnabled;
+  }
+
+  @Override
+  public long getViewCacheHits() {
+    return viewCacheHits.sum();
+  }
+
+  @Override
+  public long getViewCacheMisses() {
+    return viewCacheMisses.sum();
+  }
+
+  @Override
+  public double getViewCacheHitRate() {
+    long hits = viewCacheHits.sum();
+    long requests = hits + viewCacheMisses.sum();
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  @Override
+  public long getPreferenceBytesRead() {
+    return preferenceBytesRead.sum();
+  }
+
+  @Override
+  public long getPreferenceBytesWritten() {
+    return preferenceBytesWritten.sum();
+  }
+
+  @Override
+  public void reset() {
+    classDraws.reset();
+    heatDraws.reset();
+    optimizationDeadlinesReached.reset();
+    stageLatencies.values().forEach(LatencyHistogram::reset);
+    viewCacheHits.reset();
+    viewCacheMisses.reset();
+    preferenceBytesRead.reset();
+    preferenceBytesWritten.reset();
+  }
+}
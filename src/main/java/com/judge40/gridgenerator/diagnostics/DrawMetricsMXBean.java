@@ -0,0 +1,134 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.diagnostics;
+
+/**
+ * A management interface exposing the draw engine's counts and latencies along with view cache and
+ * persistence metrics. The stage latencies are recorded once per heat draw, and only while stage
+ * timing is enabled.
+ */
+public interface DrawMetricsMXBean {
+
+  /**
+   * Get the number of class draws which have been performed.
+   *
+   * @return The number of class draws.
+   */
+  long getClassDraws();
+
+  /**
+   * Get the number of heat draws which have been performed, across all classes.
+   *
+   * @return The number of heat draws.
+   */
+  long getHeatDraws();
+
+  /**
+   * Get the number of heat draw optimizations which were stopped by their time limit, the draws of
+   * these heats are not reproducible.
+   *
+   * @return The number of optimizations which reached their time limit.
+   */
+  long getOptimizationDeadlinesReached();
+
+  /**
+   * Get the latencies of shuffling a heat's participants, both before splitting and within each
+   * race.
+   *
+   * @return The shuffle latency statistics.
+   */
+  LatencyStatistics getShuffleLatency();
+
+  /**
+   * Get the latencies of splitting a heat's participants in to races, including the interleave and
+   * padding of the races.
+   *
+   * @return The split latency statistics.
+   */
+  LatencyStatistics getSplitLatency();
+
+  /**
+   * Get the latencies of interleaving ungrouped participants between grouped participants.
+   *
+   * @return The interleave latency statistics.
+   */
+  LatencyStatistics getInterleaveLatency();
+
+  /**
+   * Get the latencies of inserting a heat's excluded grids in to its races.
+   *
+   * @return The pad latency statistics.
+   */
+  LatencyStatistics getPadLatency();
+
+  /**
+   * Get whether the latencies of the stages of each heat draw are recorded.
+   *
+   * @return Whether stage timing is enabled.
+   */
+  boolean isStageTimingEnabled();
+
+  /**
+   * Set whether the latencies of the stages of each heat draw are recorded.
+   *
+   * @param stageTimingEnabled Whether stage timing is enabled.
+   */
+  void setStageTimingEnabled(boolean stageTimingEnabled);
+
+  /**
+   * Get the number of views which were retrieved from the view cache.
+   *
+   * @return The number of view cache hits.
+   */
+  long getViewCacheHits();
+
+  /**
+   * Get the number of views which had to be loaded because they were not in the view cache.
+   *
+   * @return The number of view cache misses.
+   */
+  long getViewCacheMisses();
+
+  /**
+   * Get the proportion of view requests which were retrieved from the view cache.
+   *
+   * @return The view cache hit rate, between zero and one.
+   */
+  double getViewCacheHitRate();
+
+  /**
+   * Get the number of serialized bytes read from the preferences.
+   *
+   * @return The number of preference bytes read.
+   */
+  long getPreferenceBytesRead();
+
+  /**
+   * Get the number of serialized bytes written to the preferences.
+   *
+   * @return The number of preference bytes written.
+   */
+  long getPreferenceBytesWritten();
+
+  /**
+   * Reset all of the counts and latencies.
+   */
+  void reset();
+}
@@ -0,0 +1,87 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free histogram of latencies, using buckets with power of two microsecond upper bounds.
+ */
+class LatencyHistogram {
+
+  static final int NUMBER_OF_BUCKETS = 24;
+
+  private final AtomicLongArray bucketCounts = new AtomicLongArray(NUMBER_OF_BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Record a latency.
+   *
+   * @param nanos The latency in nanoseconds.
+   */
+  void record(long nanos) {
+    long micros = Math.max(0, nanos) / 1000;
+
+    // Bucket zero holds latencies below one microsecond, bucket n those below 2^n microseconds.
+    int bucket = Math.min(NUMBER_OF_BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(micros));
+    bucketCounts.incrementAndGet(bucket);
+    count.increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulate(nanos);
+  }
+
+  /**
+   * Get a snapshot of the recorded latencies, the snapshot may not be consistent if latencies are
+   * being recorded concurrently.
+   *
+   * @return The latency statistics.
+   */
+  LatencyStatistics getStatistics() {
+    long[] upperBounds = new long[NUMBER_OF_BUCKETS];
+    long[] counts = new long[NUMBER_OF_BUCKETS];
+
+    for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+      upperBounds[bucket] = bucket == NUMBER_OF_BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+      counts[bucket] = bucketCounts.get(bucket);
+    }
+
+    long numberOfLatencies = count.sum();
+    double meanMicros = numberOfLatencies == 0 ? 0 : totalNanos.sum() / 1000d / numberOfLatencies;
+    return new LatencyStatistics(numberOfLatencies, meanMicros, maxNanos.get() / 1000,
+      upperBounds, counts);
+  }
+
+  /**
+   * Discard all of the recorded latencies.
+   */
+  void reset() {
+    for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+      bucketCounts.set(bucket, 0);
+    }
+
+    count.reset();
+    totalNanos.reset();
+    maxNanos.reset();
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.diagnostics;
+
+/**
+ * A snapshot of the latencies recorded by a {@link LatencyHistogram}. Each histogram bucket counts
+ * the latencies below its upper bound and at or above the previous bucket's upper bound.
+ */
+public class LatencyStatistics {
+
+  private final long count;
+  private final double meanMicros;
+  private final long maxMicros;
+  private final long[] bucketUpperBoundsMicros;
+  private final long[] bucketCounts;
+
+  /**
+   * Create a latency snapshot.
+   *
+   * @param count                   The number of recorded latencies.
+   * @param meanMicros              The mean latency in microseconds.
+   * @param maxMicros               The maximum latency in microseconds.
+   * @param bucketUpperBoundsMicros The exclusive upper bound of each bucket in microseconds.
+   * @param bucketCounts            The number of latencies recorded in each bucket.
+   */
+  public LatencyStatistics(long count, double meanMicros, long maxMicros,
+    long[] bucketUpperBoundsMicros, long[] bucketCounts) {
+    this.count = count;
+    this.meanMicros = meanMicros;
+    this.maxMicros = maxMicros;
+    this.bucketUpperBoundsMicros = bucketUpperBoundsMicros.clone();
+    this.bucketCounts = bucketCounts.clone();
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getMeanMicros() {
+    return meanMicros;
+  }
+
+  public long getMaxMicros() {
+    return maxMicros;
+  }
+
+  public long[] getBucketUpperBoundsMicros() {
+    return bucketUpperBoundsMicros.clone();
+  }
+
+  public long[] getBucketCounts() {
+    return bucketCounts.clone();
+  }
+}
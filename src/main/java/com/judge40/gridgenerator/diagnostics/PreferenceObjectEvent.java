@@ -0,0 +1,65 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event for the reading or writing of a serialized object stored as preference
+ * chunks.
+ */
+@Name("com.judge40.gridgenerator.PreferenceObject")
+@Label("Preference Object")
+@Category({"Grid Generator", "Persistence"})
+@Description("The reading or writing of a chunked preference object.")
+@StackTrace(false)
+public class PreferenceObjectEvent extends Event {
+
+  /**
+   * The operation value for an object being read.
+   */
+  public static final String READ = "read";
+
+  /**
+   * The operation value for an object being written.
+   */
+  public static final String WRITE = "write";
+
+  @Label("Key")
+  public String key;
+
+  @Label("Operation")
+  public String operation;
+
+  @Label("Chunks")
+  @Description("The number of preference chunks the object is stored in.")
+  public int chunks;
+
+  @Label("Size")
+  @Description("The size of the serialized object.")
+  @DataAmount
+  public long bytes;
+}
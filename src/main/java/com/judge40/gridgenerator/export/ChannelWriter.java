@@ -0,0 +1,250 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A buffered writer which encodes text directly in to a byte buffer that is drained to a channel
+ * when full, avoiding intermediate strings and tracking the number of bytes written.
+ */
+class ChannelWriter implements Closeable {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final WritableByteChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private long position;
+
+  /**
+   * Create a writer for a channel, the channel is closed when the writer is closed.
+   *
+   * @param channel The channel to write to.
+   */
+  ChannelWriter(WritableByteChannel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * Get the number of bytes which have been written, including any which are still buffered.
+   *
+   * @return The number of bytes written.
+   */
+  long getPosition() {
+    return position;
+  }
+
+  /**
+   * Write a single byte.
+   *
+   * @param value The byte to write.
+   * @return This writer.
+   * @throws IOException If the buffer could not be drained to the channel.
+   */
+  ChannelWriter write(byte value) throws IOException {
+    if (!buffer.hasRemaining()) {
+      drain();
+    }
+
+    buffer.put(value);
+    position++;
+    return this;
+  }
+
+  /**
+   * Write text containing only single byte characters, such as ASCII or Latin-1, each character is
+   * written as its low byte.
+   *
+   * @param text The text to write.
+   * @return This writer.
+   * @throws IOException If the buffer could not be drained to the channel.
+   */
+  ChannelWriter writeLatin1(CharSequence text) throws IOException {
+    for (int i = 0; i < text.length(); i++) {
+      write((byte) text.charAt(i));
+    }
+
+    return this;
+  }
+
+  /**
+   * Write text encoded as UTF-8.
+   *
+   * @param text The text to write.
+   * @return This writer.
+   * @throws IOException If the buffer could not be drained to the channel.
+   */
+  ChannelWriter writeUtf8(CharSequence text) throws IOException {
+    for (int i = 0; i < text.length(); ) {
+      i += writeUtf8(text, i);
+    }
+
+    return this;
+  }
+
+  /**
+   * Write the character at an index of the text encoded as UTF-8, a high surrogate is combined with
+   * the following low surrogate and unpaired surrogates are written as a question mark.
+   *
+   * @param text  The text containing the character.
+   * @param index The index of the character in the text.
+   * @return The number of characters of the text which were written, either one or two.
+   * @throws IOException If the buffer could not be drained to the channel.
+   */
+  int writeUtf8(CharSequence text, int index) throws IOException {
+    char character = text.charAt(index);
+
+    if (character < 0x80) {
+      write((byte) character);
+    } else if (character < 0x800) {
+      write((byte) (0xC0 | character >> 6));
+      write((byte) (0x80 | character & 0x3F));
+    } else if (Character.isSurrogate(character)) {
+      char next = index + 1 < text.length() ? text.charAt(index + 1) : 0;
+
+      if (Character.isHighSurrogate(character) && Character.isLowSurrogate(next)) {
+        int codePoint = Character.toCodePoint(character, next);
+        write((byte) (0xF0 | codePoint >> 18));
+        write((byte) (0x80 | codePoint >> 12 & 0x3F));
+        write((byte) (0x80 | codePoint >> 6 & 0x3F));
+        write((byte) (0x80 | codePoint & 0x3F));
+        return 2;
+      }
+
+      write((byte) '?');
+    } else {
+      write((byte) (0xE0 | character >> 12));
+      write((byte) (0x80 | character >> 6 & 0x3F));
+      write((byte) (0x80 | character & 0x3F));
+    }
+
+    return 1;
+  }
+
+  /**
+   * Write a whole number as decimal digits.
+   *
+   * @param value The number to write.
+   * @return This writer.
+   * @throws IOException If the buffer could not be drained to the channel.
+   */
+  ChannelWriter writeNumber(long value) throws IOException {
+    if (value < 0) {
+      write((byte) '-');
+      value = -value;
+    }
+
+    // Find the most significant digit and then write each digit in turn.
+    long divisor = 1;
+
+    while (value / divisor >= 10) {
+      divisor *= 10;
+    }
+
+    for (; divisor > 0; divisor /= 10) {
+      write((byte) ('0' + value / divisor % 10));
+    }
+
+    return this;
+  }
+
+  /**
+   * Write a non-negative whole number as decimal digits, padded with leading zeros to a width.
+   *
+   * @param value The number to write.
+   * @param width The minimum number of digits to write.
+   * @return This writer.
+   * @throws IOException If the buffer could not be drained to the channel.
+   */
+  ChannelWriter writeNumber(long value, int width) throws IOException {
+    int digits = 1;
+
+    for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+      digits++;
+    }
+
+    for (int i = digits; i < width; i++) {
+      write((byte) '0');
+    }
+
+    return writeNumber(value);
+  }
+
+  /**
+   * Write a number to a precision of two decimal places.
+   *
+   * @param value The number to write.
+   * @return This writer.
+   * @throws IOException If the buffer could not be drained to the channel.
+   */
+  ChannelWriter writeNumber(double value) throws IOException {
+    long hundredths = Math.round(value * 100);
+
+    if (hundredths < 0) {
+      write((byte) '-');
+      hundredths = -hundredths;
+    }
+
+    writeNumber(hundredths / 100);
+    long fraction = hundredths % 100;
+
+    if (fraction != 0) {
+      write((byte) '.');
+      write((byte) ('0' + fraction / 10));
+
+      if (fraction % 10 != 0) {
+        write((byte) ('0' + fraction % 10));
+      }
+    }
+
+    return this;
+  }
+
+  /**
+   * Write any buffered bytes to the channel.
+   *
+   * @throws IOException If the bytes could not be written.
+   */
+  void flush() throws IOException {
+    drain();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      channel.close();
+    }
+  }
+
+  private void drain() throws IOException {
+    buffer.flip();
+
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+
+    buffer.clear();
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.export;
+
+import com.judge40.gridgenerator.MeetingDraw;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * An exporter which writes a meeting's draw as UTF-8 CSV, with a header row followed by one row
+ * for each participant. Empty grids are not written.
+ */
+public class CsvDrawExporter implements MeetingDrawExporter {
+
+  static final String HEADER = "class,heat,race,grid,participant";
+
+  @Override
+  public void export(MeetingDraw meetingDraw, WritableByteChannel channel) throws IOException {
+    ChannelWriter writer = new ChannelWriter(channel);
+    writer.writeLatin1(HEADER).writeLatin1("\r\n");
+
+    for (Entry<String, List<List<List<String>>>> classHeats : meetingDraw.getClassHeats()
+      .entrySet()) {
+      String className = classHeats.getKey();
+      List<List<List<String>>> heats = classHeats.getValue();
+
+      for (int heatIndex = 0; heatIndex < heats.size(); heatIndex++) {
+        List<List<String>> races = heats.get(heatIndex);
+
+        for (int raceIndex = 0; raceIndex < races.size(); raceIndex++) {
+          List<String> race = races.get(raceIndex);
+
+          for (int gridIndex = 0; gridIndex < race.size(); gridIndex++) {
+            String participant = race.get(gridIndex);
+
+            if (participant.isEmpty()) {
+              continue;
+            }
+
+            writeField(writer, className);
+            writer.write((byte) ',').writeNumber(heatIndex + 1).write((byte) ',')
+              .writeNumber(raceIndex + 1).write((byte) ',').writeNumber(gridIndex + 1)
+              .write((byte) ',');
+            writeField(writer, participant);
+            writer.writeLatin1("\r\n");
+          }
+        }
+      }
+    }
+
+    writer.flush();
+  }
+
+  /**
+   * Write a text field, the field is quoted if it contains a delimiter, quote or line break.
+   *
+   * @param writer The writer to write the field to.
+   * @param field  The field to write.
+   * @throws IOException If the field could not be written.
+   */
+  private void writeField(ChannelWriter writer, String field) throws IOException {
+    boolean quoted = false;
+
+    for (int i = 0; i < field.length() && !quoted; i++) {
+      char character = field.charAt(i);
+      quoted = character == ',' || character == '"' || character == '\r' || character == '\n';
+    }
+
+    if (!quoted) {
+      writer.writeUtf8(field);
+      return;
+    }
+
+    writer.write((byte) '"');
+
+    for (int i = 0; i < field.length(); ) {
+      if (field.charAt(i) == '"') {
+        writer.write((byte) '"');
+      }
+
+      i += writer.writeUtf8(field, i);
+    }
+
+    writer.write((byte) '"');
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.export;
+
+import com.judge40.gridgenerator.DrawManifest;
+import com.judge40.gridgenerator.GridDrawHelper;
+import com.judge40.gridgenerator.MeetingDraw;
+import com.judge40.gridgenerator.PreferenceHelper;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.prefs.BackingStoreException;
+
+/**
+ * A headless command which draws the grids for every class of the stored meeting and exports them
+ * to a file, the export format is chosen by the file's extension. The draw's manifests are written
+ * alongside the exported file so that the draw can be verified later.
+ *
+ * <p>Usage: {@code --export <file> [--exclude-grids <grid>,<grid>...]}
+ */
+public class DrawExportCommand {
+
+  static final String EXPORT_OPTION = "--export";
+  static final String EXCLUDE_GRIDS_OPTION = "--exclude-grids";
+
+  static final int EXIT_SUCCESS = 0;
+  static final int EXIT_FAILURE = 1;
+  static final int EXIT_USAGE = 2;
+
+  private static final Logger LOGGER = Logger.getLogger(DrawExportCommand.class.getName());
+
+  /**
+   * Check whether the arguments request a headless export.
+   *
+   * @param args The command line arguments.
+   * @return Whether the export option is present.
+   */
+  public static boolean isExportCommand(String[] args) {
+    return Arrays.asList(args).contains(EXPORT_OPTION);
+  }
+
+  /**
+   * Run the export using the given command line arguments.
+   *
+   * @param args The command line arguments.
+   * @return The exit status, zero if the export was successful.
+   */
+  public static int run(String[] args) {
+    Path file = null;
+    Set<Integer> excludedGrids = new TreeSet<>();
+
+    try {
+      for (int i = 0; i < args.length; i++) {
+        if (EXPORT_OPTION.equals(args[i]) && i + 1 < args.length) {
+          file = Paths.get(args[++i]);
+        } else if (EXCLUDE_GRIDS_OPTION.equals(args[i]) && i + 1 < args.length) {
+          for (String gridNumber : args[++i].split(",")) {
+            excludedGrids.add(Integer.valueOf(gridNumber.trim()));
+          }
+        } else {
+          return printUsage();
+        }
+      }
+    } catch (NumberFormatException e) {
+      return printUsage();
+    }
+
+    Optional<ExportFormat> format = file == null ? Optional.empty() : ExportFormat.forFile(file);
+
+    if (format.isEmpty()) {
+      return printUsage();
+    }
+
+    try {
+      PreferenceHelper.initializePreferences();
+      MeetingDraw meetingDraw = GridDrawHelper.drawGridsForMeeting(excludedGrids);
+      MeetingDrawExporter exporter = format.get()
+        .createExporter(ResourceBundle.getBundle("i18n.Labels"));
+
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+        exporter.export(meetingDraw, channel);
+      }
+
+      DrawManifest.write(meetingDraw.getManifests(), DrawManifest.getManifestFile(file));
+    } catch (BackingStoreException | IOException | ClassNotFoundException e) {
+      LOGGER.log(Level.SEVERE, "The meeting's draw could not be exported.", e);
+      return EXIT_FAILURE;
+    }
+
+    return EXIT_SUCCESS;
+  }
+
+  /**
+   * Print the command's usage.
+   *
+   * @return The usage exit status.
+   */
+  private static int printUsage() {
+    StringBuilder extensions = new StringBuilder();
+
+    for (ExportFormat format : ExportFormat.values()) {
+      extensions.append(extensions.length() == 0 ? "" : ", ").append(format.getExtension());
+    }
+
+    System.err.println("Usage: " + EXPORT_OPTION + " <file> [" + EXCLUDE_GRIDS_OPTION
+      + " <grid>,<grid>...]");
+    System.err.println("Supported file extensions: " + extensions);
+    return EXIT_USAGE;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.export;
+
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.function.Function;
+
+/**
+ * The file formats which a meeting's draw can be exported to.
+ */
+public enum ExportFormat {
+
+  PDF("pdf", PdfDrawSheetExporter::new),
+  CSV("csv", resources -> new CsvDrawExporter()),
+  JSON("json", resources -> new JsonDrawExporter());
+
+  private final String extension;
+  private final Function<ResourceBundle, MeetingDrawExporter> exporterFactory;
+
+  /**
+   * Create an export format.
+   *
+   * @param extension       The file extension of the format, without the leading period.
+   * @param exporterFactory A factory for creating exporters using a labels resource bundle.
+   */
+  ExportFormat(String extension, Function<ResourceBundle, MeetingDrawExporter> exporterFactory) {
+    this.extension = extension;
+    this.exporterFactory = exporterFactory;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  /**
+   * Create an exporter for this format.
+   *
+   * @param resources The resource bundle to use for heading text.
+   * @return The exporter.
+   */
+  public MeetingDrawExporter createExporter(ResourceBundle resources) {
+    return exporterFactory.apply(resources);
+  }
+
+  /**
+   * Get the export format matching a file's extension.
+   *
+   * @param file The file to get the format of.
+   * @return The export format, or empty if the file's extension does not match any format.
+   */
+  public static Optional<ExportFormat> forFile(Path file) {
+    String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+
+    for (ExportFormat format : values()) {
+      if (fileName.endsWith("." + format.extension)) {
+        return Optional.of(format);
+      }
+    }
+
+    return Optional.empty();
+  }
+}
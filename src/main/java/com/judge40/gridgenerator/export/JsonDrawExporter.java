@@ -0,0 +1,108 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.export;
+
+import com.judge40.gridgenerator.MeetingDraw;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * An exporter which writes a meeting's draw as a UTF-8 JSON document containing the meeting
+ * information and an array with an entry for each participant. Empty grids are not written.
+ */
+public class JsonDrawExporter implements MeetingDrawExporter {
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  @Override
+  public void export(MeetingDraw meetingDraw, WritableByteChannel channel) throws IOException {
+    ChannelWriter writer = new ChannelWriter(channel);
+    writer.writeLatin1("{\"meetingName\":");
+    writeString(writer, meetingDraw.getMeetingName());
+    writer.writeLatin1(",\"date\":\"").writeLatin1(meetingDraw.getDate().toString())
+      .writeLatin1("\",\"grids\":[");
+    boolean firstEntry = true;
+
+    for (Entry<String, List<List<List<String>>>> classHeats : meetingDraw.getClassHeats()
+      .entrySet()) {
+      String className = classHeats.getKey();
+      List<List<List<String>>> heats = classHeats.getValue();
+
+      for (int heatIndex = 0; heatIndex < heats.size(); heatIndex++) {
+        List<List<String>> races = heats.get(heatIndex);
+
+        for (int raceIndex = 0; raceIndex < races.size(); raceIndex++) {
+          List<String> race = races.get(raceIndex);
+
+          for (int gridIndex = 0; gridIndex < race.size(); gridIndex++) {
+            String participant = race.get(gridIndex);
+
+            if (participant.isEmpty()) {
+              continue;
+            }
+
+            writer.writeLatin1(firstEntry ? "\n{\"class\":" : ",\n{\"class\":");
+            writeString(writer, className);
+            writer.writeLatin1(",\"heat\":").writeNumber(heatIndex + 1)
+              .writeLatin1(",\"race\":").writeNumber(raceIndex + 1)
+              .writeLatin1(",\"grid\":").writeNumber(gridIndex + 1)
+              .writeLatin1(",\"participant\":");
+            writeString(writer, participant);
+            writer.write((byte) '}');
+            firstEntry = false;
+          }
+        }
+      }
+    }
+
+    writer.writeLatin1("\n]}\n");
+    writer.flush();
+  }
+
+  /**
+   * Write a quoted JSON string, escaping quotes, backslashes and control characters.
+   *
+   * @param writer The writer to write the string to.
+   * @param text   The text of the string.
+   * @throws IOException If the string could not be written.
+   */
+  private void writeString(ChannelWriter writer, String text) throws IOException {
+    writer.write((byte) '"');
+
+    for (int i = 0; i < text.length(); ) {
+      char character = text.charAt(i);
+
+      if (character == '"' || character == '\\') {
+        writer.write((byte) '\\').write((byte) character);
+        i++;
+      } else if (character < ' ') {
+        writer.writeLatin1("\\u00").write((byte) HEX_DIGITS[character >> 4])
+          .write((byte) HEX_DIGITS[character & 0xF]);
+        i++;
+      } else {
+        i += writer.writeUtf8(text, i);
+      }
+    }
+
+    writer.write((byte) '"');
+  }
+}
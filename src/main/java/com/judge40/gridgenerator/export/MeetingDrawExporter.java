@@ -0,0 +1,39 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.export;
+
+import com.judge40.gridgenerator.MeetingDraw;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * An exporter which writes a meeting's draw to a channel in a particular file format.
+ */
+public interface MeetingDrawExporter {
+
+  /**
+   * Write a meeting's draw to a channel, the channel is left open once the draw has been written.
+   *
+   * @param meetingDraw The meeting's draw.
+   * @param channel     The channel to write to.
+   * @throws IOException If the draw could not be written.
+   */
+  void export(MeetingDraw meetingDraw, WritableByteChannel channel) throws IOException;
+}
@@ -0,0 +1,362 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.export;
+
+import com.judge40.gridgenerator.MeetingDraw;
+import com.judge40.gridgenerator.print.DrawSheetPage;
+import com.judge40.gridgenerator.print.DrawSheetPage.HeatSection;
+import com.judge40.gridgenerator.print.DrawSheetPaginator;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.text.MessageFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.ResourceBundle;
+
+/**
+ * An exporter which writes a meeting's draw sheets as an A4 PDF document. The document is written
+ * directly to the channel one page at a time using the standard Helvetica fonts, so no scene graph
+ * is required and only the byte offsets of the written objects are retained.
+ */
+public class PdfDrawSheetExporter implements MeetingDrawExporter {
+
+  static final double PAGE_WIDTH = 595;
+  static final double PAGE_HEIGHT = 842;
+  static final double MARGIN = 36;
+  static final double ROW_HEIGHT = 18;
+  static final int ROWS_PER_PAGE = (int) ((PAGE_HEIGHT - 2 * MARGIN) / ROW_HEIGHT);
+  static final int PAGE_HEADER_ROWS = 4;
+
+  private static final double RACE_COLUMN_WIDTH = 60;
+  private static final double CELL_PADDING = 3;
+  private static final double TEXT_BASELINE_OFFSET = 5;
+
+  private static final String REGULAR_FONT = "/F1";
+  private static final String BOLD_FONT = "/F2";
+
+  private static final int CATALOG_OBJECT = 1;
+  private static final int PAGES_OBJECT = 2;
+  private static final int REGULAR_FONT_OBJECT = 3;
+  private static final int BOLD_FONT_OBJECT = 4;
+  private static final int FIRST_PAGE_OBJECT = 5;
+  private static final int OBJECTS_PER_PAGE = 3;
+
+  private final ResourceBundle resources;
+
+  /**
+   * Create a PDF exporter.
+   *
+   * @param resources The resource bundle to use for heading text.
+   */
+  public PdfDrawSheetExporter(ResourceBundle resources) {
+    this.resources = resources;
+  }
+
+  @Override
+  public void export(MeetingDraw meetingDraw, WritableByteChannel channel) throws IOException {
+    List<DrawSheetPage> pages = DrawSheetPaginator
+      .paginate(meetingDraw, ROWS_PER_PAGE, PAGE_HEADER_ROWS);
+    int numberOfObjects = FIRST_PAGE_OBJECT + pages.size() * OBJECTS_PER_PAGE;
+    long[] objectOffsets = new long[numberOfObjects];
+
+    ChannelWriter writer = new ChannelWriter(channel);
+    writer.writeLatin1("%PDF-1.4\n%\u00E2\u00E3\u00CF\u00D3\n");
+
+    beginObject(writer, objectOffsets, CATALOG_OBJECT);
+    writer.writeLatin1("<< /Type /Catalog /Pages ").writeNumber(PAGES_OBJECT)
+      .writeLatin1(" 0 R >>\n");
+    endObject(writer);
+
+    writeFont(writer, objectOffsets, REGULAR_FONT_OBJECT, "Helvetica");
+    writeFont(writer, objectOffsets, BOLD_FONT_OBJECT, "Helvetica-Bold");
+
+    String date = meetingDraw.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+    String meetingText = String.format("%s - %s", meetingDraw.getMeetingName(), date);
+
+    for (int pageIndex = 0; pageIndex < pages.size(); pageIndex++) {
+      int contentObject = FIRST_PAGE_OBJECT + pageIndex * OBJECTS_PER_PAGE;
+
+      // The content length is written as a separate object so the content can be streamed.
+      beginObject(writer, objectOffsets, contentObject);
+      writer.writeLatin1("<< /Length ").writeNumber(contentObject + 1)
+        .writeLatin1(" 0 R >>\nstream\n");
+      long contentStart = writer.getPosition();
+      writePageContent(writer, meetingText, pages.get(pageIndex));
+      long contentLength = writer.getPosition() - contentStart;
+      writer.writeLatin1("\nendstream\n");
+      endObject(writer);
+
+      beginObject(writer, objectOffsets, contentObject + 1);
+      writer.writeNumber(contentLength).write((byte) '\n');
+      endObject(writer);
+
+      beginObject(writer, objectOffsets, contentObject + 2);
+      writer.writeLatin1("<< /Type /Page /Parent ").writeNumber(PAGES_OBJECT)
+        .writeLatin1(" 0 R /MediaBox [0 0 ").writeNumber(PAGE_WIDTH).write((byte) ' ')
+        .writeNumber(PAGE_HEIGHT).writeLatin1("] /Contents ").writeNumber(contentObject)
+        .writeLatin1(" 0 R /Resources << /Font << ").writeLatin1(REGULAR_FONT).write((byte) ' ')
+        .writeNumber(REGULAR_FONT_OBJECT).writeLatin1(" 0 R ").writeLatin1(BOLD_FONT)
+        .write((byte) ' ').writeNumber(BOLD_FONT_OBJECT).writeLatin1(" 0 R >> >> >>\n");
+      endObject(writer);
+    }
+
+    beginObject(writer, objectOffsets, PAGES_OBJECT);
+    writer.writeLatin1("<< /Type /Pages /Count ").writeNumber(pages.size())
+      .writeLatin1(" /Kids [");
+
+    for (int pageIndex = 0; pageIndex < pages.size(); pageIndex++) {
+      writer.write((byte) ' ')
+        .writeNumber(FIRST_PAGE_OBJECT + pageIndex * OBJECTS_PER_PAGE + 2).writeLatin1(" 0 R");
+    }
+
+    writer.writeLatin1(" ] >>\n");
+    endObject(writer);
+
+    // Write the cross-reference table, each entry is exactly 20 bytes long.
+    long crossReferenceOffset = writer.getPosition();
+    writer.writeLatin1("xref\n0 ").writeNumber(numberOfObjects)
+      .writeLatin1("\n0000000000 65535 f \n");
+
+    for (int object = 1; object < numberOfObjects; object++) {
+      writer.writeNumber(objectOffsets[object], 10).writeLatin1(" 00000 n \n");
+    }
+
+    writer.writeLatin1("trailer\n<< /Size ").writeNumber(numberOfObjects)
+      .writeLatin1(" /Root ").writeNumber(CATALOG_OBJECT).writeLatin1(" 0 R >>\nstartxref\n")
+      .writeNumber(crossReferenceOffset).writeLatin1("\n%%EOF\n");
+    writer.flush();
+  }
+
+  /**
+   * Write the drawing operations for a single page.
+   *
+   * @param writer      The writer to write the operations to.
+   * @param meetingText The meeting information heading text.
+   * @param page        The page to write.
+   * @throws IOException If the operations could not be written.
+   */
+  private void writePageContent(ChannelWriter writer, String meetingText, DrawSheetPage page)
+    throws IOException {
+    writer.writeLatin1("0.5 w\n");
+
+    // The meeting and class headings each span half of the page header rows.
+    int headingRows = PAGE_HEADER_ROWS / 2;
+    writeText(writer, BOLD_FONT, 14, MARGIN, getRowBaseline(headingRows - 1), meetingText);
+    writeText(writer, BOLD_FONT, 12, MARGIN, getRowBaseline(PAGE_HEADER_ROWS - 1),
+      page.getClassName());
+
+    int row = PAGE_HEADER_ROWS;
+
+    for (HeatSection heatSection : page.getHeatSections()) {
+      String heatNumberText = resources.getString("draw.heatNumber");
+      heatNumberText = MessageFormat.format(heatNumberText, heatSection.getHeatNumber());
+      writeText(writer, BOLD_FONT, 11, MARGIN, getRowBaseline(row++), heatNumberText);
+      row = writeHeatTable(writer, heatSection, row);
+    }
+  }
+
+  /**
+   * Write a table containing the races of a heat section, with a grid number header row.
+   *
+   * @param writer      The writer to write the operations to.
+   * @param heatSection The heat section to write.
+   * @param row         The page row to start the table on.
+   * @return The page row following the table.
+   * @throws IOException If the operations could not be written.
+   */
+  private int writeHeatTable(ChannelWriter writer, HeatSection heatSection, int row)
+    throws IOException {
+    List<List<String>> races = heatSection.getRaces();
+    int numberOfGrids = races.get(0).size();
+    double gridColumnWidth = (PAGE_WIDTH - 2 * MARGIN - RACE_COLUMN_WIDTH) / numberOfGrids;
+
+    // Stroke all of the cell borders together.
+    for (int tableRow = 0; tableRow <= races.size(); tableRow++) {
+      double y = getRowTop(row + tableRow) - ROW_HEIGHT;
+      writeRectangle(writer, MARGIN, y, RACE_COLUMN_WIDTH, ROW_HEIGHT);
+
+      for (int grid = 0; grid < numberOfGrids; grid++) {
+        writeRectangle(writer, MARGIN + RACE_COLUMN_WIDTH + grid * gridColumnWidth, y,
+          gridColumnWidth, ROW_HEIGHT);
+      }
+    }
+
+    writer.writeLatin1("S\n");
+
+    writeCell(writer, BOLD_FONT, MARGIN, row, RACE_COLUMN_WIDTH,
+      resources.getString("draw.gridHeader"));
+
+    for (int grid = 0; grid < numberOfGrids; grid++) {
+      writeCell(writer, BOLD_FONT, MARGIN + RACE_COLUMN_WIDTH + grid * gridColumnWidth, row,
+        gridColumnWidth, String.valueOf(grid + 1));
+    }
+
+    row++;
+    String raceHeader = resources.getString("draw.raceHeader");
+
+    for (int raceIndex = 0; raceIndex < races.size(); raceIndex++, row++) {
+      int raceNumber = heatSection.getFirstRaceNumber() + raceIndex;
+      writeCell(writer, BOLD_FONT, MARGIN, row, RACE_COLUMN_WIDTH,
+        MessageFormat.format(raceHeader, raceNumber));
+
+      List<String> race = races.get(raceIndex);
+
+      for (int grid = 0; grid < race.size(); grid++) {
+        writeCell(writer, REGULAR_FONT, MARGIN + RACE_COLUMN_WIDTH + grid * gridColumnWidth, row,
+          gridColumnWidth, race.get(grid));
+      }
+    }
+
+    return row;
+  }
+
+  /**
+   * Write the text of a table cell, clipped to the bounds of the cell.
+   *
+   * @param writer The writer to write the operations to.
+   * @param font   The resource name of the font to use.
+   * @param x      The left edge of the cell.
+   * @param row    The page row of the cell.
+   * @param width  The width of the cell.
+   * @param text   The text of the cell.
+   * @throws IOException If the operations could not be written.
+   */
+  private void writeCell(ChannelWriter writer, String font, double x, int row, double width,
+    String text) throws IOException {
+    if (text.isEmpty()) {
+      return;
+    }
+
+    writer.writeLatin1("q ");
+    writeRectangle(writer, x, getRowTop(row) - ROW_HEIGHT, width, ROW_HEIGHT);
+    writer.writeLatin1("W n\n");
+    writeText(writer, font, 9, x + CELL_PADDING, getRowBaseline(row), text);
+    writer.writeLatin1("Q\n");
+  }
+
+  /**
+   * Write a single line of text.
+   *
+   * @param writer   The writer to write the operations to.
+   * @param font     The resource name of the font to use.
+   * @param fontSize The size of the font.
+   * @param x        The horizontal position of the start of the text.
+   * @param y        The vertical position of the text's baseline.
+   * @param text     The text to write.
+   * @throws IOException If the operations could not be written.
+   */
+  private void writeText(ChannelWriter writer, String font, int fontSize, double x, double y,
+    String text) throws IOException {
+    writer.writeLatin1("BT ").writeLatin1(font).write((byte) ' ').writeNumber(fontSize)
+      .writeLatin1(" Tf ").writeNumber(x).write((byte) ' ').writeNumber(y).writeLatin1(" Td (");
+
+    for (int i = 0; i < text.length(); i++) {
+      char character = text.charAt(i);
+
+      if (character == '(' || character == ')' || character == '\\') {
+        writer.write((byte) '\\');
+      } else if (character < ' ' || character > '\u00FF') {
+        // Characters outside of the standard font encoding can not be displayed.
+        character = '?';
+      }
+
+      writer.write((byte) character);
+    }
+
+    writer.writeLatin1(") Tj ET\n");
+  }
+
+  /**
+   * Write a rectangle path, the path is not stroked or filled.
+   *
+   * @param writer The writer to write the operations to.
+   * @param x      The left edge of the rectangle.
+   * @param y      The bottom edge of the rectangle.
+   * @param width  The width of the rectangle.
+   * @param height The height of the rectangle.
+   * @throws IOException If the operations could not be written.
+   */
+  private void writeRectangle(ChannelWriter writer, double x, double y, double width,
+    double height) throws IOException {
+    writer.writeNumber(x).write((byte) ' ').writeNumber(y).write((byte) ' ').writeNumber(width)
+      .write((byte) ' ').writeNumber(height).writeLatin1(" re\n");
+  }
+
+  /**
+   * Write a standard Type 1 font object.
+   *
+   * @param writer        The writer to write the object to.
+   * @param objectOffsets The byte offsets of the written objects.
+   * @param object        The object number of the font.
+   * @param baseFont      The name of the standard font.
+   * @throws IOException If the object could not be written.
+   */
+  private void writeFont(ChannelWriter writer, long[] objectOffsets, int object, String baseFont)
+    throws IOException {
+    beginObject(writer, objectOffsets, object);
+    writer.writeLatin1("<< /Type /Font /Subtype /Type1 /BaseFont /").writeLatin1(baseFont)
+      .writeLatin1(" /Encoding /WinAnsiEncoding >>\n");
+    endObject(writer);
+  }
+
+  /**
+   * Record the offset of an object and write its header.
+   *
+   * @param writer        The writer to write the object to.
+   * @param objectOffsets The byte offsets of the written objects.
+   * @param object        The object number.
+   * @throws IOException If the header could not be written.
+   */
+  private void beginObject(ChannelWriter writer, long[] objectOffsets, int object)
+    throws IOException {
+    objectOffsets[object] = writer.getPosition();
+    writer.writeNumber(object).writeLatin1(" 0 obj\n");
+  }
+
+  /**
+   * Write the end of an object.
+   *
+   * @param writer The writer to write the object to.
+   * @throws IOException If the end of the object could not be written.
+   */
+  private void endObject(ChannelWriter writer) throws IOException {
+    writer.writeLatin1("endobj\n");
+  }
+
+  /**
+   * Get the vertical position of the top of a page row, page rows are counted from the top margin.
+   *
+   * @param row The page row.
+   * @return The vertical position of the top of the row.
+   */
+  private double getRowTop(int row) {
+    return PAGE_HEIGHT - MARGIN - row * ROW_HEIGHT;
+  }
+
+  /**
+   * Get the vertical position of the text baseline of a page row.
+   *
+   * @param row The page row.
+   * @return The vertical position of the row's baseline.
+   */
+  private double getRowBaseline(int row) {
+    return getRowTop(row) - ROW_HEIGHT + TEXT_BASELINE_OFFSET;
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.ingest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * A reader for entry files which only parses the lines added since each file was last read. Each
+ * line of an entry file contains a class name and a participant separated by a comma, blank lines
+ * and lines starting with {@code #} are ignored.
+ *
+ * <p>New read positions are held as pending until they are committed, so that entries which could
+ * not be stored are read again the next time the file changes. A checksum of the content already
+ * read is kept with each position, so that a file which was replaced rather than appended to is
+ * read again from the start.
+ */
+class EntryFileReader {
+
+  private static final Logger LOGGER = Logger.getLogger(EntryFileReader.class.getName());
+
+  private static final byte LINE_END = '\n';
+  private static final String COMMENT = "#";
+  private static final char SEPARATOR = ',';
+  private static final int PREFIX_BUFFER_SIZE = 8192;
+
+  private final Map<Path, Position> positions = new HashMap<>();
+  private final Map<Path, Position> pendingPositions = new HashMap<>();
+
+  /**
+   * Read the complete lines added to an entry file since it was last read, a trailing partial line
+   * is left until it has been completed. A file whose content up to the previous offset no longer
+   * matches the checksum of the content read was replaced rather than appended to, so it is read
+   * again from the start.
+   *
+   * @param file    The entry file to read.
+   * @param entries The entries to add to, the participants are keyed by class name.
+   * @throws IOException If the file could not be read.
+   */
+  void readNewEntries(Path file, Map<String, List<String>> entries) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      Position position = positions.get(file);
+      long offset = 0;
+      CRC32 checksum = new CRC32();
+
+      if (position != null) {
+        if (isPrefix(channel, position, checksum)) {
+          offset = position.offset;
+        } else {
+          LOGGER.info("The entry file " + file + " was replaced and will be read from the start.");
+          checksum.reset();
+        }
+      }
+
+      ByteBuffer buffer = readFrom(channel, offset);
+      int end = buffer.limit();
+
+      // Only parse up to the end of the last complete line.
+      while (end > 0 && buffer.get(end - 1) != LINE_END) {
+        end--;
+      }
+
+      checksum.update(buffer.array(), 0, end);
+      String lines = new String(buffer.array(), 0, end, StandardCharsets.UTF_8);
+      parseLines(file, lines, entries);
+      pendingPositions.put(file, new Position(offset + end, checksum.getValue()));
+    }
+  }
+
+  /**
+   * Commit the positions of the files read since the last commit or rollback, so that their lines
+   * are not read again.
+   */
+  void commit() {
+    positions.putAll(pendingPositions);
+    pendingPositions.clear();
+  }
+
+  /**
+   * Discard the positions of the files read since the last commit or rollback, so that their
+   * lines are read again.
+   */
+  void rollback() {
+    pendingPositions.clear();
+  }
+
+  /**
+   * Check whether the file still starts with the content read up to a previous position.
+   *
+   * @param channel  The channel to read the file from.
+   * @param position The previous position in the file.
+   * @param checksum The checksum to update with the file's content up to the position's offset.
+   * @return Whether the file is long enough to contain the position's offset and its content up to
+   *     the offset matches the position's checksum.
+   * @throws IOException If the file could not be read.
+   */
+  private static boolean isPrefix(FileChannel channel, Position position, CRC32 checksum)
+    throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(PREFIX_BUFFER_SIZE);
+    long bytesChecked = 0;
+
+    while (bytesChecked < position.offset) {
+      buffer.clear().limit((int) Math.min(buffer.capacity(), position.offset - bytesChecked));
+      int bytesRead = channel.read(buffer, bytesChecked);
+
+      if (bytesRead == -1) {
+        return false;
+      }
+
+      checksum.update(buffer.array(), 0, bytesRead);
+      bytesChecked += bytesRead;
+    }
+
+    return checksum.getValue() == position.checksum;
+  }
+
+  /**
+   * Read the remainder of a file from the given offset.
+   *
+   * @param channel The channel to read the file from.
+   * @param offset  The offset to start reading from.
+   * @return A buffer whose limit is the number of bytes read.
+   * @throws IOException If the file could not be read.
+   */
+  private static ByteBuffer readFrom(FileChannel channel, long offset) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(Math.max(0, channel.size() - offset)));
+
+    int bytesRead = 0;
+
+    // The file may be truncated while it is read, so stop at the end of the file.
+    while (buffer.hasRemaining() && bytesRead != -1) {
+      bytesRead = channel.read(buffer, offset + buffer.position());
+    }
+
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Parse entry lines in to participants keyed by class name, malformed lines are logged and
+   * skipped.
+   *
+   * @param file    The entry file the lines were read from.
+   * @param lines   The lines to parse.
+   * @param entries The entries to add to.
+   */
+  private static void parseLines(Path file, String lines, Map<String, List<String>> entries) {
+    for (String line : lines.split("\n")) {
+      line = line.trim();
+
+      if (line.isEmpty() || line.startsWith(COMMENT)) {
+        continue;
+      }
+
+      int separator = line.lastIndexOf(SEPARATOR);
+
+      if (separator <= 0 || separator == line.length() - 1) {
+        LOGGER.warning("The entry \"" + line + "\" in " + file + " has no class or participant.");
+        continue;
+      }
+
+      String className = line.substring(0, separator).trim();
+      String participant = line.substring(separator + 1).trim();
+      entries.computeIfAbsent(className, key -> new ArrayList<>()).add(participant);
+    }
+  }
+
+  /**
+   * The offset up to which a file has been read and the checksum of its content up to the offset.
+   */
+  private static class Position {
+
+    private final long offset;
+    private final long checksum;
+
+    /**
+     * Create a file position.
+     *
+     * @param offset   The offset up to which the file has been read.
+     * @param checksum The checksum of the file's content up to the offset.
+     */
+    private Position(long offset, long checksum) {
+      this.offset = offset;
+      this.checksum = checksum;
+    }
+  }
+}
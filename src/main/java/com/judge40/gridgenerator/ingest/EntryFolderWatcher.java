@@ -0,0 +1,240 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.ingest;
+
+import com.judge40.gridgenerator.PreferenceHelper;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.prefs.BackingStoreException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Watches a folder for entry files exported by the registration desk and adds their participants
+ * to the stored meeting as they arrive. Only the lines added since a file was last read are parsed,
+ * the entries of every file changed together are stored in a single batch and the listener is
+ * given the names of the classes which changed, so that only those classes need to be redrawn.
+ */
+public class EntryFolderWatcher implements Closeable {
+
+  // Changes which arrive within this time of each other are stored in the same batch.
+  private static final long BATCH_WINDOW_MILLIS = 200;
+
+  // A folder which is written continuously is still stored in batches of at most this time.
+  private static final long MAX_BATCH_MILLIS = 2000;
+
+  private static final Logger LOGGER = Logger.getLogger(EntryFolderWatcher.class.getName());
+
+  private final Path folder;
+  private final Consumer<Set<String>> listener;
+  private final EntryFileReader entryFileReader = new EntryFileReader();
+
+  private WatchService watchService;
+
+  /**
+   * Create a watcher for the given entry folder.
+   *
+   * @param folder   The folder to watch for entry files.
+   * @param listener The listener to give the names of the changed classes to, it is called on the
+   *                 watcher's thread.
+   */
+  public EntryFolderWatcher(Path folder, Consumer<Set<String>> listener) {
+    this.folder = folder;
+    this.listener = listener;
+  }
+
+  /**
+   * Start watching the folder on a daemon thread, the entry files already in the folder are
+   * ingested first.
+   *
+   * @throws IOException If the folder could not be watched.
+   */
+  public synchronized void start() throws IOException {
+    if (watchService != null) {
+      throw new IllegalStateException("The entry folder is already being watched.");
+    }
+
+    // Register before the existing files are listed so that no changes are missed.
+    watchService = folder.getFileSystem().newWatchService();
+    folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+      StandardWatchEventKinds.ENTRY_MODIFY);
+
+    Thread thread = new Thread(this::watch, "entry-folder-watcher");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Stop watching the folder.
+   *
+   * @throws IOException If the watch service could not be closed.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (watchService != null) {
+      watchService.close();
+    }
+  }
+
+  /**
+   * Ingest the existing entry files and then the changed entry files until the watcher is closed.
+   */
+  private void watch() {
+    try {
+      ingest(listEntryFiles());
+
+      while (true) {
+        Set<Path> changedFiles = new TreeSet<>();
+        WatchKey watchKey = watchService.take();
+        long batchStart = System.nanoTime();
+
+        // Keep collecting changes until the folder is quiet so a burst of writes is one batch.
+        while (watchKey != null) {
+          for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+              changedFiles.addAll(listEntryFiles());
+            } else {
+              changedFiles.add(folder.resolve((Path) event.context()));
+            }
+          }
+
+          if (!watchKey.reset()) {
+            LOGGER.warning("The entry folder " + folder + " can no longer be watched.");
+            return;
+          }
+
+          if (System.nanoTime() - batchStart > TimeUnit.MILLISECONDS.toNanos(MAX_BATCH_MILLIS)) {
+            break;
+          }
+
+          watchKey = watchService.poll(BATCH_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        ingest(changedFiles);
+      }
+    } catch (ClosedWatchServiceException e) {
+      LOGGER.fine("The entry folder " + folder + " is no longer being watched.");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      LOGGER.log(Level.SEVERE, "The entry folder " + folder + " could not be listed.", e);
+    }
+  }
+
+  /**
+   * Read the new entries from the given files, store the valid entries in a single batch and give
+   * the names of the changed classes to the listener. Files which could not be read are skipped,
+   * if the entries could not be stored they are read again when the files next change.
+   *
+   * @param files The entry files to ingest.
+   * @return The names of the classes whose participants changed.
+   */
+  Set<String> ingest(Collection<Path> files) {
+    Map<String, List<String>> entries = new LinkedHashMap<>();
+
+    for (Path file : files) {
+      if (!Files.isRegularFile(file)) {
+        continue;
+      }
+
+      try {
+        entryFileReader.readNewEntries(file, entries);
+      } catch (IOException e) {
+        LOGGER.log(Level.WARNING, "The entry file " + file + " could not be read.", e);
+      }
+    }
+
+    removeInvalidParticipants(entries);
+    Set<String> changedClassNames = Collections.emptySet();
+
+    try {
+      if (!entries.isEmpty()) {
+        changedClassNames = PreferenceHelper.addClassParticipants(entries);
+      }
+
+      entryFileReader.commit();
+    } catch (BackingStoreException | ClassNotFoundException | IOException e) {
+      LOGGER.log(Level.SEVERE, "The entries could not be stored.", e);
+      entryFileReader.rollback();
+    }
+
+    if (!changedClassNames.isEmpty()) {
+      listener.accept(changedClassNames);
+    }
+
+    return changedClassNames;
+  }
+
+  /**
+   * Remove and log the participants which do not match the participant validator, classes left
+   * without participants are removed.
+   *
+   * @param entries The entries to validate, the participants are keyed by class name.
+   */
+  private static void removeInvalidParticipants(Map<String, List<String>> entries) {
+    Pattern participantValidator = Pattern.compile(PreferenceHelper.getParticipantValidator());
+
+    for (Map.Entry<String, List<String>> entry : entries.entrySet()) {
+      entry.getValue().removeIf(participant -> {
+        boolean invalid = !participantValidator.matcher(participant).matches();
+
+        if (invalid) {
+          LOGGER.warning("The participant \"" + participant + "\" entered in class \""
+            + entry.getKey() + "\" is not valid.");
+        }
+
+        return invalid;
+      });
+    }
+
+    entries.values().removeIf(List::isEmpty);
+  }
+
+  /**
+   * List the regular files in the entry folder, in name order.
+   *
+   * @return The entry files.
+   * @throws IOException If the folder could not be listed.
+   */
+  private Set<Path> listEntryFiles() throws IOException {
+    try (Stream<Path> files = Files.list(folder)) {
+      return files.filter(Files::isRegularFile).collect(Collectors.toCollection(TreeSet::new));
+    }
+  }
+}
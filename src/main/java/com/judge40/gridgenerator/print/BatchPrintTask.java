@@ -0,0 +1,132 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.print;
+
+import com.judge40.gridgenerator.MeetingDraw;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.print.PageLayout;
+import javafx.print.PrinterJob;
+import javafx.scene.Node;
+
+/**
+ * A task which prints the paginated draw sheets of a meeting's draw. Pages are laid out on the
+ * JavaFX Application Thread ahead of the printer while earlier pages are being printed on the
+ * task's thread, progress is reported as each page is printed.
+ */
+public class BatchPrintTask extends Task<Void> {
+
+  // The number of pages which may be laid out ahead of the page being printed.
+  private static final int PIPELINE_DEPTH = 3;
+
+  private final PrinterJob printerJob;
+  private final MeetingDraw meetingDraw;
+  private final ResourceBundle resources;
+
+  /**
+   * Create a task to print a meeting's draw.
+   *
+   * @param printerJob  The printer job to print with, the job is ended once all pages are printed.
+   * @param meetingDraw The meeting's draw.
+   * @param resources   The resource bundle to use for heading text.
+   */
+  public BatchPrintTask(PrinterJob printerJob, MeetingDraw meetingDraw,
+    ResourceBundle resources) {
+    this.printerJob = printerJob;
+    this.meetingDraw = meetingDraw;
+    this.resources = resources;
+  }
+
+  /**
+   * Print the pages of the draw, the printer job is cancelled if the task is cancelled or any page
+   * could not be laid out or printed.
+   *
+   * @return Nothing.
+   */
+  @Override
+  protected Void call() {
+    try {
+      if (printPages()) {
+        printerJob.endJob();
+      } else {
+        printerJob.cancelJob();
+      }
+    } catch (RuntimeException | Error e) {
+      printerJob.cancelJob();
+      throw e;
+    }
+
+    return null;
+  }
+
+  /**
+   * Print each page of the draw as it is laid out.
+   *
+   * @return Whether all pages were printed, false if the task was cancelled.
+   * @throws IllegalStateException If the printer job failed to print a page.
+   */
+  private boolean printPages() {
+    PageLayout pageLayout = printerJob.getJobSettings().getPageLayout();
+    DrawSheetPageRenderer renderer = new DrawSheetPageRenderer(meetingDraw, resources,
+      pageLayout.getPrintableWidth());
+    int rowsPerPage = (int) (pageLayout.getPrintableHeight() / DrawSheetPageRenderer.ROW_HEIGHT);
+    List<DrawSheetPage> pages = DrawSheetPaginator
+      .paginate(meetingDraw, rowsPerPage, DrawSheetPageRenderer.PAGE_HEADER_ROWS);
+
+    Deque<CompletableFuture<Node>> laidOutPages = new ArrayDeque<>();
+    int nextPage = 0;
+
+    for (int printedPages = 0; printedPages < pages.size(); printedPages++) {
+      // Keep the pipeline full by laying out the upcoming pages.
+      while (nextPage < pages.size() && laidOutPages.size() < PIPELINE_DEPTH) {
+        DrawSheetPage page = pages.get(nextPage++);
+        CompletableFuture<Node> laidOutPage = new CompletableFuture<>();
+        Platform.runLater(() -> {
+          try {
+            laidOutPage.complete(renderer.render(page));
+          } catch (RuntimeException e) {
+            laidOutPage.completeExceptionally(e);
+          }
+        });
+        laidOutPages.add(laidOutPage);
+      }
+
+      if (isCancelled()) {
+        return false;
+      }
+
+      Node pageNode = laidOutPages.remove().join();
+
+      if (!printerJob.printPage(pageLayout, pageNode)) {
+        throw new IllegalStateException("The printer job failed with status "
+          + printerJob.getJobStatus() + ".");
+      }
+
+      updateProgress(printedPages + 1, pages.size());
+    }
+
+    return true;
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.print;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single page of a class's draw sheet, containing all or part of one or more of the class's
+ * heats.
+ */
+public class DrawSheetPage {
+
+  private final String className;
+  private final List<HeatSection> heatSections = new ArrayList<>();
+
+  /**
+   * Create an empty page for a class.
+   *
+   * @param className The name of the class which the page is for.
+   */
+  DrawSheetPage(String className) {
+    this.className = className;
+  }
+
+  public String getClassName() {
+    return className;
+  }
+
+  public List<HeatSection> getHeatSections() {
+    return Collections.unmodifiableList(heatSections);
+  }
+
+  void addHeatSection(HeatSection heatSection) {
+    heatSections.add(heatSection);
+  }
+
+  /**
+   * A consecutive run of races from a single heat.
+   */
+  public static class HeatSection {
+
+    private final int heatNumber;
+    private final int firstRaceNumber;
+    private final List<List<String>> races;
+
+    /**
+     * Create a heat section.
+     *
+     * @param heatNumber      The number of the heat.
+     * @param firstRaceNumber The race number of the first race in the section.
+     * @param races           The races in the section.
+     */
+    HeatSection(int heatNumber, int firstRaceNumber, List<List<String>> races) {
+      this.heatNumber = heatNumber;
+      this.firstRaceNumber = firstRaceNumber;
+      this.races = Collections.unmodifiableList(races);
+    }
+
+    public int getHeatNumber() {
+      return heatNumber;
+    }
+
+    public int getFirstRaceNumber() {
+      return firstRaceNumber;
+    }
+
+    public List<List<String>> getRaces() {
+      return races;
+    }
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.print;
+
+import com.judge40.gridgenerator.MeetingDraw;
+import com.judge40.gridgenerator.print.DrawSheetPage.HeatSection;
+import java.text.MessageFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.ResourceBundle;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+
+/**
+ * A renderer which lays out draw sheet pages as nodes ready to be printed.
+ */
+public class DrawSheetPageRenderer {
+
+  /**
+   * The height of a single row of a draw sheet page.
+   */
+  public static final double ROW_HEIGHT = 18;
+
+  /**
+   * The number of rows taken by the meeting and class headings at the top of each page.
+   */
+  public static final int PAGE_HEADER_ROWS = 4;
+
+  private static final double RACE_COLUMN_WIDTH = 60;
+
+  private final MeetingDraw meetingDraw;
+  private final ResourceBundle resources;
+  private final double pageWidth;
+
+  /**
+   * Create a renderer for the pages of a meeting's draw.
+   *
+   * @param meetingDraw The meeting's draw.
+   * @param resources   The resource bundle to use for heading text.
+   * @param pageWidth   The printable width of a page.
+   */
+  public DrawSheetPageRenderer(MeetingDraw meetingDraw, ResourceBundle resources,
+    double pageWidth) {
+    this.meetingDraw = meetingDraw;
+    this.resources = resources;
+    this.pageWidth = pageWidth;
+  }
+
+  /**
+   * Render a page and lay it out off-screen, must be called on the JavaFX Application Thread.
+   *
+   * @param page The page to render.
+   * @return The laid out page.
+   */
+  public Node render(DrawSheetPage page) {
+    VBox pageContent = new VBox();
+    pageContent.setPrefWidth(pageWidth);
+
+    String date = meetingDraw.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+    String meetingText = String.format("%s - %s", meetingDraw.getMeetingName(), date);
+    Label meetingInformation = createRow(meetingText, PAGE_HEADER_ROWS / 2);
+    meetingInformation.setId("meetingInformation");
+    Label classInformation = createRow(page.getClassName(), PAGE_HEADER_ROWS / 2);
+    classInformation.setId("classInformation");
+    pageContent.getChildren().addAll(meetingInformation, classInformation);
+
+    for (HeatSection heatSection : page.getHeatSections()) {
+      String heatNumberText = resources.getString("draw.heatNumber");
+      heatNumberText = MessageFormat.format(heatNumberText, heatSection.getHeatNumber());
+      Label heatHeading = createRow(heatNumberText, 1);
+      heatHeading.getStyleClass().add("heat-heading");
+      pageContent.getChildren().addAll(heatHeading, createHeatGrid(heatSection));
+    }
+
+    // Apply the styles and lay out the page without displaying it.
+    Scene scene = new Scene(pageContent);
+    scene.getStylesheets().add("/draw-sheet.css");
+    pageContent.applyCss();
+    pageContent.layout();
+
+    return pageContent;
+  }
+
+  /**
+   * Create a grid containing the races of a heat section, with a grid number header row.
+   *
+   * @param heatSection The heat section to create the grid for.
+   * @return The heat section's grid.
+   */
+  private GridPane createHeatGrid(HeatSection heatSection) {
+    List<List<String>> races = heatSection.getRaces();
+    int numberOfGrids = races.get(0).size();
+
+    GridPane heatGrid = new GridPane();
+    ColumnConstraints raceColumn = new ColumnConstraints(RACE_COLUMN_WIDTH);
+    heatGrid.getColumnConstraints().add(raceColumn);
+
+    for (int gridNumber = 1; gridNumber <= numberOfGrids; gridNumber++) {
+      ColumnConstraints gridColumn = new ColumnConstraints();
+      gridColumn.setPercentWidth(100 * (1 - RACE_COLUMN_WIDTH / pageWidth) / numberOfGrids);
+      heatGrid.getColumnConstraints().add(gridColumn);
+      heatGrid.add(createHeaderCell(String.valueOf(gridNumber)), gridNumber, 0);
+    }
+
+    heatGrid.add(createHeaderCell(resources.getString("draw.gridHeader")), 0, 0);
+
+    for (int raceIndex = 0; raceIndex < races.size(); raceIndex++) {
+      String raceHeader = resources.getString("draw.raceHeader");
+      int raceNumber = heatSection.getFirstRaceNumber() + raceIndex;
+      heatGrid.add(createHeaderCell(MessageFormat.format(raceHeader, raceNumber)), 0,
+        raceIndex + 1);
+
+      List<String> race = races.get(raceIndex);
+
+      for (int gridIndex = 0; gridIndex < race.size(); gridIndex++) {
+        heatGrid.add(createCell(race.get(gridIndex)), gridIndex + 1, raceIndex + 1);
+      }
+    }
+
+    return heatGrid;
+  }
+
+  /**
+   * Create a cell of a heat grid.
+   *
+   * @param text The text of the cell.
+   * @return The cell.
+   */
+  private Label createCell(String text) {
+    Label cell = createRow(text, 1);
+    cell.setMaxWidth(Double.MAX_VALUE);
+    cell.getStyleClass().add("grid-cell");
+    return cell;
+  }
+
+  /**
+   * Create a header cell of a heat grid.
+   *
+   * @param text The text of the cell.
+   * @return The cell.
+   */
+  private Label createHeaderCell(String text) {
+    Label cell = createCell(text);
+    cell.getStyleClass().add("grid-header");
+    return cell;
+  }
+
+  /**
+   * Create a label with a fixed height of a number of rows.
+   *
+   * @param text         The text of the label.
+   * @param numberOfRows The number of rows the label occupies.
+   * @return The label.
+   */
+  private Label createRow(String text, int numberOfRows) {
+    Label row = new Label(text);
+    row.setMinHeight(Region.USE_PREF_SIZE);
+    row.setPrefHeight(numberOfRows * ROW_HEIGHT);
+    row.setMaxHeight(Region.USE_PREF_SIZE);
+    return row;
+  }
+}
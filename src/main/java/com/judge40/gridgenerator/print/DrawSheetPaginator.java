@@ -0,0 +1,89 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.print;
+
+import com.judge40.gridgenerator.MeetingDraw;
+import com.judge40.gridgenerator.print.DrawSheetPage.HeatSection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * A helper for splitting a meeting's draw in to fixed height pages. Each page begins with the
+ * meeting and class headings and each heat section begins with a heat heading row and a grid
+ * header row, heats which do not fit on a page are continued on the next page.
+ */
+public class DrawSheetPaginator {
+
+  private static final int HEAT_HEADING_ROWS = 2;
+
+  /**
+   * Split a meeting's draw in to pages, each class starts on a new page.
+   *
+   * @param meetingDraw    The meeting's draw.
+   * @param rowsPerPage    The number of rows which fit on a page.
+   * @param pageHeaderRows The number of rows taken by the meeting and class headings on each page.
+   * @return The pages of the meeting's draw sheets.
+   * @throws IllegalArgumentException If a page is not large enough for the headings and one race.
+   */
+  public static List<DrawSheetPage> paginate(MeetingDraw meetingDraw, int rowsPerPage,
+    int pageHeaderRows) {
+    int rowsPerPageBody = rowsPerPage - pageHeaderRows;
+
+    if (rowsPerPageBody < HEAT_HEADING_ROWS + 1) {
+      throw new IllegalArgumentException(
+        "The page must fit at least " + (pageHeaderRows + HEAT_HEADING_ROWS + 1) + " rows.");
+    }
+
+    List<DrawSheetPage> pages = new ArrayList<>();
+
+    for (Entry<String, List<List<List<String>>>> classHeats : meetingDraw.getClassHeats()
+      .entrySet()) {
+      DrawSheetPage page = new DrawSheetPage(classHeats.getKey());
+      int remainingRows = rowsPerPageBody;
+      int heatNumber = 0;
+
+      for (List<List<String>> races : classHeats.getValue()) {
+        heatNumber++;
+
+        for (int raceIndex = 0; raceIndex < races.size(); ) {
+          // If the heading and at least one race will not fit then start a new page.
+          if (remainingRows < HEAT_HEADING_ROWS + 1) {
+            pages.add(page);
+            page = new DrawSheetPage(classHeats.getKey());
+            remainingRows = rowsPerPageBody;
+          }
+
+          int numberOfRaces = Math
+            .min(races.size() - raceIndex, remainingRows - HEAT_HEADING_ROWS);
+          page.addHeatSection(new HeatSection(heatNumber, raceIndex + 1,
+            races.subList(raceIndex, raceIndex + numberOfRaces)));
+
+          remainingRows -= HEAT_HEADING_ROWS + numberOfRaces;
+          raceIndex += numberOfRaces;
+        }
+      }
+
+      pages.add(page);
+    }
+
+    return pages;
+  }
+}
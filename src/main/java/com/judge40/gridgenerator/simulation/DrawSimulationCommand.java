@@ -0,0 +1,182 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.simulation;
+
+import com.judge40.gridgenerator.DrawConfiguration;
+import com.judge40.gridgenerator.PreferenceHelper;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.prefs.BackingStoreException;
+
+/**
+ * A headless command which simulates the draw of every class of the stored meeting, or a single
+ * class, and prints the fairness of the draws.
+ *
+ * <p>Usage: {@code --simulate <draws> [--class <name>] [--exclude-grids <grid>,<grid>...]
+ * [--seed <seed>]}
+ */
+public class DrawSimulationCommand {
+
+  static final String SIMULATE_OPTION = "--simulate";
+  static final String CLASS_OPTION = "--class";
+  static final String EXCLUDE_GRIDS_OPTION = "--exclude-grids";
+  static final String SEED_OPTION = "--seed";
+
+  static final int EXIT_SUCCESS = 0;
+  static final int EXIT_FAILURE = 1;
+  static final int EXIT_USAGE = 2;
+
+  private static final Logger LOGGER = Logger.getLogger(DrawSimulationCommand.class.getName());
+
+  /**
+   * Check whether the arguments request a simulation.
+   *
+   * @param args The command line arguments.
+   * @return Whether the simulate option is present.
+   */
+  public static boolean isSimulationCommand(String[] args) {
+    return Arrays.asList(args).contains(SIMULATE_OPTION);
+  }
+
+  /**
+   * Run the simulation using the given command line arguments.
+   *
+   * @param args The command line arguments.
+   * @return The exit status, zero if the simulation was successful.
+   */
+  public static int run(String[] args) {
+    long numberOfDraws = 0;
+    String className = null;
+    Set<Integer> excludedGrids = new TreeSet<>();
+    long seed = 0;
+
+    try {
+      for (int i = 0; i < args.length; i++) {
+        if (SIMULATE_OPTION.equals(args[i]) && i + 1 < args.length) {
+          numberOfDraws = Long.parseLong(args[++i]);
+        } else if (CLASS_OPTION.equals(args[i]) && i + 1 < args.length) {
+          className = args[++i];
+        } else if (EXCLUDE_GRIDS_OPTION.equals(args[i]) && i + 1 < args.length) {
+          for (String gridNumber : args[++i].split(",")) {
+            excludedGrids.add(Integer.valueOf(gridNumber.trim()));
+          }
+        } else if (SEED_OPTION.equals(args[i]) && i + 1 < args.length) {
+          seed = Long.parseLong(args[++i]);
+        } else {
+          return printUsage();
+        }
+      }
+    } catch (NumberFormatException e) {
+      return printUsage();
+    }
+
+    if (numberOfDraws <= 0) {
+      return printUsage();
+    }
+
+    try {
+      PreferenceHelper.initializePreferences();
+      List<String> classNames = className == null ? PreferenceHelper.getParticipantClassNames()
+        : Collections.singletonList(className);
+
+      for (String participantClassName : classNames) {
+        List<String> participants = PreferenceHelper.getClassParticipants(participantClassName);
+
+        if (!participants.isEmpty()) {
+          DrawConfiguration configuration =
+            DrawConfiguration.fromPreferences(participantClassName);
+          long start = System.nanoTime();
+          SimulationReport report = new DrawSimulator(participants, excludedGrids, configuration)
+            .simulate(numberOfDraws, seed);
+          long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+          printReport(System.out, participantClassName, report, elapsedMillis);
+        }
+      }
+    } catch (BackingStoreException | IOException | ClassNotFoundException e) {
+      LOGGER.log(Level.SEVERE, "The meeting's draw could not be simulated.", e);
+      return EXIT_FAILURE;
+    }
+
+    return EXIT_SUCCESS;
+  }
+
+  /**
+   * Print a class's simulation report.
+   *
+   * @param out           The stream to print to.
+   * @param className     The name of the simulated class.
+   * @param report        The simulation report.
+   * @param elapsedMillis The time taken by the simulation.
+   */
+  static void printReport(PrintStream out, String className, SimulationReport report,
+    long elapsedMillis) {
+    out.printf(Locale.ROOT, "%s: %d draws in %d ms%n", className, report.getNumberOfDraws(),
+      elapsedMillis);
+
+    StringBuilder gridShares = new StringBuilder();
+    double[] shares = report.getGridShares();
+
+    for (int grid = 0; grid < shares.length; grid++) {
+      gridShares.append(String.format(Locale.ROOT, " %d: %.2f%%", grid + 1, shares[grid] * 100));
+    }
+
+    out.println("  Grid shares:" + gridShares);
+    out.printf(Locale.ROOT, "  Maximum participant grid share deviation: %.2f%%%n",
+      report.getMaxGridShareDeviation() * 100);
+    out.printf(Locale.ROOT, "  Races: %d grouped, %d ungrouped, %d mixed%n",
+      report.getGroupedRaces(), report.getUngroupedRaces(), report.getMixedRaces());
+
+    StringBuilder ungroupedPerMixedRace = new StringBuilder();
+    long[] mixedRaces = report.getUngroupedPerMixedRace();
+
+    for (int ungrouped = 1; ungrouped < mixedRaces.length; ungrouped++) {
+      if (mixedRaces[ungrouped] > 0) {
+        ungroupedPerMixedRace.append(String.format(Locale.ROOT, " %d: %d", ungrouped,
+          mixedRaces[ungrouped]));
+      }
+    }
+
+    out.println("  Ungrouped participants per mixed race:" + ungroupedPerMixedRace);
+
+    long drawsWithoutRepeats = report.getRepeatPairings()[0];
+    out.printf(Locale.ROOT, "  Repeated pairings: mean %.2f per draw, none in %.2f%% of draws%n",
+      report.getMeanRepeatPairings(),
+      report.getNumberOfDraws() == 0 ? 0 : drawsWithoutRepeats * 100.0 / report.getNumberOfDraws());
+  }
+
+  /**
+   * Print the command's usage.
+   *
+   * @return The usage exit status.
+   */
+  private static int printUsage() {
+    System.err.println("Usage: " + SIMULATE_OPTION + " <draws> [" + CLASS_OPTION + " <name>] ["
+      + EXCLUDE_GRIDS_OPTION + " <grid>,<grid>...] [" + SEED_OPTION + " <seed>]");
+    return EXIT_USAGE;
+  }
+}
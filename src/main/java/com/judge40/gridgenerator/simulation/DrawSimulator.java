@@ -0,0 +1,274 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.simulation;
+
+import com.judge40.gridgenerator.ClassDraw;
+import com.judge40.gridgenerator.DrawConfiguration;
+import com.judge40.gridgenerator.GridDrawHelper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * A Monte Carlo simulation of a class's draw, used to show that the draw is fair. Each simulated
+ * draw is run through {@link GridDrawHelper#drawGrids(List, Set, DrawConfiguration, long)} with a
+ * random salt in place of the date, and the grid positions, race grouping and repeated pairings of
+ * the draw are counted.
+ *
+ * <p>The draws are split in to a fixed number of batches, each with its own random stream split
+ * from the seed, so the simulation is deterministic for the same seed regardless of the number of
+ * cores. Optimized draws are only deterministic while the optimizer completes its fixed attempt
+ * budget, if the optimization time limit is reached by any simulated draw then a warning is logged
+ * as the results may differ between runs. The batches are run in parallel and each thread counts
+ * in to its own primitive arrays, which are allocated once per thread rather than per draw, and
+ * are summed at the end.
+ */
+public class DrawSimulator {
+
+  private static final Logger LOGGER = Logger.getLogger(DrawSimulator.class.getName());
+
+  static final int MAX_REPEAT_PAIRINGS = 63;
+
+  private static final int NUMBER_OF_BATCHES = 256;
+  private static final int GROUPED = 0;
+  private static final int UNGROUPED = 1;
+  private static final int MIXED = 2;
+
+  private final List<String> participants;
+  private final Set<Integer> excludedGrids;
+  private final DrawConfiguration configuration;
+  private final Map<String, Integer> participantIds = new HashMap<>();
+  private final boolean[] grouped;
+
+  /**
+   * Create a simulator for a class's draw.
+   *
+   * @param participants  The class's participants.
+   * @param excludedGrids The grid numbers which have been excluded.
+   * @param configuration The settings to draw with.
+   */
+  public DrawSimulator(List<String> participants, Set<Integer> excludedGrids,
+    DrawConfiguration configuration) {
+    this.participants = Collections.unmodifiableList(new ArrayList<>(participants));
+    this.excludedGrids = excludedGrids;
+    this.configuration = configuration;
+
+    for (String participant : participants) {
+      participantIds.putIfAbsent(participant, participantIds.size());
+    }
+
+    grouped = new boolean[participantIds.size()];
+    participantIds.forEach((participant, id) -> grouped[id] = configuration.isGrouped(participant));
+  }
+
+  /**
+   * Run the simulation.
+   *
+   * @param numberOfDraws The number of draws to simulate.
+   * @param seed          The seed of the random streams which generate each draw's salt.
+   * @return The simulation's results.
+   */
+  public SimulationReport simulate(long numberOfDraws, long seed) {
+    SplittableRandom seedRandom = new SplittableRandom(seed);
+    SplittableRandom[] batchRandoms = new SplittableRandom[NUMBER_OF_BATCHES];
+
+    for (int batch = 0; batch < NUMBER_OF_BATCHES; batch++) {
+      batchRandoms[batch] = seedRandom.split();
+    }
+
+    List<Counters> allCounters = Collections.synchronizedList(new ArrayList<>());
+    ThreadLocal<Counters> threadCounters = ThreadLocal.withInitial(() -> {
+      Counters counters = new Counters();
+      allCounters.add(counters);
+      return counters;
+    });
+
+    IntStream.range(0, NUMBER_OF_BATCHES).parallel().forEach(batch -> {
+      long batchDraws = numberOfDraws / NUMBER_OF_BATCHES
+        + (batch < numberOfDraws % NUMBER_OF_BATCHES ? 1 : 0);
+      Counters counters = threadCounters.get();
+
+      for (long draw = 0; draw < batchDraws; draw++) {
+        counters.count(GridDrawHelper.drawClass(participants, excludedGrids, configuration,
+          batchRandoms[batch].nextLong()));
+      }
+    });
+
+    Counters total = new Counters();
+
+    for (Counters counters : allCounters) {
+      total.add(counters);
+    }
+
+    if (total.optimizationTimeLimitsReached > 0) {
+      LOGGER.warning("The draw optimization time limit was reached by "
+        + total.optimizationTimeLimitsReached + " simulated draws, the results may not be"
+        + " reproducible with the same seed.");
+    }
+
+    String[] names = new String[participantIds.size()];
+    participantIds.forEach((participant, id) -> names[id] = participant);
+    return new SimulationReport(Arrays.asList(names), configuration.getNumberOfGrids(),
+      total.draws, total.gridStarts, total.raceGroupings[GROUPED],
+      total.raceGroupings[UNGROUPED], total.raceGroupings[MIXED], total.ungroupedPerMixedRace,
+      total.repeatPairings, total.totalRepeatPairings);
+  }
+
+  /**
+   * The counts of a thread's simulated draws.
+   */
+  private class Counters {
+
+    private final int numberOfGrids = configuration.getNumberOfGrids();
+    private final int[][] previousRaces = new int[configuration.getNumberOfHeats()][grouped.length];
+
+    private long draws;
+    private long optimizationTimeLimitsReached;
+    private long totalRepeatPairings;
+    private final long[] gridStarts = new long[grouped.length * numberOfGrids];
+    private final long[] raceGroupings = new long[3];
+    private final long[] ungroupedPerMixedRace = new long[numberOfGrids + 1];
+    private final long[] repeatPairings = new long[MAX_REPEAT_PAIRINGS + 1];
+
+    /**
+     * Count the grid starts, race grouping and repeated pairings of a draw, and whether it reached
+     * the optimization time limit.
+     *
+     * @param draw The class's draw.
+     */
+    private void count(ClassDraw draw) {
+      List<List<List<String>>> heats = draw.getHeats();
+      draws++;
+
+      if (draw.isOptimizationTimeLimitReached()) {
+        optimizationTimeLimitsReached++;
+      }
+
+      int drawRepeatPairings = 0;
+
+      for (int heat = 0; heat < heats.size(); heat++) {
+        Arrays.fill(previousRaces[heat], -1);
+        List<List<String>> races = heats.get(heat);
+
+        for (int race = 0; race < races.size(); race++) {
+          List<String> grids = races.get(race);
+          int groupedCount = 0;
+          int ungroupedCount = 0;
+
+          for (int grid = 0; grid < grids.size() && grid < numberOfGrids; grid++) {
+            Integer id = participantIds.get(grids.get(grid));
+
+            if (id == null) {
+              continue;
+            }
+
+            gridStarts[id * numberOfGrids + grid]++;
+            drawRepeatPairings += countRepeatPairings(id, grids, grid, heat);
+            previousRaces[heat][id] = race;
+
+            if (grouped[id]) {
+              groupedCount++;
+            } else {
+              ungroupedCount++;
+            }
+          }
+
+          if (groupedCount > 0 && ungroupedCount > 0) {
+            raceGroupings[MIXED]++;
+            ungroupedPerMixedRace[Math.min(ungroupedCount, numberOfGrids)]++;
+          } else if (groupedCount > 0) {
+            raceGroupings[GROUPED]++;
+          } else if (ungroupedCount > 0) {
+            raceGroupings[UNGROUPED]++;
+          }
+        }
+      }
+
+      repeatPairings[Math.min(drawRepeatPairings, MAX_REPEAT_PAIRINGS)]++;
+      totalRepeatPairings += drawRepeatPairings;
+    }
+
+    /**
+     * Count the number of previous heats in which a participant raced each of the participants
+     * on the lower grids of their race.
+     *
+     * @param id    The participant's ID.
+     * @param grids The participant's race.
+     * @param grid  The participant's grid index.
+     * @param heat  The index of the heat being counted.
+     * @return The number of repeated pairings.
+     */
+    private int countRepeatPairings(int id, List<String> grids, int grid, int heat) {
+      int count = 0;
+
+      for (int other = 0; other < grid; other++) {
+        Integer otherId = participantIds.get(grids.get(other));
+
+        if (otherId == null) {
+          continue;
+        }
+
+        for (int previousHeat = 0; previousHeat < heat; previousHeat++) {
+          int previousRace = previousRaces[previousHeat][id];
+
+          if (previousRace != -1 && previousRace == previousRaces[previousHeat][otherId]) {
+            count++;
+          }
+        }
+      }
+
+      return count;
+    }
+
+    /**
+     * Add another thread's counts to these counts.
+     *
+     * @param other The other counts.
+     */
+    private void add(Counters other) {
+      draws += other.draws;
+      optimizationTimeLimitsReached += other.optimizationTimeLimitsReached;
+      totalRepeatPairings += other.totalRepeatPairings;
+      addAll(gridStarts, other.gridStarts);
+      addAll(raceGroupings, other.raceGroupings);
+      addAll(ungroupedPerMixedRace, other.ungroupedPerMixedRace);
+      addAll(repeatPairings, other.repeatPairings);
+    }
+
+    /**
+     * Add each of the counts of an array to the counts of another.
+     *
+     * @param counts      The counts to add to.
+     * @param otherCounts The counts to add.
+     */
+    private void addAll(long[] counts, long[] otherCounts) {
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] += otherCounts[i];
+      }
+    }
+  }
+}
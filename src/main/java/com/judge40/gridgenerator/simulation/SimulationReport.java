@@ -0,0 +1,188 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.simulation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The results of a {@link DrawSimulator} simulation.
+ */
+public class SimulationReport {
+
+  private final List<String> participants;
+  private final int numberOfGrids;
+  private final long numberOfDraws;
+  private final long[] gridStarts;
+  private final long groupedRaces;
+  private final long ungroupedRaces;
+  private final long mixedRaces;
+  private final long[] ungroupedPerMixedRace;
+  private final long[] repeatPairings;
+  private final long totalRepeatPairings;
+
+  /**
+   * Create a simulation report.
+   *
+   * @param participants          The distinct participants, in ID order.
+   * @param numberOfGrids         The total number of grids.
+   * @param numberOfDraws         The number of draws simulated.
+   * @param gridStarts            The number of starts of each participant from each grid, indexed
+   *                              by participant ID and then grid index.
+   * @param groupedRaces          The number of races containing only grouped participants.
+   * @param ungroupedRaces        The number of races containing only ungrouped participants.
+   * @param mixedRaces            The number of races containing both.
+   * @param ungroupedPerMixedRace The number of mixed races by their number of ungrouped
+   *                              participants.
+   * @param repeatPairings        The number of draws by their number of repeated pairings.
+   * @param totalRepeatPairings   The total number of repeated pairings of all draws.
+   */
+  SimulationReport(List<String> participants, int numberOfGrids, long numberOfDraws,
+    long[] gridStarts, long groupedRaces, long ungroupedRaces, long mixedRaces,
+    long[] ungroupedPerMixedRace, long[] repeatPairings, long totalRepeatPairings) {
+    this.participants = Collections.unmodifiableList(participants);
+    this.numberOfGrids = numberOfGrids;
+    this.numberOfDraws = numberOfDraws;
+    this.gridStarts = gridStarts;
+    this.groupedRaces = groupedRaces;
+    this.ungroupedRaces = ungroupedRaces;
+    this.mixedRaces = mixedRaces;
+    this.ungroupedPerMixedRace = ungroupedPerMixedRace;
+    this.repeatPairings = repeatPairings;
+    this.totalRepeatPairings = totalRepeatPairings;
+  }
+
+  public List<String> getParticipants() {
+    return participants;
+  }
+
+  public long getNumberOfDraws() {
+    return numberOfDraws;
+  }
+
+  /**
+   * Get the number of starts a participant made from each grid.
+   *
+   * @param participant The participant.
+   * @return The number of starts indexed by grid index.
+   */
+  public long[] getGridStarts(String participant) {
+    int id = participants.indexOf(participant);
+    return Arrays.copyOfRange(gridStarts, id * numberOfGrids, (id + 1) * numberOfGrids);
+  }
+
+  /**
+   * Get the share of all starts which were made from each grid.
+   *
+   * @return The share of starts indexed by grid index.
+   */
+  public double[] getGridShares() {
+    long[] starts = new long[numberOfGrids];
+
+    for (int i = 0; i < gridStarts.length; i++) {
+      starts[i % numberOfGrids] += gridStarts[i];
+    }
+
+    return toShares(starts);
+  }
+
+  /**
+   * Get the largest difference between any participant's share of starts from a grid and the
+   * share of all starts from that grid. A fair draw tends towards zero as the number of draws
+   * increases.
+   *
+   * @return The largest share deviation.
+   */
+  public double getMaxGridShareDeviation() {
+    double[] gridShares = getGridShares();
+    double maxDeviation = 0;
+
+    for (int id = 0; id < participants.size(); id++) {
+      double[] participantShares = toShares(Arrays.copyOfRange(gridStarts, id * numberOfGrids,
+        (id + 1) * numberOfGrids));
+
+      for (int grid = 0; grid < numberOfGrids; grid++) {
+        maxDeviation = Math.max(maxDeviation,
+          Math.abs(participantShares[grid] - gridShares[grid]));
+      }
+    }
+
+    return maxDeviation;
+  }
+
+  public long getGroupedRaces() {
+    return groupedRaces;
+  }
+
+  public long getUngroupedRaces() {
+    return ungroupedRaces;
+  }
+
+  public long getMixedRaces() {
+    return mixedRaces;
+  }
+
+  /**
+   * Get the number of races containing both grouped and ungrouped participants by their number of
+   * ungrouped participants.
+   *
+   * @return The number of mixed races indexed by number of ungrouped participants.
+   */
+  public long[] getUngroupedPerMixedRace() {
+    return ungroupedPerMixedRace.clone();
+  }
+
+  /**
+   * Get the number of draws by their number of repeated pairings, two participants racing each
+   * other in more than one heat. The last element counts every draw with at least that many.
+   *
+   * @return The number of draws indexed by number of repeated pairings.
+   */
+  public long[] getRepeatPairings() {
+    return repeatPairings.clone();
+  }
+
+  /**
+   * Get the mean number of repeated pairings per draw.
+   *
+   * @return The mean repeated pairings.
+   */
+  public double getMeanRepeatPairings() {
+    return numberOfDraws == 0 ? 0 : (double) totalRepeatPairings / numberOfDraws;
+  }
+
+  /**
+   * Convert counts in to shares of their total.
+   *
+   * @param counts The counts to convert.
+   * @return The share of each count.
+   */
+  private static double[] toShares(long[] counts) {
+    long total = Arrays.stream(counts).sum();
+    double[] shares = new double[counts.length];
+
+    for (int i = 0; i < counts.length; i++) {
+      shares[i] = total == 0 ? 0 : (double) counts[i] / total;
+    }
+
+    return shares;
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.prefs.AbstractPreferences;
+import java.util.prefs.BackingStoreException;
+
+/**
+ * A preferences node stored as a properties file within a directory, child nodes are stored in
+ * sub-directories. Values are held in memory and only written to disk when the node is flushed
+ * after being changed.
+ */
+class FilePreferences extends AbstractPreferences {
+
+  private static final String VALUES_FILE = "values.properties";
+
+  private final Path directory;
+  private final Properties values = new Properties();
+  private boolean modified;
+
+  /**
+   * Create a preferences node backed by a directory, any previously flushed values are loaded.
+   *
+   * @param parent    The parent node, or null for the root node.
+   * @param name      The name of the node.
+   * @param directory The directory to store the node in.
+   */
+  FilePreferences(FilePreferences parent, String name, Path directory) {
+    super(parent, name);
+    this.directory = directory;
+
+    Path valuesFile = directory.resolve(VALUES_FILE);
+
+    if (Files.exists(valuesFile)) {
+      try (InputStream inputStream = Files.newInputStream(valuesFile)) {
+        values.load(inputStream);
+      } catch (IOException e) {
+        throw new IllegalStateException("The preference values could not be loaded.", e);
+      }
+    }
+  }
+
+  /**
+   * All nodes are user preference nodes, the default implementation only considers nodes of the
+   * platform's user root to be user nodes so exported nodes would be marked as system nodes.
+   *
+   * @return Always true.
+   */
+  @Override
+  public boolean isUserNode() {
+    return true;
+  }
+
+  @Override
+  protected void putSpi(String key, String value) {
+    values.setProperty(key, value);
+    modified = true;
+  }
+
+  @Override
+  protected String getSpi(String key) {
+    return values.getProperty(key);
+  }
+
+  @Override
+  protected void removeSpi(String key) {
+    modified |= values.remove(key) != null;
+  }
+
+  @Override
+  protected void removeNodeSpi() throws BackingStoreException {
+    try {
+      Files.deleteIfExists(directory.resolve(VALUES_FILE));
+      Files.deleteIfExists(directory);
+    } catch (IOException e) {
+      throw new BackingStoreException(e);
+    }
+  }
+
+  @Override
+  protected String[] keysSpi() {
+    return values.stringPropertyNames().toArray(new String[0]);
+  }
+
+  @Override
+  protected String[] childrenNamesSpi() {
+    String[] directoryNames = directory.toFile().list((dir, name) -> new File(dir, name)
+      .isDirectory());
+
+    if (directoryNames == null) {
+      return new String[0];
+    }
+
+    return Arrays.stream(directoryNames)
+      .map(directoryName -> URLDecoder.decode(directoryName, StandardCharsets.UTF_8))
+      .toArray(String[]::new);
+  }
+
+  @Override
+  protected AbstractPreferences childSpi(String name) {
+    // Node names may contain characters which are not valid in file names, e.g. class names.
+    String directoryName = URLEncoder.encode(name, StandardCharsets.UTF_8);
+    return new FilePreferences(this, name, directory.resolve(directoryName));
+  }
+
+  @Override
+  protected void syncSpi() throws BackingStoreException {
+    flushSpi();
+  }
+
+  @Override
+  protected void flushSpi() throws BackingStoreException {
+    if (isRemoved() || !modified) {
+      return;
+    }
+
+    try {
+      Files.createDirectories(directory);
+
+      try (OutputStream outputStream = Files.newOutputStream(directory.resolve(VALUES_FILE))) {
+        values.store(outputStream, null);
+      }
+
+      modified = false;
+    } catch (IOException e) {
+      throw new BackingStoreException(e);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.storage;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+/**
+ * A storage provider which holds the preferences as properties files within a directory, the
+ * directory is set using the {@value #DIRECTORY_PROPERTY} system property and defaults to {@code
+ * .grid-generator} within the user's home directory. Changes are flushed periodically and when the
+ * JVM shuts down.
+ */
+public class FileStorageProvider implements PreferenceStorageProvider {
+
+  public static final String DIRECTORY_PROPERTY = "gridgenerator.storage.directory";
+
+  static final String NAME = "file";
+
+  private static final Logger LOGGER = Logger.getLogger(FileStorageProvider.class.getName());
+
+  private static final long FLUSH_INTERVAL_SECONDS = 30;
+
+  private Preferences userRoot;
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public synchronized Preferences getUserRoot() {
+    if (userRoot == null) {
+      Path directory = Paths.get(System.getProperty(DIRECTORY_PROPERTY,
+        Paths.get(System.getProperty("user.home"), ".grid-generator").toString()));
+      userRoot = new FilePreferences(null, "", directory);
+
+      ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+          Thread thread = new Thread(runnable, "file-storage-flush");
+          thread.setDaemon(true);
+          return thread;
+        });
+      flushExecutor.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_SECONDS,
+        FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+      Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "file-storage-shutdown"));
+    }
+
+    return userRoot;
+  }
+
+  /**
+   * Flush any changed preferences to disk.
+   */
+  private void flush() {
+    try {
+      userRoot.flush();
+    } catch (BackingStoreException e) {
+      LOGGER.log(Level.WARNING, "The preferences could not be flushed.", e);
+    }
+  }
+}
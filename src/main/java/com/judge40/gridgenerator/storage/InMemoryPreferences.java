@@ -0,0 +1,100 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.storage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.prefs.AbstractPreferences;
+
+/**
+ * A preferences node held in memory. Values are stored in a concurrent map so reads of a value do
+ * not contend with writes of other values, child nodes are held by {@link AbstractPreferences}'s
+ * own cache and so are never looked up from this node.
+ */
+class InMemoryPreferences extends AbstractPreferences {
+
+  private final Map<String, String> values = new ConcurrentHashMap<>();
+
+  /**
+   * Create an in-memory preferences node.
+   *
+   * @param parent The parent node, or null for the root node.
+   * @param name   The name of the node.
+   */
+  InMemoryPreferences(InMemoryPreferences parent, String name) {
+    super(parent, name);
+  }
+
+  /**
+   * All nodes are user preference nodes, the default implementation only considers nodes of the
+   * platform's user root to be user nodes so exported nodes would be marked as system nodes.
+   *
+   * @return Always true.
+   */
+  @Override
+  public boolean isUserNode() {
+    return true;
+  }
+
+  @Override
+  protected void putSpi(String key, String value) {
+    values.put(key, value);
+  }
+
+  @Override
+  protected String getSpi(String key) {
+    return values.get(key);
+  }
+
+  @Override
+  protected void removeSpi(String key) {
+    values.remove(key);
+  }
+
+  @Override
+  protected void removeNodeSpi() {
+    values.clear();
+  }
+
+  @Override
+  protected String[] keysSpi() {
+    return values.keySet().toArray(new String[0]);
+  }
+
+  @Override
+  protected String[] childrenNamesSpi() {
+    return new String[0];
+  }
+
+  @Override
+  protected AbstractPreferences childSpi(String name) {
+    return new InMemoryPreferences(this, name);
+  }
+
+  @Override
+  protected void syncSpi() {
+    // There is no backing store to synchronize with.
+  }
+
+  @Override
+  protected void flushSpi() {
+    // There is no backing store to flush to.
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.storage;
+
+import java.util.prefs.Preferences;
+
+/**
+ * A storage provider which holds the preferences in memory only, nothing is read from or written
+ * to a backing store. Used by the tests and benchmarks so they are isolated from the user's
+ * meeting and do not pay the cost of the platform's backing store.
+ */
+public class InMemoryStorageProvider implements PreferenceStorageProvider {
+
+  static final String NAME = "memory";
+
+  private static final Preferences USER_ROOT = new InMemoryPreferences(null, "");
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public Preferences getUserRoot() {
+    return USER_ROOT;
+  }
+}
@@ -0,0 +1,335 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.ServiceLoader;
+import java.util.prefs.InvalidPreferencesFormatException;
+import java.util.prefs.Preferences;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Access to the preferences of the selected {@link PreferenceStorageProvider}, the provider is
+ * selected by name using the {@value #STORAGE_PROPERTY} system property and defaults to the
+ * platform's {@link Preferences} implementation.
+ */
+public class PreferenceStorage {
+
+  public static final String STORAGE_PROPERTY = "gridgenerator.storage";
+
+  private static final PreferenceStorageProvider PROVIDER = loadProvider(
+    System.getProperty(STORAGE_PROPERTY, JavaPreferencesStorageProvider.NAME));
+
+  /**
+   * Get the root node of the selected provider's user preferences.
+   *
+   * @return The user preferences root node.
+   */
+  public static Preferences getUserRoot() {
+    return PROVIDER.getUserRoot();
+  }
+
+  /**
+   * Import all of the preferences represented by an XML document, as written by {@link
+   * Preferences#exportSubtree(java.io.OutputStream)}, in to the selected provider. This replaces
+   * {@link Preferences#importPreferences(InputStream)} which always imports in to the platform's
+   * preferences. Only user preferences can be imported.
+   *
+   * @param inputStream The stream to read the XML document from.
+   * @throws IOException                       If the document could not be read.
+   * @throws InvalidPreferencesFormatException If the document was not a valid preferences document.
+   */
+  public static void importPreferences(InputStream inputStream)
+    throws IOException, InvalidPreferencesFormatException {
+    readDocument(inputStream, PreferenceStorage::importPreferences);
+  }
+
+  /**
+   * Check that an XML document, as written by {@link
+   * Preferences#exportSubtree(java.io.OutputStream)}, contains the node with the given path and
+   * only contains values from that node's subtree. Nothing is imported, so a document can be
+   * checked before any existing preferences are replaced.
+   *
+   * @param inputStream The stream to read the XML document from.
+   * @param nodePath    The absolute path of the node the document must have been exported from.
+   * @throws IOException                       If the document could not be read.
+   * @throws InvalidPreferencesFormatException If the document was not a valid preferences document
+   *                                           or was not exported from the given node.
+   */
+  public static void checkSubtree(InputStream inputStream, String nodePath)
+    throws IOException, InvalidPreferencesFormatException {
+    readDocument(inputStream, reader -> checkSubtree(reader, nodePath));
+  }
+
+  /**
+   * Read an XML document using a secure stream reader, parsing errors are reported as an invalid
+   * format.
+   *
+   * @param inputStream    The stream to read the XML document from.
+   * @param documentReader The reader for the document's elements.
+   * @throws IOException                       If the document could not be read.
+   * @throws InvalidPreferencesFormatException If the document was not a valid preferences document.
+   */
+  private static void readDocument(InputStream inputStream, DocumentReader documentReader)
+    throws IOException, InvalidPreferencesFormatException {
+    XMLInputFactory inputFactory = XMLInputFactory.newFactory();
+    inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+    try {
+      XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+
+      try {
+        documentReader.read(reader);
+      } finally {
+        reader.close();
+      }
+    } catch (XMLStreamException e) {
+      if (e.getNestedException() instanceof IOException) {
+        throw (IOException) e.getNestedException();
+      }
+
+      throw new InvalidPreferencesFormatException(e);
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      throw new InvalidPreferencesFormatException(e);
+    }
+  }
+
+  /**
+   * Import the preferences from the elements of a preferences document.
+   *
+   * @param reader The reader positioned at the start of the document.
+   * @throws InvalidPreferencesFormatException If the document was not a valid preferences document.
+   * @throws XMLStreamException                If the document could not be parsed.
+   */
+  private static void importPreferences(XMLStreamReader reader)
+    throws InvalidPreferencesFormatException, XMLStreamException {
+    readPreferencesElement(reader);
+    Deque<Preferences> nodes = new ArrayDeque<>();
+
+    while (reader.hasNext()) {
+      int eventType = reader.next();
+
+      if (eventType == XMLStreamConstants.START_ELEMENT) {
+        switch (reader.getLocalName()) {
+          case "root":
+            if (!"user".equals(reader.getAttributeValue(null, "type"))) {
+              throw new InvalidPreferencesFormatException("Only user preferences are supported.");
+            }
+
+            nodes.push(getUserRoot());
+            break;
+          case "node":
+            nodes.push(getCurrentNode(nodes).node(getRequiredAttribute(reader, "name")));
+            break;
+          case "map":
+            getCurrentNode(nodes);
+            break;
+          case "entry":
+            getCurrentNode(nodes).put(getRequiredAttribute(reader, "key"),
+              getRequiredAttribute(reader, "value"));
+            break;
+          default:
+            throw new InvalidPreferencesFormatException(
+              "Unexpected element: " + reader.getLocalName());
+        }
+      } else if (eventType == XMLStreamConstants.END_ELEMENT
+        && ("root".equals(reader.getLocalName()) || "node".equals(reader.getLocalName()))) {
+        nodes.pop();
+      }
+    }
+  }
+
+  /**
+   * Check that the elements of a preferences document contain the node with the given path and
+   * only contain values from that node's subtree.
+   *
+   * @param reader   The reader positioned at the start of the document.
+   * @param nodePath The absolute path of the node the document must have been exported from.
+   * @throws InvalidPreferencesFormatException If the document was not a valid preferences document
+   *                                           or was not exported from the given node.
+   * @throws XMLStreamException                If the document could not be parsed.
+   */
+  private static void checkSubtree(XMLStreamReader reader, String nodePath)
+    throws InvalidPreferencesFormatException, XMLStreamException {
+    readPreferencesElement(reader);
+    Deque<String> paths = new ArrayDeque<>();
+    boolean nodeFound = false;
+
+    while (reader.hasNext()) {
+      int eventType = reader.next();
+
+      if (eventType == XMLStreamConstants.START_ELEMENT) {
+        switch (reader.getLocalName()) {
+          case "root":
+            if (!"user".equals(reader.getAttributeValue(null, "type"))) {
+              throw new InvalidPreferencesFormatException("Only user preferences are supported.");
+            }
+
+            paths.push("");
+            break;
+          case "node":
+            if (paths.isEmpty()) {
+              throw new InvalidPreferencesFormatException(
+                "The preferences root element is missing.");
+            }
+
+            String path = paths.peek() + "/" + getRequiredAttribute(reader, "name");
+
+            // Only the ancestors of the node are exported outside of its subtree.
+            if (!isInSubtree(path, nodePath) && !nodePath.startsWith(path + "/")) {
+              throw new InvalidPreferencesFormatException(
+                "The node " + path + " is not part of " + nodePath);
+            }
+
+            nodeFound |= path.equals(nodePath);
+            paths.push(path);
+            break;
+          case "map":
+            break;
+          case "entry":
+            if (paths.isEmpty() || !isInSubtree(paths.peek(), nodePath)) {
+              throw new InvalidPreferencesFormatException(
+                "The document contains values which are not part of " + nodePath);
+            }
+
+            break;
+          default:
+            throw new InvalidPreferencesFormatException(
+              "Unexpected element: " + reader.getLocalName());
+        }
+      } else if (eventType == XMLStreamConstants.END_ELEMENT
+        && ("root".equals(reader.getLocalName()) || "node".equals(reader.getLocalName()))) {
+        paths.pop();
+      }
+    }
+
+    if (!nodeFound) {
+      throw new InvalidPreferencesFormatException("The document does not contain " + nodePath);
+    }
+  }
+
+  /**
+   * Read up to the document's preferences element, skipping the document type declaration written
+   * by the export which is never processed.
+   *
+   * @param reader The reader positioned at the start of the document.
+   * @throws InvalidPreferencesFormatException If the document is not a preferences document.
+   * @throws XMLStreamException                If the document could not be parsed.
+   */
+  private static void readPreferencesElement(XMLStreamReader reader)
+    throws InvalidPreferencesFormatException, XMLStreamException {
+    while (reader.hasNext() && reader.next() != XMLStreamConstants.START_ELEMENT) {
+      continue;
+    }
+
+    if (!reader.isStartElement() || !"preferences".equals(reader.getLocalName())) {
+      throw new InvalidPreferencesFormatException("The document is not a preferences document.");
+    }
+  }
+
+  /**
+   * Check whether a node path is the same as, or a descendant of, another node path.
+   *
+   * @param path     The node path to check.
+   * @param rootPath The path of the subtree's root node.
+   * @return Whether the node is in the subtree.
+   */
+  private static boolean isInSubtree(String path, String rootPath) {
+    return path.equals(rootPath) || path.startsWith(rootPath + "/");
+  }
+
+  /**
+   * Get the node which elements are currently being imported in to.
+   *
+   * @param nodes The stack of nodes being imported.
+   * @return The current node.
+   * @throws InvalidPreferencesFormatException If there is no current node.
+   */
+  private static Preferences getCurrentNode(Deque<Preferences> nodes)
+    throws InvalidPreferencesFormatException {
+    if (nodes.isEmpty()) {
+      throw new InvalidPreferencesFormatException("The preferences root element is missing.");
+    }
+
+    return nodes.peek();
+  }
+
+  /**
+   * Get the value of an attribute which must be present on the current element.
+   *
+   * @param reader        The reader positioned at the element.
+   * @param attributeName The name of the attribute.
+   * @return The attribute value.
+   * @throws InvalidPreferencesFormatException If the attribute is not present.
+   */
+  private static String getRequiredAttribute(XMLStreamReader reader, String attributeName)
+    throws InvalidPreferencesFormatException {
+    String value = reader.getAttributeValue(null, attributeName);
+
+    if (value == null) {
+      throw new InvalidPreferencesFormatException(
+        "Element " + reader.getLocalName() + " is missing attribute " + attributeName);
+    }
+
+    return value;
+  }
+
+  /**
+   * Load the storage provider with the given name.
+   *
+   * @param name The name of the provider.
+   * @return The storage provider.
+   * @throws IllegalStateException If no provider has the given name.
+   */
+  private static PreferenceStorageProvider loadProvider(String name) {
+    for (PreferenceStorageProvider provider : ServiceLoader.load(PreferenceStorageProvider.class,
+      PreferenceStorageProvider.class.getClassLoader())) {
+      if (provider.getName().equals(name)) {
+        return provider;
+      }
+    }
+
+    throw new IllegalStateException("No preference storage provider named " + name);
+  }
+
+  /**
+   * A reader for the elements of an XML document.
+   */
+  @FunctionalInterface
+  private interface DocumentReader {
+
+    /**
+     * Read the elements of the document.
+     *
+     * @param reader The reader positioned at the start of the document.
+     * @throws InvalidPreferencesFormatException If the document was not a valid preferences
+     *                                           document.
+     * @throws XMLStreamException                If the document could not be parsed.
+     */
+    void read(XMLStreamReader reader) throws InvalidPreferencesFormatException, XMLStreamException;
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.storage;
+
+import java.util.prefs.Preferences;
+
+/**
+ * A service provider of the backing store used for the meeting's preferences. Providers are
+ * discovered using {@link java.util.ServiceLoader} and selected by name with the {@value
+ * PreferenceStorage#STORAGE_PROPERTY} system property.
+ */
+public interface PreferenceStorageProvider {
+
+  /**
+   * Get the name used to select the provider.
+   *
+   * @return The provider name.
+   */
+  String getName();
+
+  /**
+   * Get the root node of the user preferences held by the provider. Repeated calls return the
+   * same root node.
+   *
+   * @return The user preferences root node.
+   */
+  Preferences getUserRoot();
+}
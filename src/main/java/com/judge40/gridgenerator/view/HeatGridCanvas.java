@@ -0,0 +1,255 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.view;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * A display of all of a class's heats drawn on to a single {@link Canvas}, only the rows within the
+ * current viewport are drawn so the number of nodes remains fixed regardless of the number of
+ * races.
+ */
+public class HeatGridCanvas extends Region {
+
+  static final double ROW_HEIGHT = 24;
+
+  private static final double PREF_VIEWPORT_HEIGHT = 600;
+  private static final double PREF_VIEWPORT_WIDTH = 480;
+  private static final double RACE_COLUMN_WIDTH = 60;
+  private static final double CELL_PADDING = 4;
+
+  private static final Color BORDER_COLOR = Color.web("#424242");
+  private static final Font HEAT_FONT = Font.font(15);
+  private static final Font HEADER_FONT = Font.font(null, FontWeight.BOLD, 12);
+  private static final Font CELL_FONT = Font.font(12);
+
+  private static final int HEAT_ROW = -2;
+  private static final int HEADER_ROW = -1;
+
+  private final ResourceBundle resources;
+  private final int numberOfGrids;
+
+  private final Canvas canvas = new Canvas();
+  private final ScrollBar scrollBar = new ScrollBar();
+
+  private final List<List<List<String>>> heats = new ArrayList<>();
+  private int[] rowHeats = new int[0];
+  private int[] rowRaces = new int[0];
+
+  /**
+   * Create a canvas display for heats with the given number of grids per race.
+   *
+   * @param resources     The resource bundle to use for heading text.
+   * @param numberOfGrids The number of grids in each race.
+   */
+  public HeatGridCanvas(ResourceBundle resources, int numberOfGrids) {
+    this.resources = resources;
+    this.numberOfGrids = numberOfGrids;
+
+    scrollBar.setOrientation(Orientation.VERTICAL);
+    scrollBar.valueProperty().addListener((observable, oldValue, newValue) -> redraw());
+    setOnScroll(event -> scrollBar.setValue(clamp(scrollBar.getValue() - event.getDeltaY())));
+
+    getChildren().addAll(canvas, scrollBar);
+  }
+
+  /**
+   * Set the heats to display, replacing any previously displayed heats.
+   *
+   * @param heats A list of heats containing lists of races containing lists of participants.
+   */
+  public void setHeats(List<List<List<String>>> heats) {
+    this.heats.clear();
+    this.heats.addAll(heats);
+
+    // Flatten the heats in to rows, each heat has a heading row and a grid header row.
+    int numberOfRows = 0;
+
+    for (List<List<String>> races : heats) {
+      numberOfRows += races.size() + 2;
+    }
+
+    rowHeats = new int[numberOfRows];
+    rowRaces = new int[numberOfRows];
+    int row = 0;
+
+    for (int heatIndex = 0; heatIndex < heats.size(); heatIndex++) {
+      rowHeats[row] = heatIndex;
+      rowRaces[row++] = HEAT_ROW;
+      rowHeats[row] = heatIndex;
+      rowRaces[row++] = HEADER_ROW;
+
+      for (int raceIndex = 0; raceIndex < heats.get(heatIndex).size(); raceIndex++) {
+        rowHeats[row] = heatIndex;
+        rowRaces[row++] = raceIndex;
+      }
+    }
+
+    scrollBar.setValue(0);
+    requestLayout();
+    redraw();
+  }
+
+  /**
+   * Get the total number of rows, including heading rows, which make up the display.
+   *
+   * @return The number of rows.
+   */
+  int getNumberOfRows() {
+    return rowRaces.length;
+  }
+
+  /**
+   * Get the index of the first row which is at least partially within the viewport.
+   *
+   * @return The first visible row index.
+   */
+  int getFirstVisibleRow() {
+    return (int) Math.min(rowRaces.length, Math.floor(scrollBar.getValue() / ROW_HEIGHT));
+  }
+
+  /**
+   * Get the index after the last row which is at least partially within the viewport.
+   *
+   * @return The exclusive last visible row index.
+   */
+  int getLastVisibleRow() {
+    double viewportEnd = scrollBar.getValue() + canvas.getHeight();
+    return (int) Math.min(rowRaces.length, Math.ceil(viewportEnd / ROW_HEIGHT));
+  }
+
+  ScrollBar getScrollBar() {
+    return scrollBar;
+  }
+
+  @Override
+  protected void layoutChildren() {
+    double width = getWidth() - snappedLeftInset() - snappedRightInset();
+    double height = getHeight() - snappedTopInset() - snappedBottomInset();
+    double scrollBarWidth = scrollBar.prefWidth(-1);
+
+    canvas.setWidth(Math.max(0, width - scrollBarWidth));
+    canvas.setHeight(Math.max(0, height));
+    canvas.relocate(snappedLeftInset(), snappedTopInset());
+    scrollBar.resizeRelocate(snappedLeftInset() + canvas.getWidth(), snappedTopInset(),
+      scrollBarWidth, height);
+
+    // Update the scroll range to match the viewport.
+    double contentHeight = rowRaces.length * ROW_HEIGHT;
+    scrollBar.setMax(Math.max(0, contentHeight - height));
+    scrollBar.setVisibleAmount(height);
+    scrollBar.setUnitIncrement(ROW_HEIGHT);
+    scrollBar.setBlockIncrement(height);
+    scrollBar.setValue(clamp(scrollBar.getValue()));
+
+    redraw();
+  }
+
+  @Override
+  protected double computePrefWidth(double height) {
+    return PREF_VIEWPORT_WIDTH;
+  }
+
+  @Override
+  protected double computePrefHeight(double width) {
+    return Math.min(rowRaces.length * ROW_HEIGHT, PREF_VIEWPORT_HEIGHT);
+  }
+
+  /**
+   * Redraw the rows which are within the current viewport.
+   */
+  private void redraw() {
+    GraphicsContext graphics = canvas.getGraphicsContext2D();
+    double width = canvas.getWidth();
+    graphics.clearRect(0, 0, width, canvas.getHeight());
+
+    double offset = scrollBar.getValue();
+    double gridColumnWidth = (width - RACE_COLUMN_WIDTH) / Math.max(1, numberOfGrids);
+    graphics.setTextBaseline(VPos.CENTER);
+    graphics.setStroke(BORDER_COLOR);
+    graphics.setFill(BORDER_COLOR);
+
+    for (int row = getFirstVisibleRow(); row < getLastVisibleRow(); row++) {
+      double y = row * ROW_HEIGHT - offset;
+      double textY = y + ROW_HEIGHT / 2;
+      int raceIndex = rowRaces[row];
+
+      if (raceIndex == HEAT_ROW) {
+        String heatText = resources.getString("draw.heatNumber");
+        graphics.setFont(HEAT_FONT);
+        graphics.setTextAlign(TextAlignment.LEFT);
+        graphics.fillText(MessageFormat.format(heatText, rowHeats[row] + 1), 0, textY);
+        continue;
+      }
+
+      graphics.strokeRect(0, y, width, ROW_HEIGHT);
+      graphics.setTextAlign(TextAlignment.CENTER);
+
+      if (raceIndex == HEADER_ROW) {
+        graphics.setFont(HEADER_FONT);
+        graphics.fillText(resources.getString("draw.gridHeader"), RACE_COLUMN_WIDTH / 2, textY);
+
+        for (int grid = 0; grid < numberOfGrids; grid++) {
+          double x = RACE_COLUMN_WIDTH + grid * gridColumnWidth;
+          graphics.strokeLine(x, y, x, y + ROW_HEIGHT);
+          graphics.fillText(String.valueOf(grid + 1), x + gridColumnWidth / 2, textY);
+        }
+      } else {
+        String raceHeader = resources.getString("draw.raceHeader");
+        graphics.setFont(HEADER_FONT);
+        graphics.fillText(MessageFormat.format(raceHeader, raceIndex + 1), RACE_COLUMN_WIDTH / 2,
+          textY);
+
+        graphics.setFont(CELL_FONT);
+        List<String> race = heats.get(rowHeats[row]).get(raceIndex);
+
+        for (int grid = 0; grid < numberOfGrids && grid < race.size(); grid++) {
+          double x = RACE_COLUMN_WIDTH + grid * gridColumnWidth;
+          graphics.strokeLine(x, y, x, y + ROW_HEIGHT);
+          graphics.fillText(race.get(grid), x + gridColumnWidth / 2, textY,
+            gridColumnWidth - CELL_PADDING);
+        }
+      }
+    }
+  }
+
+  /**
+   * Clamp a scroll value to the scroll bar's range.
+   *
+   * @param value The value to clamp.
+   * @return The clamped value.
+   */
+  private double clamp(double value) {
+    return Math.max(scrollBar.getMin(), Math.min(scrollBar.getMax(), value));
+  }
+}
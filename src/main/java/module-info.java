@@ -1,11 +1,29 @@
 module grid.generator {
   exports com.judge40.gridgenerator;
+  exports com.judge40.gridgenerator.audit;
   exports com.judge40.gridgenerator.controller;
+  exports com.judge40.gridgenerator.diagnostics;
+  exports com.judge40.gridgenerator.export;
+  exports com.judge40.gridgenerator.ingest;
+  exports com.judge40.gridgenerator.print;
+  exports com.judge40.gridgenerator.simulation;
+  exports com.judge40.gridgenerator.storage;
+  exports com.judge40.gridgenerator.view;
 
   opens com.judge40.gridgenerator.controller;
 
   requires java.logging;
+  requires java.management;
   requires java.prefs;
+  requires java.xml;
+  requires jdk.jfr;
   requires javafx.controls;
   requires javafx.fxml;
+
+  uses com.judge40.gridgenerator.storage.PreferenceStorageProvider;
+
+  provides com.judge40.gridgenerator.storage.PreferenceStorageProvider with
+    com.judge40.gridgenerator.storage.FileStorageProvider,
+    com.judge40.gridgenerator.storage.InMemoryStorageProvider,
+    com.judge40.gridgenerator.storage.JavaPreferencesStorageProvider;
 }
@@ -0,0 +1,117 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit tests for {@link DrawManifest}.
+ */
+class DrawManifestTest {
+
+  /**
+   * Test that a manifest is unchanged when written to its line format and parsed, including text
+   * fields containing the separator.
+   */
+  @Test
+  void testParse_toLine_roundTrip() throws IOException {
+    // Set up test scenario.
+    DrawConfiguration configuration = new DrawConfiguration(4, 3, "^A\t", 5, DrawMode.OPTIMIZED,
+      250);
+    DrawManifest manifest = new DrawManifest(DrawManifest.VERSION, "Class\t1 %", 19000,
+      new TreeSet<>(Arrays.asList(4, 2)), configuration, "8x100", "abc", "def");
+
+    // Call the code under test.
+    DrawManifest parsedManifest = DrawManifest.parse(manifest.toLine());
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The line did not match the expected value.",
+      parsedManifest.toLine(), CoreMatchers.is(manifest.toLine()));
+    MatcherAssert.assertThat("The class name did not match the expected value.",
+      parsedManifest.getClassName(), CoreMatchers.is("Class\t1 %"));
+    MatcherAssert.assertThat("The salt did not match the expected value.",
+      parsedManifest.getSalt(), CoreMatchers.is(19000L));
+    MatcherAssert.assertThat("The excluded grids did not match the expected value.",
+      parsedManifest.getExcludedGrids(), CoreMatchers.is(Set.of(2, 4)));
+    MatcherAssert.assertThat("The grouping filter did not match the expected value.",
+      parsedManifest.getConfiguration().getGroupingFilter().pattern(), CoreMatchers.is("^A\t"));
+    MatcherAssert.assertThat("The draw mode did not match the expected value.",
+      parsedManifest.getConfiguration().getDrawMode(), CoreMatchers.is(DrawMode.OPTIMIZED));
+    MatcherAssert.assertThat("The time limit did not match the expected value.",
+      parsedManifest.getConfiguration().getOptimizationTimeLimit(), CoreMatchers.is(250));
+    MatcherAssert.assertThat("The optimization budget did not match the expected value.",
+      parsedManifest.getOptimizationBudget(), CoreMatchers.is("8x100"));
+  }
+
+  /**
+   * Test that a line with missing fields is rejected.
+   */
+  @Test
+  void testParse_missingFields_ioException() {
+    // Call the code under test.
+    Assertions.assertThrows(IOException.class, () -> DrawManifest.parse("1\tClass 1\t19000"));
+  }
+
+  /**
+   * Test that the participants' digest depends on the order of the participants, and that the
+   * participant boundaries are significant.
+   */
+  @Test
+  void testDigestParticipants_orderAndBoundariesSignificant() {
+    // Call the code under test.
+    String digest = DrawManifest.digestParticipants(Arrays.asList("A1", "A2"));
+    String reorderedDigest = DrawManifest.digestParticipants(Arrays.asList("A2", "A1"));
+    String joinedDigest = DrawManifest.digestParticipants(Collections.singletonList("A1A2"));
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The digest did not match the expected value.",
+      digest, CoreMatchers.is(DrawManifest.digestParticipants(List.of("A1", "A2"))));
+    MatcherAssert.assertThat("The digest length did not match the expected value.",
+      digest.length(), CoreMatchers.is(64));
+    MatcherAssert.assertThat("The reordered digest did not match the expected value.",
+      reorderedDigest, CoreMatchers.not(digest));
+    MatcherAssert.assertThat("The joined digest did not match the expected value.",
+      joinedDigest, CoreMatchers.not(digest));
+  }
+
+  /**
+   * Test that the manifest file is placed alongside the export file.
+   */
+  @Test
+  void testGetManifestFile_exportFile_siblingFile() {
+    // Call the code under test.
+    Path manifestFile = DrawManifest.getManifestFile(Paths.get("draws", "meeting.pdf"));
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The manifest file did not match the expected value.",
+      manifestFile, CoreMatchers.is(Paths.get("draws", "meeting.pdf.manifest")));
+  }
+}
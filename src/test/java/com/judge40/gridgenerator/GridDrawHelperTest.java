@@ -19,14 +19,22 @@
 
 package com.judge40.gridgenerator;
 
+import com.judge40.gridgenerator.diagnostics.DrawMetrics;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.prefs.BackingStoreException;
 import java.util.prefs.InvalidPreferencesFormatException;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import mockit.Expectations;
 import mockit.Mocked;
 import org.hamcrest.CoreMatchers;
@@ -39,6 +47,8 @@ import org.junit.jupiter.api.Test;
 
 class GridDrawHelperTest {
 
+  private static final String CLASS_DRAW_EVENT = "com.judge40.gridgenerator.ClassDraw";
+
   private static PreferenceTestHelper preferenceTestHelper;
 
   @Mocked
@@ -71,6 +81,108 @@ class GridDrawHelperTest {
     preferenceTestHelper.clearPreferences();
   }
 
+  /**
+   * Test that every class with participants is drawn, in order, when drawing the meeting.
+   */
+  @Test
+  void testDrawGridsForMeeting_multipleClasses_classesWithParticipantsDrawn()
+    throws BackingStoreException, IOException, ClassNotFoundException {
+    // Set up test scenario.
+    PreferenceHelper.setMeetingName("meetingName");
+    PreferenceHelper.setParticipantClassNames(Arrays.asList("class1", "class2", "class3"));
+    PreferenceHelper.setClassParticipants("class1", Arrays.asList("participant1", "participant2"));
+    PreferenceHelper.setClassParticipants("class3", Collections.singletonList("participant3"));
+    PreferenceHelper.setNumberOfGrids(4);
+
+    PreferenceHelper.setNumberOfHeats(2);
+
+    // Call the code under test.
+    MeetingDraw meetingDraw = GridDrawHelper.drawGridsForMeeting(Collections.emptySet());
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The meeting name did not match the expected value.",
+      meetingDraw.getMeetingName(), CoreMatchers.is("meetingName"));
+    MatcherAssert.assertThat("The drawn classes did not match the expected value.",
+      new ArrayList<>(meetingDraw.getClassHeats().keySet()),
+      CoreMatchers.is(Arrays.asList("class1", "class3")));
+    MatcherAssert.assertThat("The number of heats did not match the expected value.",
+      meetingDraw.getClassHeats().get("class1").size(), CoreMatchers.is(2));
+  }
+
+  /**
+   * Test that each class is drawn with its own settings where it overrides the meeting's settings,
+   * and that excluded grids beyond a class's grids are ignored.
+   */
+  @Test
+  void testDrawGridsForMeeting_classSettings_classesDrawnWithOwnSettings()
+    throws BackingStoreException, IOException, ClassNotFoundException {
+    // Set up test scenario.
+    List<String> participants = Arrays.asList("participant1", "participant2", "participant3",
+      "participant4", "participant5", "participant6");
+    PreferenceHelper.setParticipantClassNames(Arrays.asList("class1", "class2"));
+    PreferenceHelper.setClassParticipants("class1", participants);
+    PreferenceHelper.setClassParticipants("class2", participants);
+    PreferenceHelper.setNumberOfGrids(8);
+    PreferenceHelper.setNumberOfHeats(1);
+    PreferenceHelper.setClassNumberOfGrids("class2", 4);
+    PreferenceHelper.setClassNumberOfHeats("class2", 2);
+
+    // Call the code under test.
+    MeetingDraw meetingDraw = GridDrawHelper.drawGridsForMeeting(Collections.singleton(6));
+
+    // Perform assertions.
+    List<List<List<String>>> class1Heats = meetingDraw.getClassHeats().get("class1");
+    MatcherAssert.assertThat("The number of class 1 heats did not match the expected value.",
+      class1Heats.size(), CoreMatchers.is(1));
+    MatcherAssert.assertThat("The class 1 races did not match the expected value.",
+      class1Heats.get(0).size(), CoreMatchers.is(1));
+    MatcherAssert.assertThat("The class 1 excluded grid did not match the expected value.",
+      class1Heats.get(0).get(0).get(5), CoreMatchers.is(""));
+
+    List<List<List<String>>> class2Heats = meetingDraw.getClassHeats().get("class2");
+    MatcherAssert.assertThat("The number of class 2 heats did not match the expected value.",
+      class2Heats.size(), CoreMatchers.is(2));
+
+    for (List<String> race : class2Heats.get(0)) {
+      MatcherAssert.assertThat("The class 2 race size did not match the expected value.",
+        race.size(), CoreMatchers.is(4));
+    }
+
+    MatcherAssert.assertThat("The class 2 manifest grids did not match the expected value.",
+      meetingDraw.getManifests().get(1).getConfiguration().getNumberOfGrids(), CoreMatchers.is(4));
+  }
+
+  /**
+   * Test that every participant of a large generated meeting is drawn exactly once in each heat.
+   */
+  @Test
+  void testDrawGridsForMeeting_generatedMeeting_allParticipantsDrawnEachHeat()
+    throws BackingStoreException, IOException, ClassNotFoundException {
+    // Set up test scenario.
+    MeetingGenerator meetingGenerator = new MeetingGenerator(40);
+    meetingGenerator.setNumberOfClasses(20);
+    meetingGenerator.setFieldSize(1, 500);
+    meetingGenerator.setNumberOfExcludedGrids(2);
+    List<String> classNames = meetingGenerator.writeMeeting();
+
+    // Call the code under test.
+    MeetingDraw meetingDraw = GridDrawHelper
+      .drawGridsForMeeting(meetingGenerator.generateExcludedGrids());
+
+    // Perform assertions.
+    for (int classIndex = 0; classIndex < classNames.size(); classIndex++) {
+      List<String> participants = meetingGenerator.generateParticipants(classIndex);
+      participants.sort(null);
+
+      for (List<List<String>> races : meetingDraw.getClassHeats().get(classNames.get(classIndex))) {
+        List<String> drawnParticipants = races.stream().flatMap(List::stream)
+          .filter(participant -> !participant.isEmpty()).sorted().collect(Collectors.toList());
+        MatcherAssert.assertThat("The drawn participants did not match the expected value.",
+          drawnParticipants, CoreMatchers.is(participants));
+      }
+    }
+  }
+
   /**
    * Test that no races are returned when there are no participants for the class.
    */
@@ -651,4 +763,184 @@ class GridDrawHelperTest {
     MatcherAssert.assertThat("The race participant did not match the expected value.", race.get(9),
       CoreMatchers.is("participant4"));
   }
+
+  /**
+   * Test that a balanced draw gives every participant of a full race the same grid total across
+   * two heats, the participant on the highest grid in the first heat starts from the lowest grid
+   * in the second.
+   */
+  @Test
+  void testDrawGridsForClass_balancedDrawMode_gridTotalsEqual()
+    throws BackingStoreException, IOException, ClassNotFoundException {
+    // Set up the test scenario.
+    List<String> participants = Arrays.asList("participant1", "participant2", "participant3",
+      "participant4", "participant5", "participant6", "participant7", "participant8");
+    PreferenceHelper.setClassParticipants("testClass", participants);
+    PreferenceHelper.setNumberOfGrids(8);
+    PreferenceHelper.setDrawMode(DrawMode.BALANCED);
+
+    PreferenceHelper.setNumberOfHeats(2);
+
+    // Call the code under test.
+    List<List<List<String>>> heats = GridDrawHelper.drawGridsForClass("testClass",
+      Collections.emptySet());
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The number of heats did not match the expected value.", heats.size(),
+      CoreMatchers.is(2));
+
+    List<String> firstRace = heats.get(0).get(0);
+    List<String> secondRace = heats.get(1).get(0);
+
+    for (String participant : participants) {
+      int gridTotal = firstRace.indexOf(participant) + secondRace.indexOf(participant) + 2;
+      MatcherAssert.assertThat("The grid total did not match the expected value.", gridTotal,
+        CoreMatchers.is(9));
+    }
+  }
+
+  /**
+   * Test that ungrouped participants below the grouping threshold are all interleaved with the
+   * grouped participants when the rounded up spacing would place the last of them past the end.
+   */
+  @Test
+  void testDrawGrids_interleaveSpacingPastEnd_allParticipantsDrawn() {
+    // Set up the test scenario.
+    DrawConfiguration configuration = new DrawConfiguration(8, 1, "NW\\d+", 4, DrawMode.RANDOM,
+      0);
+
+    // Call the code under test.
+    List<List<List<String>>> heats = GridDrawHelper.drawGrids(Arrays.asList("NW1", "A1", "A2",
+      "A3"), Collections.emptySet(), configuration, 1);
+
+    // Perform assertions.
+    List<String> race = heats.get(0).get(0);
+    MatcherAssert.assertThat("The number of race participants did not match the expected value.",
+      race.stream().filter(participant -> !participant.isEmpty()).count(), CoreMatchers.is(4L));
+  }
+
+  /**
+   * Test that the participants of each named group of the grouping filter are drawn in to their
+   * own races.
+   */
+  @Test
+  void testDrawGrids_namedGroups_groupsRacedSeparately() {
+    // Set up the test scenario.
+    DrawConfiguration configuration = new DrawConfiguration(4, 1,
+      "(?<ARC>ARC\\d+)|(?<NW>NW\\d+)", 0, DrawMode.RANDOM, 0);
+
+    // Call the code under test.
+    List<List<List<String>>> heats = GridDrawHelper.drawGrids(Arrays.asList("ARC1", "NW1", "A1",
+      "ARC2", "NW2", "A2", "ARC3", "NW3"), Collections.emptySet(), configuration, 1);
+
+    // Perform assertions.
+    List<List<String>> races = heats.get(0);
+    MatcherAssert.assertThat("The number of races did not match the expected value.",
+      races.size(), CoreMatchers.is(3));
+
+    for (List<String> race : races) {
+      long prefixes = race.stream().filter(participant -> !participant.isEmpty())
+        .map(participant -> participant.replaceAll("\\d", "")).distinct().count();
+      MatcherAssert.assertThat("The number of groups in the race did not match the expected value.",
+        prefixes, CoreMatchers.is(1L));
+    }
+  }
+
+  /**
+   * Test that the stages of a draw are timed once per heat, rather than once per race, while stage
+   * timing is enabled.
+   */
+  @Test
+  void testDrawGrids_stageTimingEnabled_stagesTimedPerHeat() {
+    // Set up the test scenario.
+    DrawConfiguration configuration = new DrawConfiguration(4, 3, "NW\\d+", 4, DrawMode.RANDOM,
+      0);
+    DrawMetrics drawMetrics = DrawMetrics.getInstance();
+    drawMetrics.reset();
+    drawMetrics.setStageTimingEnabled(true);
+
+    // Call the code under test.
+    try {
+      GridDrawHelper.drawGrids(Arrays.asList("participant1", "participant2", "participant3",
+        "participant4", "participant5", "participant6"), Collections.singleton(4), configuration,
+        1);
+    } finally {
+      drawMetrics.setStageTimingEnabled(false);
+    }
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The shuffle latency count did not match the expected value.",
+      drawMetrics.getShuffleLatency().getCount(), CoreMatchers.is(3L));
+    MatcherAssert.assertThat("The split latency count did not match the expected value.",
+      drawMetrics.getSplitLatency().getCount(), CoreMatchers.is(3L));
+    MatcherAssert.assertThat("The pad latency count did not match the expected value.",
+      drawMetrics.getPadLatency().getCount(), CoreMatchers.is(3L));
+  }
+
+  /**
+   * Test that the stages of a draw are not timed while stage timing is disabled.
+   */
+  @Test
+  void testDrawGrids_stageTimingDisabled_stagesNotTimed() {
+    // Set up the test scenario.
+    DrawConfiguration configuration = new DrawConfiguration(4, 3, "NW\\d+", 4, DrawMode.RANDOM,
+      0);
+    DrawMetrics drawMetrics = DrawMetrics.getInstance();
+    drawMetrics.reset();
+
+    // Call the code under test.
+    GridDrawHelper.drawGrids(Arrays.asList("participant1", "participant2", "participant3"),
+      Collections.emptySet(), configuration, 1);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The heat draw count did not match the expected value.",
+      drawMetrics.getHeatDraws(), CoreMatchers.is(3L));
+    MatcherAssert.assertThat("The pad latency count did not match the expected value.",
+      drawMetrics.getPadLatency().getCount(), CoreMatchers.is(0L));
+  }
+
+  /**
+   * Test that a flight recorder event is recorded with the class's draw details.
+   */
+  @Test
+  void testDrawGridsForClass_recordingStarted_eventRecorded()
+    throws BackingStoreException, IOException, ClassNotFoundException {
+    // Set up test scenario.
+    PreferenceHelper.setClassParticipants("testClass", Arrays.asList("participant1",
+      "participant2", "participant3"));
+    PreferenceHelper.setNumberOfGrids(4);
+
+    PreferenceHelper.setNumberOfHeats(1);
+
+    Path recordingFile = Files.createTempFile("grid-generator", ".jfr");
+    List<RecordedEvent> events;
+
+    // Call the code under test.
+    try (Recording recording = new Recording()) {
+      recording.enable(CLASS_DRAW_EVENT);
+      recording.start();
+      GridDrawHelper.drawGridsForClass("testClass", Collections.singleton(4));
+      recording.stop();
+      recording.dump(recordingFile);
+      events = RecordingFile.readAllEvents(recordingFile).stream()
+        .filter(event -> event.getEventType().getName().equals(CLASS_DRAW_EVENT))
+        .collect(Collectors.toList());
+    } finally {
+      Files.delete(recordingFile);
+    }
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The number of events did not match the expected value.",
+      events.size(), CoreMatchers.is(1));
+
+    RecordedEvent event = events.get(0);
+    MatcherAssert.assertThat("The event class name did not match the expected value.",
+      event.getString("className"), CoreMatchers.is("testClass"));
+    MatcherAssert.assertThat("The event excluded grids did not match the expected value.",
+      event.getString("excludedGrids"), CoreMatchers.is("[4]"));
+    MatcherAssert.assertThat("The event heats did not match the expected value.",
+      event.getInt("heats"), CoreMatchers.is(1));
+    MatcherAssert.assertThat("The event races did not match the expected value.",
+      event.getInt("races"), CoreMatchers.is(1));
+  }
 }
@@ -19,6 +19,10 @@
 
 package com.judge40.gridgenerator;
 
+import com.judge40.gridgenerator.audit.DrawVerificationCommand;
+import com.judge40.gridgenerator.export.DrawExportCommand;
+import com.judge40.gridgenerator.simulation.DrawSimulationCommand;
+import mockit.Expectations;
 import mockit.Mocked;
 import mockit.Verifications;
 import org.junit.jupiter.api.Test;
@@ -46,4 +50,96 @@ public class GridGeneratorLauncherTest {
       }
     };
   }
+
+  /**
+   * Test that the export command is run instead of GridGenerator when an export is requested.
+   */
+  @Test
+  public void testMain_exportRequested_exportRun(@Mocked GridGenerator gridGenerator,
+    @Mocked DrawExportCommand drawExportCommand) {
+    // Set up test data.
+    String[] args = new String[]{"--export", "draw.pdf"};
+
+    new Expectations() {
+      {
+        DrawExportCommand.isExportCommand(args);
+        result = true;
+        DrawExportCommand.run(args);
+        result = 0;
+      }
+    };
+
+    // Call the method under test.
+    GridGeneratorLauncher.main(args);
+
+    // Perform assertions.
+    new Verifications() {
+      {
+        GridGenerator.launch(GridGenerator.class, args);
+        times = 0;
+      }
+    };
+  }
+
+  /**
+   * Test that the simulation command is run instead of GridGenerator when a simulation is
+   * requested.
+   */
+  @Test
+  public void testMain_simulationRequested_simulationRun(@Mocked GridGenerator gridGenerator,
+    @Mocked DrawSimulationCommand drawSimulationCommand) {
+    // Set up test data.
+    String[] args = new String[]{"--simulate", "1000"};
+
+    new Expectations() {
+      {
+        DrawSimulationCommand.isSimulationCommand(args);
+        result = true;
+        DrawSimulationCommand.run(args);
+        result = 0;
+      }
+    };
+
+    // Call the method under test.
+    GridGeneratorLauncher.main(args);
+
+    // Perform assertions.
+    new Verifications() {
+      {
+        GridGenerator.launch(GridGenerator.class, args);
+        times = 0;
+      }
+    };
+  }
+
+  /**
+   * Test that the verification command is run instead of GridGenerator when a verification is
+   * requested.
+   */
+  @Test
+  public void testMain_verificationRequested_verificationRun(@Mocked GridGenerator gridGenerator,
+    @Mocked DrawVerificationCommand drawVerificationCommand) {
+    // Set up test data.
+    String[] args = new String[]{"--verify", "draw.pdf.manifest"};
+
+    new Expectations() {
+      {
+        DrawVerificationCommand.isVerificationCommand(args);
+        result = true;
+        DrawVerificationCommand.run(args);
+        result = 0;
+      }
+    };
+
+    // Call the method under test.
+    GridGeneratorLauncher.main(args);
+
+    // Perform assertions.
+    new Verifications() {
+      {
+        GridGenerator.launch(GridGenerator.class, args);
+        times = 0;
+      }
+    };
+  }
 }
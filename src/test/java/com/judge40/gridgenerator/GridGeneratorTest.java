@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 import java.util.prefs.BackingStoreException;
 import java.util.prefs.InvalidPreferencesFormatException;
 import javafx.scene.control.MenuItem;
@@ -32,7 +33,6 @@ import org.hamcrest.CoreMatchers;
 import org.hamcrest.MatcherAssert;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -42,6 +42,7 @@ import org.testfx.framework.junit5.ApplicationExtension;
 import org.testfx.framework.junit5.Start;
 import org.testfx.matcher.base.NodeMatchers;
 import org.testfx.matcher.control.LabeledMatchers;
+import org.testfx.util.WaitForAsyncUtils;
 
 /**
  * The unit tests for {@link GridGenerator}.
@@ -86,19 +87,29 @@ class GridGeneratorTest {
     Locale.setDefault(Locale.ENGLISH);
 
     // Call the method under test.
-    robot.interact(() -> {
-      try {
-        gridGenerator.start(stage);
-      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
-        Assertions.fail("An unexpected exception was thrown.", e);
-      }
-    });
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
 
     // Perform assertions.
     MatcherAssert.assertThat("The stage's title did not match the expected value.",
       stage.getTitle(), CoreMatchers.is("Grid Generator"));
   }
 
+  /**
+   * Test that the splash screen is replaced by the main layout once startup is complete.
+   */
+  @Test
+  void testStart_startupComplete_splashReplaced(FxRobot robot) {
+    // Call the method under test.
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The splash screen's visibility did not match the expected value.",
+      robot.lookup("#splash").tryQuery().isPresent(), CoreMatchers.is(false));
+    FxAssert.verifyThat("#mainLayout", NodeMatchers.isVisible());
+  }
+
   /**
    * Test that the "File" menu is available on the dialog when the locale is English.
    */
@@ -108,13 +119,8 @@ class GridGeneratorTest {
     Locale.setDefault(Locale.ENGLISH);
 
     // Call the method under test.
-    robot.interact(() -> {
-      try {
-        gridGenerator.start(stage);
-      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
-        Assertions.fail("An unexpected exception was thrown.", e);
-      }
-    });
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
 
     // Perform assertions.
     FxAssert.verifyThat("#fileMenu", NodeMatchers.isVisible());
@@ -131,13 +137,8 @@ class GridGeneratorTest {
     Locale.setDefault(Locale.ENGLISH);
 
     // Call the method under test.
-    robot.interact(() -> {
-      try {
-        gridGenerator.start(stage);
-      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
-        Assertions.fail("An unexpected exception was thrown.", e);
-      }
-    });
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
 
     // Perform assertions.
     MenuBarButton menuBarButton = (MenuBarButton) stage.getScene().lookup("#fileMenu");
@@ -161,13 +162,8 @@ class GridGeneratorTest {
     Locale.setDefault(Locale.ENGLISH);
 
     // Call the method under test.
-    robot.interact(() -> {
-      try {
-        gridGenerator.start(stage);
-      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
-        Assertions.fail("An unexpected exception was thrown.", e);
-      }
-    });
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
 
     // Perform assertions.
     FxAssert.verifyThat("#navigateMenu", NodeMatchers.isVisible());
@@ -185,13 +181,8 @@ class GridGeneratorTest {
     Locale.setDefault(Locale.ENGLISH);
 
     // Call the method under test.
-    robot.interact(() -> {
-      try {
-        gridGenerator.start(stage);
-      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
-        Assertions.fail("An unexpected exception was thrown.", e);
-      }
-    });
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
 
     // Perform assertions.
     MenuBarButton menuBarButton = (MenuBarButton) stage.getScene().lookup("#navigateMenu");
@@ -215,13 +206,8 @@ class GridGeneratorTest {
     Locale.setDefault(Locale.ENGLISH);
 
     // Call the method under test.
-    robot.interact(() -> {
-      try {
-        gridGenerator.start(stage);
-      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
-        Assertions.fail("An unexpected exception was thrown.", e);
-      }
-    });
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
 
     // Perform assertions.
     MenuBarButton menuBarButton = (MenuBarButton) stage.getScene().lookup("#navigateMenu");
@@ -245,13 +231,8 @@ class GridGeneratorTest {
     Locale.setDefault(new Locale("en", "PSEUDO"));
 
     // Call the method under test.
-    robot.interact(() -> {
-      try {
-        gridGenerator.start(stage);
-      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
-        Assertions.fail("An unexpected exception was thrown.", e);
-      }
-    });
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
 
     // Perform assertions.
     MatcherAssert.assertThat("The stage's title did not match the expected value.",
@@ -267,13 +248,8 @@ class GridGeneratorTest {
     Locale.setDefault(new Locale("en", "PSEUDO"));
 
     // Call the method under test.
-    robot.interact(() -> {
-      try {
-        gridGenerator.start(stage);
-      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
-        Assertions.fail("An unexpected exception was thrown.", e);
-      }
-    });
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
 
     // Perform assertions.
     FxAssert.verifyThat("#fileMenu", NodeMatchers.isVisible());
@@ -290,13 +266,8 @@ class GridGeneratorTest {
     Locale.setDefault(new Locale("en", "PSEUDO"));
 
     // Call the method under test.
-    robot.interact(() -> {
-      try {
-        gridGenerator.start(stage);
-      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
-        Assertions.fail("An unexpected exception was thrown.", e);
-      }
-    });
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
 
     // Perform assertions.
     MenuBarButton menuBarButton = (MenuBarButton) stage.getScene().lookup("#fileMenu");
@@ -320,13 +291,8 @@ class GridGeneratorTest {
     Locale.setDefault(new Locale("en", "PSEUDO"));
 
     // Call the method under test.
-    robot.interact(() -> {
-      try {
-        gridGenerator.start(stage);
-      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
-        Assertions.fail("An unexpected exception was thrown.", e);
-      }
-    });
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
 
     // Perform assertions.
     FxAssert.verifyThat("#navigateMenu", NodeMatchers.isVisible());
@@ -344,13 +310,8 @@ class GridGeneratorTest {
     Locale.setDefault(new Locale("en", "PSEUDO"));
 
     // Call the method under test.
-    robot.interact(() -> {
-      try {
-        gridGenerator.start(stage);
-      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
-        Assertions.fail("An unexpected exception was thrown.", e);
-      }
-    });
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
 
     // Perform assertions.
     MenuBarButton menuBarButton = (MenuBarButton) stage.getScene().lookup("#navigateMenu");
@@ -374,13 +335,8 @@ class GridGeneratorTest {
     Locale.setDefault(new Locale("en", "PSEUDO"));
 
     // Call the method under test.
-    robot.interact(() -> {
-      try {
-        gridGenerator.start(stage);
-      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
-        Assertions.fail("An unexpected exception was thrown.", e);
-      }
-    });
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
 
     // Perform assertions.
     MenuBarButton menuBarButton = (MenuBarButton) stage.getScene().lookup("#navigateMenu");
@@ -402,13 +358,8 @@ class GridGeneratorTest {
   void testStart_noPreferenceValues_preferencesInitialized(FxRobot robot)
     throws BackingStoreException, ClassNotFoundException, IOException {
     // Call the method under test.
-    robot.interact(() -> {
-      try {
-        gridGenerator.start(stage);
-      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
-        Assertions.fail("An unexpected exception was thrown.", e);
-      }
-    });
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
 
     // Perform assertions.
     String meetingName = PreferenceHelper.getMeetingName();
@@ -456,13 +407,8 @@ class GridGeneratorTest {
     PreferenceHelper.setNumberOfHeats(5);
 
     // Call the method under test.
-    robot.interact(() -> {
-      try {
-        gridGenerator.start(stage);
-      } catch (BackingStoreException | ClassNotFoundException | IOException e) {
-        Assertions.fail("An unexpected exception was thrown.", e);
-      }
-    });
+    robot.interact(() -> gridGenerator.start(stage));
+    waitForStartup();
 
     // Perform assertions.
     String meetingName = PreferenceHelper.getMeetingName();
@@ -493,4 +439,12 @@ class GridGeneratorTest {
     MatcherAssert.assertThat("The number of heats did not match the expected value.", numberOfHeats,
       CoreMatchers.is(5));
   }
+
+  /**
+   * Wait for the application's background startup to complete and the main layout to be displayed.
+   */
+  private void waitForStartup() {
+    gridGenerator.getReady().orTimeout(10, TimeUnit.SECONDS).join();
+    WaitForAsyncUtils.waitForFxEvents();
+  }
 }
@@ -0,0 +1,205 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.prefs.BackingStoreException;
+
+/**
+ * A generator of synthetic meetings for load and stress testing. Participants are named to match
+ * the default participant validator, and a configurable share of them match the default grouping
+ * filter. The same seed and settings always generate the same meeting.
+ *
+ * <p>Meetings are written through {@link PreferenceHelper}, so they are stored by whichever
+ * preference storage provider is selected.
+ */
+public class MeetingGenerator {
+
+  /**
+   * The grouping filter the grouped participants are named to match.
+   */
+  public static final String GROUPING_FILTER = "ARC\\d+|LM\\d+|NW\\d+";
+
+  /**
+   * The validator every participant is named to match.
+   */
+  public static final String VALIDATOR = "[A-Z]+\\d+[A-Z]*|\\d+F";
+
+  private static final String[] GROUPED_PREFIXES = {"ARC", "LM", "NW"};
+  private static final String[] UNGROUPED_PREFIXES = {"BDR", "KT", "MX", "SC", "TR"};
+  private static final String SUFFIXES = "ABCDE";
+
+  private final long seed;
+
+  private int numberOfClasses = 10;
+  private int minimumFieldSize = 20;
+  private int maximumFieldSize = 60;
+  private double groupedShare = 0.25;
+  private int numberOfGrids = 8;
+  private int numberOfHeats = 3;
+  private int numberOfExcludedGrids;
+
+  /**
+   * Create a generator, by default meetings have 10 classes of 20 to 60 participants of which a
+   * quarter are grouped, drawn on 8 grids over 3 heats without any excluded grids.
+   *
+   * @param seed The seed of the generated meetings.
+   */
+  public MeetingGenerator(long seed) {
+    this.seed = seed;
+  }
+
+  public void setNumberOfClasses(int numberOfClasses) {
+    this.numberOfClasses = numberOfClasses;
+  }
+
+  /**
+   * Set the range of the number of participants in each class.
+   *
+   * @param minimumFieldSize The minimum number of participants in a class.
+   * @param maximumFieldSize The maximum number of participants in a class.
+   */
+  public void setFieldSize(int minimumFieldSize, int maximumFieldSize) {
+    this.minimumFieldSize = minimumFieldSize;
+    this.maximumFieldSize = maximumFieldSize;
+  }
+
+  public void setGroupedShare(double groupedShare) {
+    this.groupedShare = groupedShare;
+  }
+
+  public void setNumberOfGrids(int numberOfGrids) {
+    this.numberOfGrids = numberOfGrids;
+  }
+
+  public void setNumberOfHeats(int numberOfHeats) {
+    this.numberOfHeats = numberOfHeats;
+  }
+
+  public void setNumberOfExcludedGrids(int numberOfExcludedGrids) {
+    this.numberOfExcludedGrids = numberOfExcludedGrids;
+  }
+
+  /**
+   * Generate the names of the meeting's classes.
+   *
+   * @return The class names.
+   */
+  public List<String> generateClassNames() {
+    List<String> classNames = new ArrayList<>(numberOfClasses);
+
+    for (int classNumber = 1; classNumber <= numberOfClasses; classNumber++) {
+      classNames.add("Class " + classNumber);
+    }
+
+    return classNames;
+  }
+
+  /**
+   * Generate the participants of one of the meeting's classes, with a field size within the
+   * generator's range.
+   *
+   * @param classIndex The index of the class within the meeting.
+   * @return The class's participants.
+   */
+  public List<String> generateParticipants(int classIndex) {
+    SplittableRandom random = new SplittableRandom(seed + classIndex);
+    int fieldSize = minimumFieldSize == maximumFieldSize ? minimumFieldSize
+      : random.nextInt(minimumFieldSize, maximumFieldSize + 1);
+    return generateParticipants(fieldSize, random);
+  }
+
+  /**
+   * Generate a field of participants, the participants' numbers are unique within the field.
+   *
+   * @param fieldSize The number of participants.
+   * @param random    The random stream to name the participants from.
+   * @return The participants.
+   */
+  private List<String> generateParticipants(int fieldSize, SplittableRandom random) {
+    List<String> participants = new ArrayList<>(fieldSize);
+
+    for (int number = 1; number <= fieldSize; number++) {
+      if (random.nextDouble() < groupedShare) {
+        participants.add(GROUPED_PREFIXES[random.nextInt(GROUPED_PREFIXES.length)] + number);
+      } else if (random.nextInt(10) == 0) {
+        participants.add(number + "F");
+      } else {
+        String suffix = random.nextInt(4) == 0
+          ? String.valueOf(SUFFIXES.charAt(random.nextInt(SUFFIXES.length()))) : "";
+        participants.add(UNGROUPED_PREFIXES[random.nextInt(UNGROUPED_PREFIXES.length)] + number
+          + suffix);
+      }
+    }
+
+    Collections.shuffle(participants, new Random(random.nextLong()));
+    return participants;
+  }
+
+  /**
+   * Generate the grids to exclude when drawing the meeting.
+   *
+   * @return The excluded grid numbers.
+   */
+  public Set<Integer> generateExcludedGrids() {
+    SplittableRandom random = new SplittableRandom(seed - 1);
+    Set<Integer> excludedGrids = new TreeSet<>();
+
+    while (excludedGrids.size() < Math.min(numberOfExcludedGrids, numberOfGrids)) {
+      excludedGrids.add(random.nextInt(1, numberOfGrids + 1));
+    }
+
+    return excludedGrids;
+  }
+
+  /**
+   * Write the generated meeting to the preferences, replacing the current meeting's settings and
+   * classes.
+   *
+   * @return The names of the written classes.
+   * @throws BackingStoreException If the meeting could not be written.
+   * @throws IOException           If the meeting could not be written.
+   */
+  public List<String> writeMeeting() throws BackingStoreException, IOException {
+    List<String> classNames = generateClassNames();
+
+    PreferenceHelper.setMeetingName("Generated Meeting " + seed);
+    PreferenceHelper.setParticipantValidator(VALIDATOR);
+    PreferenceHelper.setParticipantGroupingFilter(GROUPING_FILTER);
+    PreferenceHelper.setParticipantGroupingThreshold(4);
+    PreferenceHelper.setNumberOfGrids(numberOfGrids);
+    PreferenceHelper.setNumberOfHeats(numberOfHeats);
+    PreferenceHelper.setParticipantClassNames(classNames);
+
+    for (int classIndex = 0; classIndex < classNames.size(); classIndex++) {
+      PreferenceHelper.setClassParticipants(classNames.get(classIndex),
+        generateParticipants(classIndex));
+    }
+
+    return classNames;
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+import com.judge40.gridgenerator.ParticipantClassifier.Partition;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit tests for {@link ParticipantClassifier}.
+ */
+class ParticipantClassifierTest {
+
+  /**
+   * Test that the named groups are found in the order they are declared, ignoring escaped, quoted
+   * and character class parentheses.
+   */
+  @Test
+  void testGetGroupNames_namedGroups_declarationOrder() {
+    // Set up test scenario.
+    Pattern groupingFilter = Pattern.compile(
+      "(?<ARC>ARC\\d+)|\\(?<X>|\\Q(?<Y>\\E|[(?<Z>]|(?<=L)(?<LM>LM\\d+)|(?<NW>NW(?<N>\\d+))");
+
+    // Call the code under test.
+    ParticipantClassifier classifier = new ParticipantClassifier(groupingFilter);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The group names did not match the expected value.",
+      classifier.getGroupNames(), CoreMatchers.is(Arrays.asList("ARC", "LM", "NW", "N")));
+    MatcherAssert.assertThat("The number of groups did not match the expected value.",
+      classifier.getNumberOfGroups(), CoreMatchers.is(5));
+  }
+
+  /**
+   * Test that participants are classified in to the named group they matched, matches of no named
+   * group are classified in to the unnamed group.
+   */
+  @Test
+  void testClassify_namedGroups_matchedGroup() {
+    // Set up test scenario.
+    ParticipantClassifier classifier =
+      new ParticipantClassifier(Pattern.compile("(?<ARC>ARC\\d+)|(?<NW>NW\\d+)|LM\\d+"));
+
+    // Call the code under test.
+    int arcGroup = classifier.classify("ARC1");
+    int nwGroup = classifier.classify("NW1");
+    int unnamedGroup = classifier.classify("LM1");
+    int ungrouped = classifier.classify("A1");
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The ARC group did not match the expected value.",
+      arcGroup, CoreMatchers.is(0));
+    MatcherAssert.assertThat("The NW group did not match the expected value.",
+      nwGroup, CoreMatchers.is(1));
+    MatcherAssert.assertThat("The unnamed group did not match the expected value.",
+      unnamedGroup, CoreMatchers.is(2));
+    MatcherAssert.assertThat("The ungrouped group did not match the expected value.",
+      ungrouped, CoreMatchers.is(ParticipantClassifier.UNGROUPED));
+  }
+
+  /**
+   * Test that participants are partitioned in to their groups in their original order.
+   */
+  @Test
+  void testPartition_mixedParticipants_orderPreservedWithinGroups() {
+    // Set up test scenario.
+    ParticipantClassifier classifier =
+      new ParticipantClassifier(Pattern.compile("(?<ARC>ARC\\d+)|(?<NW>NW\\d+)"));
+
+    // Call the code under test.
+    Partition partition = classifier.partition(Arrays.asList("NW2", "A1", "ARC3", "NW1", "ARC1",
+      "A2"));
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The groups did not match the expected value.",
+      partition.getGroups(), CoreMatchers.is(Arrays.asList(Arrays.asList("ARC3", "ARC1"),
+        Arrays.asList("NW2", "NW1"), Collections.<String>emptyList())));
+    MatcherAssert.assertThat("The ungrouped participants did not match the expected value.",
+      partition.getUngrouped(), CoreMatchers.is(Arrays.asList("A1", "A2")));
+    MatcherAssert.assertThat("The number of grouped participants did not match the expected value.",
+      partition.getNumberOfGrouped(), CoreMatchers.is(4));
+  }
+
+  /**
+   * Test that every match of a filter without named groups is classified in to a single group.
+   */
+  @Test
+  void testPartition_noNamedGroups_singleGroup() {
+    // Set up test scenario.
+    ParticipantClassifier classifier =
+      new ParticipantClassifier(Pattern.compile("ARC\\d+|LM\\d+|NW\\d+"));
+
+    // Call the code under test.
+    Partition partition = classifier.partition(Arrays.asList("NW1", "A1", "ARC1", "LM1"));
+
+    // Perform assertions.
+    List<List<String>> groups = partition.getGroups();
+    MatcherAssert.assertThat("The groups did not match the expected value.", groups,
+      CoreMatchers.is(Collections.singletonList(Arrays.asList("NW1", "ARC1", "LM1"))));
+    MatcherAssert.assertThat("The ungrouped participants did not match the expected value.",
+      partition.getUngrouped(), CoreMatchers.is(Collections.singletonList("A1")));
+  }
+
+  /**
+   * Test that there are no ungrouped participants when every participant is grouped.
+   */
+  @Test
+  void testPartition_allGrouped_noUngrouped() {
+    // Set up test scenario.
+    ParticipantClassifier classifier = new ParticipantClassifier(Pattern.compile("NW\\d+"));
+
+    // Call the code under test.
+    Partition partition = classifier.partition(Arrays.asList("NW3", "NW1", "NW2"));
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The groups did not match the expected value.",
+      partition.getGroups(),
+      CoreMatchers.is(Collections.singletonList(Arrays.asList("NW3", "NW1", "NW2"))));
+    MatcherAssert.assertThat("The ungrouped participants did not match the expected value.",
+      partition.getUngrouped().isEmpty(), CoreMatchers.is(true));
+    MatcherAssert.assertThat("The number of grouped participants did not match the expected value.",
+      partition.getNumberOfGrouped(), CoreMatchers.is(3));
+  }
+}
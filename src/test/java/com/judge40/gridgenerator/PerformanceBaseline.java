@@ -0,0 +1,169 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+
+/**
+ * A helper which measures operations for the performance tests and checks the measurements against
+ * the recorded baselines. A measurement is the median of several runs, taken after warm up runs,
+ * and fails if it exceeds its baseline by more than the tolerance. The tolerance can be overridden
+ * with the {@value #TOLERANCE_PROPERTY} system property.
+ */
+public class PerformanceBaseline {
+
+  /**
+   * The tag of the performance tests, which are run by the performanceTest task rather than with
+   * the unit tests.
+   */
+  public static final String TAG = "performance";
+
+  static final String TOLERANCE_PROPERTY = "gridgenerator.performance.tolerance";
+
+  private static final String BASELINES = "/performance/baselines.properties";
+  private static final String TOLERANCE = "tolerance";
+  private static final int WARM_UP_RUNS = 2;
+  private static final int MEASURED_RUNS = 5;
+
+  private final Properties baselines = new Properties();
+  private final double tolerance;
+
+  /**
+   * Load the recorded baselines.
+   *
+   * @throws IOException If the baselines could not be loaded.
+   */
+  public PerformanceBaseline() throws IOException {
+    try (InputStream inputStream = PerformanceBaseline.class.getResourceAsStream(BASELINES)) {
+      baselines.load(inputStream);
+    }
+
+    tolerance = Double.parseDouble(System.getProperty(TOLERANCE_PROPERTY,
+      baselines.getProperty(TOLERANCE)));
+  }
+
+  /**
+   * Measure an operation, each run is prepared by a set up which is not included in the time.
+   *
+   * @param setUp     The set up to perform before each run.
+   * @param operation The operation to measure.
+   * @return The median time of the measured runs in milliseconds.
+   * @throws Exception If the set up or operation failed.
+   */
+  public long measure(Operation setUp, Operation operation) throws Exception {
+    long[] times = new long[MEASURED_RUNS];
+
+    for (int run = 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+      setUp.run();
+      long start = System.nanoTime();
+      operation.run();
+      long time = System.nanoTime() - start;
+
+      if (run >= WARM_UP_RUNS) {
+        times[run - WARM_UP_RUNS] = time;
+      }
+    }
+
+    Arrays.sort(times);
+    return times[MEASURED_RUNS / 2] / 1_000_000;
+  }
+
+  /**
+   * Assert that a measurement does not exceed its baseline by more than the tolerance. The
+   * measurement is printed so the baselines can be updated.
+   *
+   * @param name   The name of the measurement's baseline.
+   * @param millis The measured time in milliseconds.
+   */
+  public void assertWithinBaseline(String name, long millis) {
+    String baseline = baselines.getProperty(name);
+
+    if (baseline == null) {
+      throw new IllegalStateException("There is no baseline for " + name + ".");
+    }
+
+    long limit = Math.round(Long.parseLong(baseline) * (1 + tolerance));
+    System.out.println(name + "=" + millis);
+    MatcherAssert.assertThat(String.format("The time of %s, %d ms, exceeded its baseline of %s ms.",
+      name, millis, baseline), millis <= limit, CoreMatchers.is(true));
+  }
+
+  /**
+   * An operation to measure.
+   */
+  @FunctionalInterface
+  public interface Operation {
+
+    /**
+     * Perform the operation.
+     *
+     * @throws Exception If the operation failed.
+     */
+    void run() throws Exception;
+  }
+
+  /**
+   * The sizes of the meetings the performance tests are run against.
+   */
+  public enum MeetingSize {
+
+    SMALL(5, 10, 30),
+    MEDIUM(20, 40, 80),
+    LARGE(60, 100, 300);
+
+    private final int numberOfClasses;
+    private final int minimumFieldSize;
+    private final int maximumFieldSize;
+
+    MeetingSize(int numberOfClasses, int minimumFieldSize, int maximumFieldSize) {
+      this.numberOfClasses = numberOfClasses;
+      this.minimumFieldSize = minimumFieldSize;
+      this.maximumFieldSize = maximumFieldSize;
+    }
+
+    /**
+     * Create a generator for meetings of this size.
+     *
+     * @return The meeting generator.
+     */
+    public MeetingGenerator createGenerator() {
+      MeetingGenerator meetingGenerator = new MeetingGenerator(ordinal());
+      meetingGenerator.setNumberOfClasses(numberOfClasses);
+      meetingGenerator.setFieldSize(minimumFieldSize, maximumFieldSize);
+      return meetingGenerator;
+    }
+
+    /**
+     * Get the name of a baseline for a meeting of this size.
+     *
+     * @param measurement The name of the measurement.
+     * @return The baseline's name.
+     */
+    public String getBaselineName(String measurement) {
+      return measurement + "." + name().toLowerCase(Locale.ENGLISH);
+    }
+  }
+}
@@ -19,17 +19,34 @@
 
 package com.judge40.gridgenerator;
 
+import com.judge40.gridgenerator.storage.PreferenceStorage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.prefs.BackingStoreException;
 import java.util.prefs.InvalidPreferencesFormatException;
+import java.util.prefs.Preferences;
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.MatcherAssert;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -144,6 +161,92 @@ class PreferenceHelperTest {
       CoreMatchers.is(5));
   }
 
+  /**
+   * Test that an exported meeting replaces the current meeting when it is imported.
+   */
+  @Test
+  void testImportMeeting_exportedMeeting_meetingReplaced()
+    throws BackingStoreException, ClassNotFoundException, IOException,
+    InvalidPreferencesFormatException {
+    // Set up test scenario.
+    List<String> participants = new ArrayList<>();
+
+    for (int i = 0; i < 10000; i++) {
+      participants.add("participant" + i);
+    }
+
+    PreferenceHelper.setMeetingName("exportedMeeting");
+    PreferenceHelper.setClassParticipants("testClass", participants);
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    PreferenceHelper.exportMeeting(baos);
+
+    PreferenceHelper.setMeetingName("currentMeeting");
+    PreferenceHelper.setClassParticipants("testClass", Collections.singletonList("participant"));
+    PreferenceHelper.setNumberOfGrids(5);
+
+    // Call the code under test.
+    PreferenceHelper.importMeeting(new ByteArrayInputStream(baos.toByteArray()));
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The meeting name did not match the expected value.",
+      PreferenceHelper.getMeetingName(), CoreMatchers.is("exportedMeeting"));
+    MatcherAssert.assertThat("The class participants did not match the expected value.",
+      PreferenceHelper.getClassParticipants("testClass"), CoreMatchers.is(participants));
+    MatcherAssert.assertThat("The number of grids did not match the expected value.",
+      PreferenceHelper.getNumberOfGrids(), CoreMatchers.is(0));
+  }
+
+  /**
+   * Test that the current meeting is restored when an invalid meeting is imported.
+   */
+  @Test
+  void testImportMeeting_invalidMeeting_meetingRestored()
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    // Set up test scenario.
+    PreferenceHelper.setMeetingName("currentMeeting");
+    PreferenceHelper.setClassParticipants("testClass", Collections.singletonList("participant"));
+
+    // Call the code under test.
+    Assertions.assertThrows(InvalidPreferencesFormatException.class, () -> PreferenceHelper
+      .importMeeting(new ByteArrayInputStream("<invalid/>".getBytes(StandardCharsets.UTF_8))));
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The meeting name did not match the expected value.",
+      PreferenceHelper.getMeetingName(), CoreMatchers.is("currentMeeting"));
+    MatcherAssert.assertThat("The class participants did not match the expected value.",
+      PreferenceHelper.getClassParticipants("testClass"),
+      CoreMatchers.is(Collections.singletonList("participant")));
+  }
+
+  /**
+   * Test that a meeting exported from a different node is rejected and the current meeting kept.
+   */
+  @Test
+  void testImportMeeting_otherNodePath_meetingKept()
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    // Set up test scenario.
+    PreferenceHelper.setMeetingName("currentMeeting");
+    PreferenceHelper.setClassParticipants("testClass", Collections.singletonList("participant"));
+
+    byte[] meeting = ("<preferences><root type=\"user\"><map/><node name=\"other\"><map>"
+      + "<entry key=\"meetingName\" value=\"otherMeeting\"/></map></node></root></preferences>")
+      .getBytes(StandardCharsets.UTF_8);
+
+    // Call the code under test.
+    Assertions.assertThrows(InvalidPreferencesFormatException.class,
+      () -> PreferenceHelper.importMeeting(new ByteArrayInputStream(meeting)));
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The meeting name did not match the expected value.",
+      PreferenceHelper.getMeetingName(), CoreMatchers.is("currentMeeting"));
+    MatcherAssert.assertThat("The class participants did not match the expected value.",
+      PreferenceHelper.getClassParticipants("testClass"),
+      CoreMatchers.is(Collections.singletonList("participant")));
+    MatcherAssert.assertThat("The other node's existence did not match the expected value.",
+      PreferenceStorage.getUserRoot().nodeExists("/other"), CoreMatchers.is(false));
+  }
+
   /**
    * Test that an empty string is returned when there is no preference value set.
    */
@@ -235,6 +338,123 @@ class PreferenceHelperTest {
     }
   }
 
+  /**
+   * Test that a value larger than a single chunk is stored compressed, using fewer chunks than the
+   * serialized value requires.
+   */
+  @Test
+  void testSetClassParticipants_largeValue_storedCompressed()
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    // Set up test scenario.
+    List<String> participants = new ArrayList<>();
+
+    for (int i = 0; i < 10000; i++) {
+      participants.add("ARC" + i);
+    }
+
+    int chunkSize = (int) (Preferences.MAX_VALUE_LENGTH * 0.75);
+    int serializedChunks = (int) Math.ceil((double) serialize(participants).length / chunkSize);
+
+    // Call the code under test.
+    PreferenceHelper.setClassParticipants("testClass", participants);
+
+    // Perform assertions.
+    Preferences classNode = preferenceTestHelper.getPreferences().node("participants/testClass");
+    MatcherAssert.assertThat("The stored chunks were not fewer than the serialized chunks.",
+      classNode.keys().length < serializedChunks, CoreMatchers.is(true));
+    MatcherAssert.assertThat("The stored header did not match the expected value.",
+      classNode.getByteArray("0", new byte[0])[0], CoreMatchers.is((byte) 0x01));
+    MatcherAssert.assertThat("The class participants did not match the expected value.",
+      PreferenceHelper.getClassParticipants("testClass"), CoreMatchers.is(participants));
+  }
+
+  /**
+   * Test that a large value stored uncompressed, as by previous versions, can still be retrieved.
+   */
+  @Test
+  void testGetClassParticipants_uncompressedLargeValue_preferenceValue()
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    // Set up test scenario.
+    List<String> participants = new ArrayList<>();
+
+    for (int i = 0; i < 10000; i++) {
+      participants.add("ARC" + i);
+    }
+
+    byte[] objectBytes = serialize(participants);
+    int chunkSize = (int) (Preferences.MAX_VALUE_LENGTH * 0.75);
+    Preferences classNode = preferenceTestHelper.getPreferences().node("participants/testClass");
+
+    for (int start = 0, chunk = 0; start < objectBytes.length; start += chunkSize, chunk++) {
+      classNode.putByteArray(String.valueOf(chunk), Arrays.copyOfRange(objectBytes, start,
+        Math.min(objectBytes.length, start + chunkSize)));
+    }
+
+    // Call the code under test.
+    List<String> classParticipants = PreferenceHelper.getClassParticipants("testClass");
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The class participants did not match the expected value.",
+      classParticipants, CoreMatchers.is(participants));
+  }
+
+  /**
+   * Test that concurrent reads of a value which is being repeatedly replaced always return one of
+   * the complete values, never a partially written set of chunks.
+   */
+  @Test
+  void testGetClassParticipants_concurrentWrites_completeValueReturned()
+    throws BackingStoreException, ExecutionException, InterruptedException, IOException {
+    // Set up test scenario.
+    List<String> smallParticipants = Collections.singletonList("participant");
+    List<String> largeParticipants = new ArrayList<>();
+
+    for (int i = 0; i < 20000; i++) {
+      largeParticipants.add("participant" + i);
+    }
+
+    PreferenceHelper.setClassParticipants("testClass", smallParticipants);
+    ExecutorService executorService = Executors.newFixedThreadPool(2);
+    AtomicBoolean writing = new AtomicBoolean(true);
+
+    try {
+      Future<?> writer = executorService.submit(() -> {
+        try {
+          for (int i = 0; i < 200; i++) {
+            PreferenceHelper.setClassParticipants("testClass",
+              i % 2 == 0 ? largeParticipants : smallParticipants);
+          }
+        } finally {
+          writing.set(false);
+        }
+
+        return null;
+      });
+
+      // Call the code under test.
+      Future<List<List<String>>> reader = executorService.submit(() -> {
+        List<List<String>> readParticipants = new ArrayList<>();
+
+        while (writing.get()) {
+          readParticipants.add(PreferenceHelper.getClassParticipants("testClass"));
+        }
+
+        return readParticipants;
+      });
+
+      writer.get();
+
+      // Perform assertions.
+      for (List<String> participants : reader.get()) {
+        MatcherAssert.assertThat("The class participants did not match the expected value.",
+          participants, CoreMatchers.anyOf(CoreMatchers.is(smallParticipants),
+            CoreMatchers.is(largeParticipants)));
+      }
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
   /**
    * Test that an empty list is returned when there is no preference value set.
    */
@@ -442,4 +662,206 @@ class PreferenceHelperTest {
     MatcherAssert.assertThat("The number of heats did not match the expected value.", numberOfHeats,
       CoreMatchers.is(5));
   }
+
+  /**
+   * Test that the random draw mode is returned when there is no preference value set.
+   */
+  @Test
+  void testGetDrawMode_noPreferenceValue_random() {
+    // Call the code under test.
+    DrawMode drawMode = PreferenceHelper.getDrawMode();
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The draw mode did not match the expected value.", drawMode,
+      CoreMatchers.is(DrawMode.RANDOM));
+  }
+
+  /**
+   * Test that the preference value is returned when there is a preference value set.
+   */
+  @Test
+  void testGetDrawMode_hasPreferenceValue_preferenceValue() {
+    // Set up test scenario.
+    PreferenceHelper.setDrawMode(DrawMode.BALANCED);
+
+    // Call the code under test.
+    DrawMode drawMode = PreferenceHelper.getDrawMode();
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The draw mode did not match the expected value.", drawMode,
+      CoreMatchers.is(DrawMode.BALANCED));
+  }
+
+  /**
+   * Test that the default time limit is returned when there is no preference value set.
+   */
+  @Test
+  void testGetDrawOptimizationTimeLimit_noPreferenceValue_defaultTimeLimit() {
+    // Call the code under test.
+    int timeLimit = PreferenceHelper.getDrawOptimizationTimeLimit();
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The time limit did not match the expected value.", timeLimit,
+      CoreMatchers.is(500));
+  }
+
+  /**
+   * Test that the preference value is returned when there is a preference value set.
+   */
+  @Test
+  void testGetDrawOptimizationTimeLimit_hasPreferenceValue_preferenceValue() {
+    // Set up test scenario.
+    PreferenceHelper.setDrawOptimizationTimeLimit(2000);
+
+    // Call the code under test.
+    int timeLimit = PreferenceHelper.getDrawOptimizationTimeLimit();
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The time limit did not match the expected value.", timeLimit,
+      CoreMatchers.is(2000));
+  }
+
+  /**
+   * Test that empty values are returned when a class has no settings of its own.
+   */
+  @Test
+  void testGetClassSettings_noPreferenceValues_empty() throws BackingStoreException {
+    // Call the code under test.
+    OptionalInt numberOfGrids = PreferenceHelper.getClassNumberOfGrids("testClass");
+    OptionalInt numberOfHeats = PreferenceHelper.getClassNumberOfHeats("testClass");
+    Optional<String> groupingFilter = PreferenceHelper
+      .getClassParticipantGroupingFilter("testClass");
+    OptionalInt groupingThreshold = PreferenceHelper
+      .getClassParticipantGroupingThreshold("testClass");
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The number of grids did not match the expected value.",
+      numberOfGrids, CoreMatchers.is(OptionalInt.empty()));
+    MatcherAssert.assertThat("The number of heats did not match the expected value.",
+      numberOfHeats, CoreMatchers.is(OptionalInt.empty()));
+    MatcherAssert.assertThat("The grouping filter did not match the expected value.",
+      groupingFilter, CoreMatchers.is(Optional.empty()));
+    MatcherAssert.assertThat("The grouping threshold did not match the expected value.",
+      groupingThreshold, CoreMatchers.is(OptionalInt.empty()));
+    MatcherAssert.assertThat("The class settings node existence did not match the expected value.",
+      preferenceTestHelper.getPreferences().nodeExists("classSettings/testClass"),
+      CoreMatchers.is(false));
+  }
+
+  /**
+   * Test that a class's settings are returned for that class only.
+   */
+  @Test
+  void testGetClassSettings_hasPreferenceValues_classPreferenceValues()
+    throws BackingStoreException {
+    // Set up test scenario.
+    PreferenceHelper.setNumberOfGrids(8);
+    PreferenceHelper.setClassNumberOfGrids("testClass", 6);
+    PreferenceHelper.setClassNumberOfHeats("testClass", 2);
+    PreferenceHelper.setClassParticipantGroupingFilter("testClass", "NW\\d+");
+    PreferenceHelper.setClassParticipantGroupingThreshold("testClass", 3);
+
+    // Call the code under test.
+    OptionalInt numberOfGrids = PreferenceHelper.getClassNumberOfGrids("testClass");
+    OptionalInt numberOfHeats = PreferenceHelper.getClassNumberOfHeats("testClass");
+    Optional<String> groupingFilter = PreferenceHelper
+      .getClassParticipantGroupingFilter("testClass");
+    OptionalInt groupingThreshold = PreferenceHelper
+      .getClassParticipantGroupingThreshold("testClass");
+    OptionalInt otherNumberOfGrids = PreferenceHelper.getClassNumberOfGrids("otherClass");
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The number of grids did not match the expected value.",
+      numberOfGrids, CoreMatchers.is(OptionalInt.of(6)));
+    MatcherAssert.assertThat("The number of heats did not match the expected value.",
+      numberOfHeats, CoreMatchers.is(OptionalInt.of(2)));
+    MatcherAssert.assertThat("The grouping filter did not match the expected value.",
+      groupingFilter, CoreMatchers.is(Optional.of("NW\\d+")));
+    MatcherAssert.assertThat("The grouping threshold did not match the expected value.",
+      groupingThreshold, CoreMatchers.is(OptionalInt.of(3)));
+    MatcherAssert.assertThat("The other class's number of grids did not match the expected value.",
+      otherNumberOfGrids, CoreMatchers.is(OptionalInt.empty()));
+    MatcherAssert.assertThat("The number of grids did not match the expected value.",
+      PreferenceHelper.getNumberOfGrids(), CoreMatchers.is(8));
+  }
+
+  /**
+   * Test that a class's settings are no longer returned once they are removed.
+   */
+  @Test
+  void testRemoveClassSettings_hasPreferenceValues_settingsRemoved()
+    throws BackingStoreException {
+    // Set up test scenario.
+    PreferenceHelper.setClassNumberOfGrids("testClass", 6);
+
+    // Call the code under test.
+    PreferenceHelper.removeClassSettings("testClass");
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The number of grids did not match the expected value.",
+      PreferenceHelper.getClassNumberOfGrids("testClass"), CoreMatchers.is(OptionalInt.empty()));
+  }
+
+  /**
+   * Test that added participants are appended to existing classes without duplicates, new classes
+   * are created and only the classes with new participants are reported as changed.
+   */
+  @Test
+  void testAddClassParticipants_existingAndNewClasses_participantsAdded()
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    // Set up test scenario.
+    PreferenceHelper.setParticipantClassNames(Arrays.asList("class1", "class2"));
+    PreferenceHelper.setClassParticipants("class1", Arrays.asList("A1", "B2"));
+    PreferenceHelper.setClassParticipants("class2", Collections.singletonList("C3"));
+
+    Map<String, List<String>> classParticipants = new LinkedHashMap<>();
+    classParticipants.put("class1", Arrays.asList("B2", "D4", "D4"));
+    classParticipants.put("class2", Collections.singletonList("C3"));
+    classParticipants.put("class3", Collections.singletonList("E5"));
+
+    // Call the code under test.
+    Set<String> changedClassNames = PreferenceHelper.addClassParticipants(classParticipants);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The changed class names did not match the expected value.",
+      new ArrayList<>(changedClassNames), CoreMatchers.is(Arrays.asList("class1", "class3")));
+    MatcherAssert.assertThat("The class names did not match the expected value.",
+      PreferenceHelper.getParticipantClassNames(),
+      CoreMatchers.is(Arrays.asList("class1", "class2", "class3")));
+    MatcherAssert.assertThat("The first class's participants did not match the expected value.",
+      PreferenceHelper.getClassParticipants("class1"),
+      CoreMatchers.is(Arrays.asList("A1", "B2", "D4")));
+    MatcherAssert.assertThat("The second class's participants did not match the expected value.",
+      PreferenceHelper.getClassParticipants("class2"),
+      CoreMatchers.is(Collections.singletonList("C3")));
+    MatcherAssert.assertThat("The third class's participants did not match the expected value.",
+      PreferenceHelper.getClassParticipants("class3"),
+      CoreMatchers.is(Collections.singletonList("E5")));
+  }
+
+  /**
+   * Test that only the given participants are removed from a class's stored participants.
+   */
+  @Test
+  void testRemoveClassParticipants_storedParticipants_onlyGivenParticipantsRemoved()
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    // Set up test scenario.
+    PreferenceHelper.setClassParticipants("class1", Arrays.asList("A1", "B2", "C3"));
+
+    // Call the code under test.
+    PreferenceHelper.removeClassParticipants("class1", Arrays.asList("B2", "D4"));
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The class's participants did not match the expected value.",
+      PreferenceHelper.getClassParticipants("class1"), CoreMatchers.is(Arrays.asList("A1", "C3")));
+  }
+
+  private byte[] serialize(Object object) throws IOException {
+    try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+      oos.writeObject(object);
+      oos.flush();
+      return baos.toByteArray();
+    }
+  }
 }
@@ -19,6 +19,7 @@
 
 package com.judge40.gridgenerator;
 
+import com.judge40.gridgenerator.storage.PreferenceStorage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -38,7 +39,8 @@ public class PreferenceTestHelper {
    * Performs a backup of the current preference values and then clears all preferences.
    */
   public PreferenceTestHelper() throws BackingStoreException, IOException {
-    preferences = Preferences.userNodeForPackage(GridGenerator.class);
+    preferences = PreferenceStorage.getUserRoot()
+      .node(GridGenerator.class.getPackageName().replace('.', '/'));
     backupPreferences();
     clearPreferences();
   }
@@ -70,7 +72,7 @@ public class PreferenceTestHelper {
     clearPreferences();
 
     try (ByteArrayInputStream bais = new ByteArrayInputStream(originalPreferenceBackup)) {
-      Preferences.importPreferences(bais);
+      PreferenceStorage.importPreferences(bais);
     }
   }
 
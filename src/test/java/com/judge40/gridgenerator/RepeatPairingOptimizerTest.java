@@ -0,0 +1,141 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit tests for {@link RepeatPairingOptimizer}.
+ */
+class RepeatPairingOptimizerTest {
+
+  private static final long TIME_LIMIT = TimeUnit.SECONDS.toNanos(10);
+
+  /**
+   * Test that races identical to the previous heat are mixed so each race has the fewest possible
+   * repeated pairings, two from each of the previous races.
+   */
+  @Test
+  void testOptimize_repeatedRaces_repeatedPairingsMinimized() {
+    // Set up test scenario.
+    List<List<String>> previousRaces = Arrays.asList(Arrays.asList("A1", "A2", "A3", "A4"),
+      Arrays.asList("B1", "B2", "B3", "B4"));
+    List<List<String>> races = Arrays.asList(Arrays.asList("A1", "A2", "A3", "A4"),
+      Arrays.asList("B1", "B2", "B3", "B4"));
+
+    // Call the code under test.
+    List<List<String>> optimizedRaces = RepeatPairingOptimizer.optimize(races,
+      Collections.singletonList(previousRaces), createClassifier("$^"), TIME_LIMIT, 1).getRaces();
+
+    // Perform assertions.
+    for (List<String> race : optimizedRaces) {
+      long fromFirstRace = race.stream().filter(participant -> participant.startsWith("A"))
+        .count();
+      MatcherAssert.assertThat("The number of participants from the first race did not match the "
+        + "expected value.", fromFirstRace, CoreMatchers.is(2L));
+    }
+  }
+
+  /**
+   * Test that grouped participants are only swapped with grouped participants, and empty grids are
+   * not moved.
+   */
+  @Test
+  void testOptimize_groupedParticipants_groupingPreserved() {
+    // Set up test scenario.
+    List<List<String>> previousRaces = Arrays.asList(Arrays.asList("NW1", "NW2", "A1", "A2"),
+      Arrays.asList("NW3", "NW4", "B1", ""));
+    List<List<String>> races = Arrays.asList(Arrays.asList("NW1", "NW2", "A1", "A2"),
+      Arrays.asList("NW3", "NW4", "B1", ""));
+
+    // Call the code under test.
+    List<List<String>> optimizedRaces = RepeatPairingOptimizer.optimize(races,
+      Collections.singletonList(previousRaces), createClassifier("NW\\d+"), TIME_LIMIT, 1)
+      .getRaces();
+
+    // Perform assertions.
+    for (int race = 0; race < races.size(); race++) {
+      for (int grid = 0; grid < 4; grid++) {
+        MatcherAssert.assertThat("The grid's grouping did not match the expected value.",
+          optimizedRaces.get(race).get(grid).startsWith("NW"),
+          CoreMatchers.is(races.get(race).get(grid).startsWith("NW")));
+      }
+    }
+
+    MatcherAssert.assertThat("The empty grid did not match the expected value.",
+      optimizedRaces.get(1).get(3), CoreMatchers.is(""));
+    MatcherAssert.assertThat("The optimized races did not match the expected value.",
+      optimizedRaces, CoreMatchers.not(races));
+  }
+
+  /**
+   * Test that the races are returned unchanged when there are no previous heats.
+   */
+  @Test
+  void testOptimize_noPreviousHeats_racesUnchanged() {
+    // Set up test scenario.
+    List<List<String>> races = Arrays.asList(Arrays.asList("A1", "A2"), Arrays.asList("B1", "B2"));
+
+    // Call the code under test.
+    List<List<String>> optimizedRaces = RepeatPairingOptimizer.optimize(races,
+      Collections.emptyList(), createClassifier("$^"), TIME_LIMIT, 1).getRaces();
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The races did not match the expected value.", optimizedRaces,
+      CoreMatchers.sameInstance(races));
+  }
+
+  /**
+   * Test that the same races are returned for the same seed when repeated pairings cannot be
+   * avoided, so every worker makes its full budget of attempts without reaching the time limit.
+   */
+  @Test
+  void testOptimize_sameSeed_sameRaces() {
+    // Set up test scenario.
+    List<List<String>> previousRaces = Arrays.asList(
+      Arrays.asList("A1", "A2", "A3", "A4", "A5", "A6"),
+      Arrays.asList("B1", "B2", "B3", "B4", "B5", "B6"),
+      Arrays.asList("C1", "C2", "C3", "C4", "C5", "C6"));
+    // Call the code under test.
+    RepeatPairingOptimizer.Optimization first = RepeatPairingOptimizer.optimize(previousRaces,
+      Collections.singletonList(previousRaces), createClassifier("$^"), TIME_LIMIT, 7);
+    RepeatPairingOptimizer.Optimization second = RepeatPairingOptimizer.optimize(previousRaces,
+      Collections.singletonList(previousRaces), createClassifier("$^"), TIME_LIMIT, 7);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The races did not match the expected value.", second.getRaces(),
+      CoreMatchers.is(first.getRaces()));
+    MatcherAssert.assertThat("The first deadline reached did not match the expected value.",
+      first.isDeadlineReached(), CoreMatchers.is(false));
+    MatcherAssert.assertThat("The second deadline reached did not match the expected value.",
+      second.isDeadlineReached(), CoreMatchers.is(false));
+  }
+
+  private ParticipantClassifier createClassifier(String groupingFilter) {
+    return new ParticipantClassifier(Pattern.compile(groupingFilter));
+  }
+}
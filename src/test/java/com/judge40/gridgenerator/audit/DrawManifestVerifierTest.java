@@ -0,0 +1,192 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.audit;
+
+import com.judge40.gridgenerator.DrawConfiguration;
+import com.judge40.gridgenerator.DrawManifest;
+import com.judge40.gridgenerator.DrawMode;
+import com.judge40.gridgenerator.GridDrawHelper;
+import com.judge40.gridgenerator.audit.DrawManifestVerifier.Status;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit tests for {@link DrawManifestVerifier}.
+ */
+class DrawManifestVerifierTest {
+
+  private static final List<String> PARTICIPANTS =
+    Arrays.asList("A1", "A2", "A3", "A4", "A5", "B1", "B2", "B3");
+  private static final DrawConfiguration CONFIGURATION =
+    new DrawConfiguration(4, 3, "^A", 2, DrawMode.BALANCED, 0);
+  private static final DrawConfiguration OPTIMIZED_CONFIGURATION =
+    new DrawConfiguration(4, 3, "^A", 2, DrawMode.OPTIMIZED, 10_000);
+
+  /**
+   * Test that a batch of draws made from unchanged participants are verified.
+   */
+  @Test
+  void testVerify_unchangedInputs_verified() {
+    // Set up test scenario.
+    List<DrawManifest> manifests = new ArrayList<>();
+
+    for (long salt = 0; salt < 1000; salt++) {
+      manifests.add(createManifest(PARTICIPANTS, salt));
+    }
+
+    DrawManifestVerifier verifier = new DrawManifestVerifier(Map.of("Class 1", PARTICIPANTS)::get);
+
+    // Call the code under test.
+    List<Status> statuses = verifier.verify(manifests);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The statuses did not match the expected value.",
+      statuses, CoreMatchers.is(Collections.nCopies(1000, Status.VERIFIED)));
+  }
+
+  /**
+   * Test that a draw is not verified when the class's participants have changed or the class is
+   * unknown.
+   */
+  @Test
+  void testVerify_participantsChanged_participantsChanged() {
+    // Set up test scenario.
+    DrawManifest manifest = createManifest(PARTICIPANTS, 1);
+    Map<String, List<String>> participants = new HashMap<>();
+    participants.put("Class 1", Arrays.asList("A1", "A2", "A3", "A4", "A5", "B1", "B3", "B2"));
+
+    DrawManifestVerifier verifier = new DrawManifestVerifier(participants::get);
+    DrawManifestVerifier unknownClassVerifier = new DrawManifestVerifier(className -> null);
+
+    // Call the code under test.
+    Status status = verifier.verify(manifest);
+    Status unknownClassStatus = unknownClassVerifier.verify(manifest);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The status did not match the expected value.",
+      status, CoreMatchers.is(Status.PARTICIPANTS_CHANGED));
+    MatcherAssert.assertThat("The unknown class status did not match the expected value.",
+      unknownClassStatus, CoreMatchers.is(Status.PARTICIPANTS_CHANGED));
+  }
+
+  /**
+   * Test that a draw is not verified when the recorded draw differs from the reproduced draw.
+   */
+  @Test
+  void testVerify_drawDiffers_drawMismatch() {
+    // Set up test scenario.
+    DrawManifest drawnManifest = createManifest(PARTICIPANTS, 1);
+    DrawManifest manifest = new DrawManifest(DrawManifest.VERSION, "Class 1", 2,
+      drawnManifest.getExcludedGrids(), CONFIGURATION, DrawManifest.OPTIMIZATION_BUDGET,
+      drawnManifest.getParticipantsDigest(), drawnManifest.getDrawDigest());
+    DrawManifestVerifier verifier = new DrawManifestVerifier(Map.of("Class 1", PARTICIPANTS)::get);
+
+    // Call the code under test.
+    Status status = verifier.verify(manifest);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The status did not match the expected value.",
+      status, CoreMatchers.is(Status.DRAW_MISMATCH));
+  }
+
+  /**
+   * Test that a manifest from an unknown seed derivation version is not verified.
+   */
+  @Test
+  void testVerify_unknownVersion_unsupportedVersion() {
+    // Set up test scenario.
+    DrawManifest drawnManifest = createManifest(PARTICIPANTS, 1);
+    DrawManifest manifest = new DrawManifest(DrawManifest.VERSION + 1, "Class 1", 1,
+      drawnManifest.getExcludedGrids(), CONFIGURATION, DrawManifest.OPTIMIZATION_BUDGET,
+      drawnManifest.getParticipantsDigest(), drawnManifest.getDrawDigest());
+    DrawManifestVerifier verifier = new DrawManifestVerifier(Map.of("Class 1", PARTICIPANTS)::get);
+
+    // Call the code under test.
+    Status status = verifier.verify(manifest);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The status did not match the expected value.",
+      status, CoreMatchers.is(Status.UNSUPPORTED_VERSION));
+  }
+
+  /**
+   * Test that a batch of optimized draws made from unchanged participants are verified.
+   */
+  @Test
+  void testVerify_optimizedDraws_verified() {
+    // Set up test scenario.
+    List<DrawManifest> manifests = new ArrayList<>();
+
+    for (long salt = 0; salt < 10; salt++) {
+      manifests.add(createManifest(PARTICIPANTS, salt, OPTIMIZED_CONFIGURATION));
+      manifests.add(createManifest(PARTICIPANTS, salt));
+    }
+
+    DrawManifestVerifier verifier = new DrawManifestVerifier(Map.of("Class 1", PARTICIPANTS)::get);
+
+    // Call the code under test.
+    List<Status> statuses = verifier.verify(manifests);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The statuses did not match the expected value.",
+      statuses, CoreMatchers.is(Collections.nCopies(20, Status.VERIFIED)));
+  }
+
+  /**
+   * Test that an optimized draw made with a different optimization budget is not verifiable,
+   * rather than mismatched.
+   */
+  @Test
+  void testVerify_optimizedWithOtherBudget_notVerifiable() {
+    // Set up test scenario.
+    DrawManifest drawnManifest = createManifest(PARTICIPANTS, 1, OPTIMIZED_CONFIGURATION);
+    DrawManifest manifest = new DrawManifest(DrawManifest.VERSION, "Class 1", 1,
+      drawnManifest.getExcludedGrids(), OPTIMIZED_CONFIGURATION, "",
+      drawnManifest.getParticipantsDigest(), drawnManifest.getDrawDigest());
+    DrawManifestVerifier verifier = new DrawManifestVerifier(Map.of("Class 1", PARTICIPANTS)::get);
+
+    // Call the code under test.
+    Status status = verifier.verify(manifest);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The status did not match the expected value.",
+      status, CoreMatchers.is(Status.NOT_VERIFIABLE));
+  }
+
+  private DrawManifest createManifest(List<String> participants, long salt) {
+    return createManifest(participants, salt, CONFIGURATION);
+  }
+
+  private DrawManifest createManifest(List<String> participants, long salt,
+    DrawConfiguration configuration) {
+    Set<Integer> excludedGrids = Set.of(2);
+    List<List<List<String>>> heats =
+      GridDrawHelper.drawGrids(participants, excludedGrids, configuration, salt);
+    return DrawManifest.create("Class 1", participants, excludedGrids, configuration, salt, heats);
+  }
+}
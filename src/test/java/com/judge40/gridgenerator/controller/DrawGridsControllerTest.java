@@ -21,20 +21,26 @@ package com.judge40.gridgenerator.controller;
 
 import com.judge40.gridgenerator.PreferenceHelper;
 import com.judge40.gridgenerator.PreferenceTestHelper;
+import com.judge40.gridgenerator.view.HeatGridCanvas;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
 import java.util.prefs.BackingStoreException;
 import java.util.prefs.InvalidPreferencesFormatException;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
@@ -97,7 +103,7 @@ class DrawGridsControllerTest {
    */
   @Test
   void testInitialize_en_labelsEnglish(FxRobot robot)
-    throws BackingStoreException, IOException {
+    throws BackingStoreException, ClassNotFoundException, IOException {
     // Set up test scenario.
     Locale.setDefault(Locale.ENGLISH);
     ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
@@ -111,8 +117,7 @@ class DrawGridsControllerTest {
     PreferenceHelper.setNumberOfHeats(2);
 
     // Call the code under test.
-    VBox drawGridsLayout = FXMLLoader
-      .load(getClass().getResource("/fxml/draw-grids.fxml"), labelsBundle);
+    VBox drawGridsLayout = loadDrawGridsLayout(labelsBundle);
     Scene scene = new Scene(drawGridsLayout);
 
     robot.interact(() -> {
@@ -156,7 +161,7 @@ class DrawGridsControllerTest {
    */
   @Test
   void testInitialize_enPseudo_labelsPseudoEnglish(FxRobot robot)
-    throws BackingStoreException, IOException {
+    throws BackingStoreException, ClassNotFoundException, IOException {
     // Set up test scenario.
     Locale.setDefault(new Locale("en", "PSEUDO"));
     ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
@@ -170,8 +175,7 @@ class DrawGridsControllerTest {
     PreferenceHelper.setNumberOfHeats(2);
 
     // Call the code under test.
-    VBox drawGridsLayout = FXMLLoader
-      .load(getClass().getResource("/fxml/draw-grids.fxml"), labelsBundle);
+    VBox drawGridsLayout = loadDrawGridsLayout(labelsBundle);
     Scene scene = new Scene(drawGridsLayout);
 
     robot.interact(() -> {
@@ -215,7 +219,7 @@ class DrawGridsControllerTest {
    */
   @Test
   void testInitialize_zeroGridsEn_gridSelectorDisabledTextEnglish(FxRobot robot)
-    throws IOException {
+    throws BackingStoreException, ClassNotFoundException, IOException {
     // Set up test scenario.
     Locale.setDefault(Locale.ENGLISH);
     ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
@@ -223,8 +227,7 @@ class DrawGridsControllerTest {
     PreferenceHelper.setNumberOfGrids(0);
 
     // Call the code under test.
-    VBox drawGridsLayout = FXMLLoader
-      .load(getClass().getResource("/fxml/draw-grids.fxml"), labelsBundle);
+    VBox drawGridsLayout = loadDrawGridsLayout(labelsBundle);
     Scene scene = new Scene(drawGridsLayout);
 
     robot.interact(() -> {
@@ -248,7 +251,7 @@ class DrawGridsControllerTest {
    */
   @Test
   void testInitialize_zeroGridsEnPseudo_gridSelectorDisabledTextPseudoEnglish(FxRobot robot)
-    throws IOException {
+    throws BackingStoreException, ClassNotFoundException, IOException {
     // Set up test scenario.
     Locale.setDefault(new Locale("en", "PSEUDO"));
     ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
@@ -256,8 +259,7 @@ class DrawGridsControllerTest {
     PreferenceHelper.setNumberOfGrids(0);
 
     // Call the code under test.
-    VBox drawGridsLayout = FXMLLoader
-      .load(getClass().getResource("/fxml/draw-grids.fxml"), labelsBundle);
+    VBox drawGridsLayout = loadDrawGridsLayout(labelsBundle);
     Scene scene = new Scene(drawGridsLayout);
 
     robot.interact(() -> {
@@ -280,15 +282,14 @@ class DrawGridsControllerTest {
    */
   @Test
   void testInitialize_hasGrids_gridSelectorHasGrids(FxRobot robot)
-    throws IOException {
+    throws BackingStoreException, ClassNotFoundException, IOException {
     // Set up test scenario.
     ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
 
     PreferenceHelper.setNumberOfGrids(4);
 
     // Call the code under test.
-    VBox drawGridsLayout = FXMLLoader
-      .load(getClass().getResource("/fxml/draw-grids.fxml"), labelsBundle);
+    VBox drawGridsLayout = loadDrawGridsLayout(labelsBundle);
     Scene scene = new Scene(drawGridsLayout);
 
     robot.interact(() -> {
@@ -315,15 +316,14 @@ class DrawGridsControllerTest {
    */
   @Test
   void testInitialize_gridSelectedByCell_gridSelectorDisplaysGrid(FxRobot robot)
-    throws IOException {
+    throws BackingStoreException, ClassNotFoundException, IOException {
     // Set up test scenario.
     ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
 
     PreferenceHelper.setNumberOfGrids(4);
 
     // Call the code under test.
-    VBox drawGridsLayout = FXMLLoader
-      .load(getClass().getResource("/fxml/draw-grids.fxml"), labelsBundle);
+    VBox drawGridsLayout = loadDrawGridsLayout(labelsBundle);
     Scene scene = new Scene(drawGridsLayout);
 
     robot.interact(() -> {
@@ -347,15 +347,14 @@ class DrawGridsControllerTest {
    */
   @Test
   void testInitialize_gridSelectedByCheckbox_gridSelectorDisplaysGrid(FxRobot robot)
-    throws IOException {
+    throws BackingStoreException, ClassNotFoundException, IOException {
     // Set up test scenario.
     ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
 
     PreferenceHelper.setNumberOfGrids(4);
 
     // Call the code under test.
-    VBox drawGridsLayout = FXMLLoader
-      .load(getClass().getResource("/fxml/draw-grids.fxml"), labelsBundle);
+    VBox drawGridsLayout = loadDrawGridsLayout(labelsBundle);
     Scene scene = new Scene(drawGridsLayout);
 
     robot.interact(() -> {
@@ -380,15 +379,14 @@ class DrawGridsControllerTest {
    */
   @Test
   void testInitialize_gridsSelected_gridSelectorDisplaysGrids(FxRobot robot)
-    throws IOException {
+    throws BackingStoreException, ClassNotFoundException, IOException {
     // Set up test scenario.
     ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
 
     PreferenceHelper.setNumberOfGrids(4);
 
     // Call the code under test.
-    VBox drawGridsLayout = FXMLLoader
-      .load(getClass().getResource("/fxml/draw-grids.fxml"), labelsBundle);
+    VBox drawGridsLayout = loadDrawGridsLayout(labelsBundle);
     Scene scene = new Scene(drawGridsLayout);
 
     robot.interact(() -> {
@@ -415,7 +413,7 @@ class DrawGridsControllerTest {
    */
   @Test
   void testInitialize_classHasNoParticipants_classTabDisabled(FxRobot robot)
-    throws BackingStoreException, IOException {
+    throws BackingStoreException, ClassNotFoundException, IOException {
     // Set up test scenario.
     Locale.setDefault(Locale.ENGLISH);
     ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
@@ -427,8 +425,7 @@ class DrawGridsControllerTest {
     PreferenceHelper.setNumberOfHeats(2);
 
     // Call the code under test.
-    VBox drawGridsLayout = FXMLLoader
-      .load(getClass().getResource("/fxml/draw-grids.fxml"), labelsBundle);
+    VBox drawGridsLayout = loadDrawGridsLayout(labelsBundle);
     Scene scene = new Scene(drawGridsLayout);
 
     robot.interact(() -> {
@@ -464,7 +461,7 @@ class DrawGridsControllerTest {
    */
   @Test
   void testInitialize_classHasParticipantsEn_drawnGridsDisplayedHeadersEnglish(FxRobot robot)
-    throws BackingStoreException, IOException {
+    throws BackingStoreException, ClassNotFoundException, IOException {
     // Set up test scenario.
     Locale.setDefault(Locale.ENGLISH);
     ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
@@ -476,8 +473,7 @@ class DrawGridsControllerTest {
     PreferenceHelper.setNumberOfHeats(2);
 
     // Call the code under test.
-    VBox drawGridsLayout = FXMLLoader
-      .load(getClass().getResource("/fxml/draw-grids.fxml"), labelsBundle);
+    VBox drawGridsLayout = loadDrawGridsLayout(labelsBundle);
     Scene scene = new Scene(drawGridsLayout);
 
     robot.interact(() -> {
@@ -583,7 +579,7 @@ class DrawGridsControllerTest {
   @Test
   void testInitialize_classHasParticipantsEnPseudo_drawnGridsDisplayedHeadersPseudoEnglish(
     FxRobot robot)
-    throws BackingStoreException, IOException {
+    throws BackingStoreException, ClassNotFoundException, IOException {
     // Set up test scenario.
     Locale.setDefault(new Locale("en", "PSEUDO"));
     ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
@@ -595,8 +591,7 @@ class DrawGridsControllerTest {
     PreferenceHelper.setNumberOfHeats(2);
 
     // Call the code under test.
-    VBox drawGridsLayout = FXMLLoader
-      .load(getClass().getResource("/fxml/draw-grids.fxml"), labelsBundle);
+    VBox drawGridsLayout = loadDrawGridsLayout(labelsBundle);
     Scene scene = new Scene(drawGridsLayout);
 
     robot.interact(() -> {
@@ -694,4 +689,200 @@ class DrawGridsControllerTest {
     MatcherAssert.assertThat("The number of participants did not match the expected value.",
       realParticipants.size(), CoreMatchers.is(2));
   }
+
+  /**
+   * Test that the drawn grids are displayed on a canvas instead of tables when the class has more
+   * races than the canvas threshold.
+   */
+  @Test
+  void testInitialize_classHasManyRaces_drawnGridsDisplayedOnCanvas(FxRobot robot)
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    // Set up test scenario.
+    Locale.setDefault(Locale.ENGLISH);
+    ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
+
+    List<String> participants = IntStream.rangeClosed(1, 200).mapToObj(i -> "A" + i)
+      .collect(Collectors.toList());
+    PreferenceHelper.setParticipantClassNames(Collections.singletonList("class"));
+    PreferenceHelper.setClassParticipants("class", participants);
+
+    PreferenceHelper.setNumberOfGrids(4);
+    PreferenceHelper.setNumberOfHeats(2);
+
+    // Call the code under test.
+    VBox drawGridsLayout = loadDrawGridsLayout(labelsBundle);
+    Scene scene = new Scene(drawGridsLayout);
+
+    robot.interact(() -> {
+      stage.setScene(scene);
+      stage.show();
+    });
+
+    // Perform assertions.
+    HeatGridCanvas heatGridCanvas = robot.lookup("#heatGridCanvas").query();
+    MatcherAssert.assertThat("The heat grid canvas was not displayed.", heatGridCanvas,
+      CoreMatchers.notNullValue());
+    MatcherAssert.assertThat("The number of heat tables did not match the expected value.",
+      robot.lookup("#heatTable1").tryQuery().isPresent(), CoreMatchers.is(false));
+  }
+
+  /**
+   * Test that only the changed classes are redrawn, the tabs of unchanged classes are kept and tabs
+   * are added for new classes.
+   */
+  @Test
+  void testRedrawClasses_classesChanged_onlyChangedClassesRedrawn(FxRobot robot)
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    // Set up test scenario.
+    Locale.setDefault(Locale.ENGLISH);
+    ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
+
+    PreferenceHelper.setParticipantClassNames(Arrays.asList("class1", "class2"));
+    PreferenceHelper.setClassParticipants("class2", Collections.singletonList("participant"));
+
+    PreferenceHelper.setNumberOfGrids(4);
+    PreferenceHelper.setNumberOfHeats(2);
+
+    FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/draw-grids.fxml"),
+      labelsBundle);
+    VBox drawGridsLayout = loader.load();
+    loader.<DrawGridsController>getController().refresh();
+    Scene scene = new Scene(drawGridsLayout);
+
+    robot.interact(() -> {
+      stage.setScene(scene);
+      stage.show();
+    });
+
+    TabPane drawnGridsDisplay = robot.lookup("#drawnGridsDisplay").query();
+    Tab firstTab = drawnGridsDisplay.getTabs().get(0);
+    Tab secondTab = drawnGridsDisplay.getTabs().get(1);
+    Node secondTabContent = secondTab.getContent();
+
+    Map<String, List<String>> classParticipants = new LinkedHashMap<>();
+    classParticipants.put("class1", Collections.singletonList("participant"));
+    classParticipants.put("class3", Collections.singletonList("participant"));
+    Set<String> changedClassNames = PreferenceHelper.addClassParticipants(classParticipants);
+    DrawGridsController controller = loader.getController();
+
+    // Call the code under test.
+    controller.redrawClasses(changedClassNames);
+
+    // Perform assertions.
+    ObservableList<Tab> tabs = drawnGridsDisplay.getTabs();
+    MatcherAssert.assertThat("The class tab names did not match the expected value.",
+      tabs.stream().map(Tab::getText).collect(Collectors.toList()),
+      CoreMatchers.is(Arrays.asList("class1", "class2", "class3")));
+    MatcherAssert.assertThat("The first class's tab did not match the expected value.",
+      tabs.get(0), CoreMatchers.sameInstance(firstTab));
+    MatcherAssert.assertThat("The first tab's disabled state did not match the expected value.",
+      firstTab.isDisabled(), CoreMatchers.is(false));
+    MatcherAssert.assertThat("The second tab's content did not match the expected value.",
+      secondTab.getContent(), CoreMatchers.sameInstance(secondTabContent));
+    MatcherAssert.assertThat("The third tab's disabled state did not match the expected value.",
+      tabs.get(2).isDisabled(), CoreMatchers.is(false));
+  }
+
+  /**
+   * Test that each of the classes which share a name is redrawn in to its own tab.
+   */
+  @Test
+  void testRedrawClasses_duplicateClassNames_classRedrawn(FxRobot robot)
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    // Set up test scenario.
+    Locale.setDefault(Locale.ENGLISH);
+    ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
+
+    PreferenceHelper.setParticipantClassNames(Arrays.asList("class1", "class1"));
+
+    PreferenceHelper.setNumberOfGrids(4);
+    PreferenceHelper.setNumberOfHeats(2);
+
+    FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/draw-grids.fxml"),
+      labelsBundle);
+    VBox drawGridsLayout = loader.load();
+    loader.<DrawGridsController>getController().refresh();
+    Scene scene = new Scene(drawGridsLayout);
+
+    robot.interact(() -> {
+      stage.setScene(scene);
+      stage.show();
+    });
+
+    TabPane drawnGridsDisplay = robot.lookup("#drawnGridsDisplay").query();
+    PreferenceHelper.setClassParticipants("class1", Collections.singletonList("participant"));
+    DrawGridsController controller = loader.getController();
+
+    // Call the code under test.
+    controller.redrawClasses(Collections.singleton("class1"));
+
+    // Perform assertions.
+    ObservableList<Tab> tabs = drawnGridsDisplay.getTabs();
+    MatcherAssert.assertThat("The class tab names did not match the expected value.",
+      tabs.stream().map(Tab::getText).collect(Collectors.toList()),
+      CoreMatchers.is(Arrays.asList("class1", "class1")));
+    MatcherAssert.assertThat("The first tab's disabled state did not match the expected value.",
+      tabs.get(0).isDisabled(), CoreMatchers.is(false));
+    MatcherAssert.assertThat("The second tab's disabled state did not match the expected value.",
+      tabs.get(1).isDisabled(), CoreMatchers.is(false));
+  }
+
+  /**
+   * Test that the tabs of classes which no longer exist are removed, and the remaining tabs are
+   * kept.
+   */
+  @Test
+  void testRedrawClasses_classRemoved_classTabRemoved(FxRobot robot)
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    // Set up test scenario.
+    Locale.setDefault(Locale.ENGLISH);
+    ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
+
+    PreferenceHelper.setParticipantClassNames(Arrays.asList("class1", "class2"));
+
+    PreferenceHelper.setNumberOfGrids(4);
+    PreferenceHelper.setNumberOfHeats(2);
+
+    FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/draw-grids.fxml"),
+      labelsBundle);
+    VBox drawGridsLayout = loader.load();
+    loader.<DrawGridsController>getController().refresh();
+    Scene scene = new Scene(drawGridsLayout);
+
+    robot.interact(() -> {
+      stage.setScene(scene);
+      stage.show();
+    });
+
+    TabPane drawnGridsDisplay = robot.lookup("#drawnGridsDisplay").query();
+    Tab secondTab = drawnGridsDisplay.getTabs().get(1);
+    PreferenceHelper.setParticipantClassNames(Collections.singletonList("class2"));
+    DrawGridsController controller = loader.getController();
+
+    // Call the code under test.
+    controller.redrawClasses(Collections.emptySet());
+
+    // Perform assertions.
+    ObservableList<Tab> tabs = drawnGridsDisplay.getTabs();
+    MatcherAssert.assertThat("The class tab names did not match the expected value.",
+      tabs.stream().map(Tab::getText).collect(Collectors.toList()),
+      CoreMatchers.is(Collections.singletonList("class2")));
+    MatcherAssert.assertThat("The remaining class's tab did not match the expected value.",
+      tabs.get(0), CoreMatchers.sameInstance(secondTab));
+  }
+
+  /**
+   * Load the draw grids layout and refresh it, as is done before the layout is displayed.
+   *
+   * @param labelsBundle The resource bundle to use for the layout's labels.
+   * @return The draw grids layout.
+   */
+  private VBox loadDrawGridsLayout(ResourceBundle labelsBundle)
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/draw-grids.fxml"),
+      labelsBundle);
+    VBox drawGridsLayout = loader.load();
+    loader.<DrawGridsController>getController().refresh();
+    return drawGridsLayout;
+  }
 }
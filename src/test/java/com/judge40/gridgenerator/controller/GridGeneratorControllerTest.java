@@ -87,6 +87,36 @@ class GridGeneratorControllerTest {
       inputParticipants.getId(), CoreMatchers.is("inputParticipantLayout"));
   }
 
+  /**
+   * Test that the previously loaded layouts are reused when navigating back to them.
+   */
+  @Test
+  void testDisplay_navigatedBack_layoutsReused(FxRobot robot) {
+    // Set up test scenario.
+    robot.clickOn("#navigateMenu");
+    robot.clickOn("#drawGridsMenuItem");
+    BorderPane mainLayout = robot.lookup("#mainLayout").query();
+    Node drawGrids = mainLayout.getCenter();
+
+    robot.clickOn("#navigateMenu");
+    robot.clickOn("#inputParticipantsMenuItem");
+    Node inputParticipants = mainLayout.getCenter();
+
+    // Call the code under test.
+    robot.clickOn("#navigateMenu");
+    robot.clickOn("#drawGridsMenuItem");
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The draw grids layout was not reused.", mainLayout.getCenter(),
+      CoreMatchers.sameInstance(drawGrids));
+
+    robot.clickOn("#navigateMenu");
+    robot.clickOn("#inputParticipantsMenuItem");
+
+    MatcherAssert.assertThat("The input participants layout was not reused.",
+      mainLayout.getCenter(), CoreMatchers.sameInstance(inputParticipants));
+  }
+
   /**
    * Test that the application is terminated when the exit action is triggered.
    */
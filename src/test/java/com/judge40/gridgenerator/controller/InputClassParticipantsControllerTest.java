@@ -23,6 +23,7 @@ import com.judge40.gridgenerator.PreferenceHelper;
 import com.judge40.gridgenerator.PreferenceTestHelper;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -550,6 +551,46 @@ class InputClassParticipantsControllerTest {
       storedParticipants.get(2), CoreMatchers.is("participant3"));
   }
 
+  /**
+   * Test that participants stored after the participants were displayed, such as ingested entries,
+   * are kept when a participant is added.
+   */
+  @Test
+  void testInitializeData_participantAddedAfterStoredChange_storedParticipantsKept(FxRobot robot)
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    // Set up test scenario.
+    ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
+
+    FXMLLoader loader = new FXMLLoader(
+      getClass().getResource("/fxml/input-class-participants.fxml"), labelsBundle);
+    VBox inputClassParticipants = loader.load();
+    Scene scene = new Scene(inputClassParticipants);
+
+    robot.interact(() -> {
+      stage.setScene(scene);
+      stage.show();
+    });
+
+    PreferenceHelper
+      .setClassParticipants("testClass", Arrays.asList("participant1", "participant2"));
+    InputClassParticipantsController controller = loader.getController();
+    controller.initializeData("testClass");
+
+    ListView<String> participantDisplay = robot.lookup(PARTICIPANTS_DISPLAY).query();
+    ObservableList<String> participants = participantDisplay.getItems();
+
+    PreferenceHelper.addClassParticipants(
+      Collections.singletonMap("testClass", Collections.singletonList("participant3")));
+
+    // Call the code under test.
+    participants.add("participant4");
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The stored participants did not match the expected value.",
+      PreferenceHelper.getClassParticipants("testClass"), CoreMatchers
+        .is(Arrays.asList("participant1", "participant2", "participant3", "participant4")));
+  }
+
   /**
    * Test that the stored participants are updated when a participants are cleared.
    */
@@ -0,0 +1,107 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.controller;
+
+import com.judge40.gridgenerator.PerformanceBaseline;
+import com.judge40.gridgenerator.PerformanceBaseline.MeetingSize;
+import com.judge40.gridgenerator.PreferenceTestHelper;
+import java.io.IOException;
+import java.util.ResourceBundle;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.InvalidPreferencesFormatException;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Scene;
+import javafx.scene.control.TabPane;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.testfx.api.FxRobot;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+
+/**
+ * The performance tests for {@link InputParticipantsController}, run headless against generated
+ * meetings.
+ */
+@Tag(PerformanceBaseline.TAG)
+@ExtendWith(ApplicationExtension.class)
+class InputParticipantsControllerPerformanceTest {
+
+  private static PreferenceTestHelper preferenceTestHelper;
+  private static PerformanceBaseline performanceBaseline;
+
+  private Stage stage;
+
+  @BeforeAll
+  static void setUpBeforeAll() throws BackingStoreException, IOException {
+    preferenceTestHelper = new PreferenceTestHelper();
+    performanceBaseline = new PerformanceBaseline();
+  }
+
+  @AfterAll
+  static void tearDownAfterAll()
+    throws BackingStoreException, IOException, InvalidPreferencesFormatException {
+    preferenceTestHelper.restorePreferences();
+  }
+
+  @Start
+  void setUp(Stage stage) {
+    this.stage = stage;
+  }
+
+  @AfterEach
+  void tearDown() throws BackingStoreException {
+    preferenceTestHelper.clearPreferences();
+  }
+
+  /**
+   * Test the time taken to create and display a participant input tab for every class of the
+   * meeting.
+   */
+  @ParameterizedTest
+  @EnumSource(MeetingSize.class)
+  void testInitialize_generatedMeeting_withinBaseline(MeetingSize meetingSize, FxRobot robot)
+    throws Exception {
+    // Set up test scenario.
+    ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
+    meetingSize.createGenerator().writeMeeting();
+
+    // Call the code under test.
+    long millis = performanceBaseline.measure(() -> { }, () -> {
+      FXMLLoader loader = new FXMLLoader(
+        getClass().getResource("/fxml/input-participants.fxml"), labelsBundle);
+      TabPane inputLayout = loader.load();
+      loader.<InputParticipantsController>getController().refresh();
+      robot.interact(() -> {
+        stage.setScene(new Scene(inputLayout));
+        stage.show();
+      });
+    });
+
+    // Perform assertions.
+    performanceBaseline.assertWithinBaseline(
+      meetingSize.getBaselineName("inputParticipants.initialize"), millis);
+  }
+}
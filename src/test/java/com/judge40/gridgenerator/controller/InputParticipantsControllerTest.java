@@ -51,7 +51,8 @@ class InputParticipantsControllerTest {
   private static PreferenceTestHelper preferenceTestHelper;
 
   @BeforeAll
-  static void setUpBeforeAll() throws BackingStoreException, IOException {
+  static void setUpBeforeAll()
+    throws BackingStoreException, ClassNotFoundException, IOException {
     preferenceTestHelper = new PreferenceTestHelper();
   }
 
@@ -70,15 +71,15 @@ class InputParticipantsControllerTest {
    * Test that the class tabs are added when the controller is initialized.
    */
   @Test
-  void testInitialize_classTabsAdded() throws BackingStoreException, IOException {
+  void testInitialize_classTabsAdded()
+    throws BackingStoreException, ClassNotFoundException, IOException {
     // Set up test scenario.
     ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
 
     PreferenceHelper.setParticipantClassNames(Arrays.asList("class1", "class2"));
 
     // Call the code under test.
-    TabPane inputLayout = FXMLLoader
-      .load(getClass().getResource("/fxml/input-participants.fxml"), labelsBundle);
+    TabPane inputLayout = loadInputLayout(labelsBundle);
 
     // Perform assertions.
     ObservableList<Tab> tabs = inputLayout.getTabs();
@@ -96,7 +97,8 @@ class InputParticipantsControllerTest {
    * Test that the class tabs have their data initialized when the controller is initialized.
    */
   @Test
-  void testInitialize_classTabsDataInitialized() throws BackingStoreException, IOException {
+  void testInitialize_classTabsDataInitialized()
+    throws BackingStoreException, ClassNotFoundException, IOException {
     // Set up test scenario.
     ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
 
@@ -105,8 +107,7 @@ class InputParticipantsControllerTest {
     PreferenceHelper.setClassParticipants("class2", Collections.singletonList("participant2"));
 
     // Call the code under test.
-    TabPane inputLayout = FXMLLoader
-      .load(getClass().getResource("/fxml/input-participants.fxml"), labelsBundle);
+    TabPane inputLayout = loadInputLayout(labelsBundle);
 
     // Perform assertions.
     ObservableList<Tab> tabs = inputLayout.getTabs();
@@ -128,4 +129,19 @@ class InputParticipantsControllerTest {
       .assertThat("The participant did not match the expected value.", participants.get(0),
         CoreMatchers.is("participant2"));
   }
+
+  /**
+   * Load the participant input layout and refresh it, as is done before the layout is displayed.
+   *
+   * @param labelsBundle The resource bundle to use for the layout's labels.
+   * @return The participant input layout.
+   */
+  private TabPane loadInputLayout(ResourceBundle labelsBundle)
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/input-participants.fxml"),
+      labelsBundle);
+    TabPane inputLayout = loader.load();
+    loader.<InputParticipantsController>getController().refresh();
+    return inputLayout;
+  }
 }
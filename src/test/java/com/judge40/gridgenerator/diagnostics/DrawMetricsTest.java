@@ -0,0 +1,110 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.diagnostics;
+
+import com.judge40.gridgenerator.diagnostics.DrawMetrics.Stage;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit tests for {@link DrawMetrics}.
+ */
+class DrawMetricsTest {
+
+  /**
+   * Test that stage latencies are counted in the bucket matching their power of two microsecond
+   * upper bound.
+   */
+  @Test
+  void testRecordStage_multipleLatencies_bucketsCounted() {
+    // Set up test scenario.
+    DrawMetrics drawMetrics = new DrawMetrics();
+
+    // Call the code under test.
+    drawMetrics.recordStage(Stage.SHUFFLE, 500);
+    drawMetrics.recordStage(Stage.SHUFFLE, 3_000);
+    drawMetrics.recordStage(Stage.SHUFFLE, 3_500);
+
+    // Perform assertions.
+    LatencyStatistics statistics = drawMetrics.getShuffleLatency();
+    MatcherAssert.assertThat("The latency count did not match the expected value.",
+      statistics.getCount(), CoreMatchers.is(3L));
+    MatcherAssert.assertThat("The maximum latency did not match the expected value.",
+      statistics.getMaxMicros(), CoreMatchers.is(3L));
+    MatcherAssert.assertThat("The sub-microsecond bucket count did not match the expected value.",
+      statistics.getBucketCounts()[0], CoreMatchers.is(1L));
+    MatcherAssert.assertThat("The bucket upper bound did not match the expected value.",
+      statistics.getBucketUpperBoundsMicros()[2], CoreMatchers.is(4L));
+    MatcherAssert.assertThat("The bucket count did not match the expected value.",
+      statistics.getBucketCounts()[2], CoreMatchers.is(2L));
+    MatcherAssert.assertThat("The split latency count did not match the expected value.",
+      drawMetrics.getSplitLatency().getCount(), CoreMatchers.is(0L));
+  }
+
+  /**
+   * Test that the view cache hit rate is the proportion of requests which were hits.
+   */
+  @Test
+  void testGetViewCacheHitRate_hitsAndMisses_proportionOfHits() {
+    // Set up test scenario.
+    DrawMetrics drawMetrics = new DrawMetrics();
+    drawMetrics.recordViewCacheRequest(true);
+    drawMetrics.recordViewCacheRequest(true);
+    drawMetrics.recordViewCacheRequest(true);
+    drawMetrics.recordViewCacheRequest(false);
+
+    // Call the code under test.
+    double hitRate = drawMetrics.getViewCacheHitRate();
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The hit rate did not match the expected value.", hitRate,
+      CoreMatchers.is(0.75));
+  }
+
+  /**
+   * Test that the metrics are available from the platform MBean server once registered.
+   */
+  @Test
+  void testRegister_metricsRecorded_attributesAvailable() throws JMException {
+    // Set up test scenario.
+    DrawMetrics.getInstance().reset();
+    DrawMetrics.getInstance().recordPreferenceBytesWritten(1024);
+    DrawMetrics.getInstance().recordStage(Stage.PAD, 2_000);
+
+    // Call the code under test.
+    DrawMetrics.register();
+
+    // Perform assertions.
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName objectName = new ObjectName(DrawMetrics.OBJECT_NAME);
+    MatcherAssert.assertThat("The bytes written did not match the expected value.",
+      server.getAttribute(objectName, "PreferenceBytesWritten"), CoreMatchers.is(1024L));
+
+    CompositeData padLatency = (CompositeData) server.getAttribute(objectName, "PadLatency");
+    MatcherAssert.assertThat("The pad latency count did not match the expected value.",
+      padLatency.get("count"), CoreMatchers.is(1L));
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.export;
+
+import com.judge40.gridgenerator.MeetingDraw;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit tests for {@link JsonDrawExporter}.
+ */
+class JsonDrawExporterTest {
+
+  /**
+   * Test that the meeting information is written followed by an entry for each participant,
+   * without empty grids.
+   */
+  @Test
+  void testExport_participantsDrawn_entryPerParticipant() throws IOException {
+    // Set up test scenario.
+    MeetingDraw meetingDraw = createMeetingDraw("class",
+      Arrays.asList(Arrays.asList("A", "", "B"), Arrays.asList("", "C", "")));
+
+    // Call the code under test.
+    String output = export(meetingDraw);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The output did not match the expected value.", output,
+      CoreMatchers.is("{\"meetingName\":\"meeting\",\"date\":\"2019-01-01\",\"grids\":[\n"
+        + "{\"class\":\"class\",\"heat\":1,\"race\":1,\"grid\":1,\"participant\":\"A\"},\n"
+        + "{\"class\":\"class\",\"heat\":1,\"race\":1,\"grid\":3,\"participant\":\"B\"},\n"
+        + "{\"class\":\"class\",\"heat\":1,\"race\":2,\"grid\":2,\"participant\":\"C\"}\n"
+        + "]}\n"));
+  }
+
+  /**
+   * Test that quotes, backslashes and control characters are escaped and that non-ASCII text is
+   * encoded as UTF-8.
+   */
+  @Test
+  void testExport_specialCharacters_stringsEscapedAndEncoded() throws IOException {
+    // Set up test scenario.
+    MeetingDraw meetingDraw = createMeetingDraw("class",
+      Collections.singletonList(Collections.singletonList("\"a\\b\"\t\u00c9mile")));
+
+    // Call the code under test.
+    String output = export(meetingDraw);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The output did not match the expected value.", output,
+      CoreMatchers.containsString("\"participant\":\"\\\"a\\\\b\\\"\\u0009\u00c9mile\"}"));
+  }
+
+  private String export(MeetingDraw meetingDraw) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    new JsonDrawExporter().export(meetingDraw, Channels.newChannel(outputStream));
+    return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private MeetingDraw createMeetingDraw(String className, List<List<String>> races) {
+    return new MeetingDraw("meeting", LocalDate.of(2019, 1, 1),
+      Collections.singletonMap(className, Collections.singletonList(races)));
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.export;
+
+import com.judge40.gridgenerator.MeetingDraw;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit tests for {@link PdfDrawSheetExporter}.
+ */
+class PdfDrawSheetExporterTest {
+
+  /**
+   * Test that the document starts with the PDF header and ends with the trailer.
+   */
+  @Test
+  void testExport_singlePage_headerAndTrailerWritten() throws IOException {
+    // Set up test scenario.
+    MeetingDraw meetingDraw = createMeetingDraw(createRaces(3));
+
+    // Call the code under test.
+    String document = export(meetingDraw);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The document header did not match the expected value.",
+      document.startsWith("%PDF-1.4\n"), CoreMatchers.is(true));
+    MatcherAssert.assertThat("The document trailer did not match the expected value.",
+      document.endsWith("%%EOF\n"), CoreMatchers.is(true));
+    MatcherAssert.assertThat("The number of pages did not match the expected value.",
+      document, CoreMatchers.containsString("/Type /Pages /Count 1 "));
+  }
+
+  /**
+   * Test that the cross-reference table and stream lengths match the byte offsets of the written
+   * objects.
+   */
+  @Test
+  void testExport_multiplePages_offsetsMatchObjects() throws IOException {
+    // Set up test scenario.
+    MeetingDraw meetingDraw = createMeetingDraw(createRaces(100));
+
+    // Call the code under test.
+    String document = export(meetingDraw);
+
+    // Perform assertions.
+    Matcher startMatcher = Pattern.compile("startxref\n(\\d+)\n").matcher(document);
+    startMatcher.find();
+    int crossReferenceOffset = Integer.parseInt(startMatcher.group(1));
+    MatcherAssert.assertThat("The cross-reference offset did not match the expected value.",
+      document.startsWith("xref\n", crossReferenceOffset), CoreMatchers.is(true));
+
+    String[] crossReferenceLines = document.substring(crossReferenceOffset).split("\n");
+    int numberOfObjects = Integer.parseInt(crossReferenceLines[1].split(" ")[1]);
+
+    for (int object = 1; object < numberOfObjects; object++) {
+      int offset = Integer.parseInt(crossReferenceLines[object + 2].substring(0, 10));
+      MatcherAssert.assertThat("The object offset did not match the expected value.",
+        document.startsWith(object + " 0 obj\n", offset), CoreMatchers.is(true));
+    }
+
+    Matcher streamMatcher = Pattern.compile("<< /Length (\\d+) 0 R >>\nstream\n")
+      .matcher(document);
+    int numberOfStreams = 0;
+
+    while (streamMatcher.find()) {
+      Matcher lengthMatcher = Pattern.compile("\n" + streamMatcher.group(1) + " 0 obj\n(\\d+)\n")
+        .matcher(document);
+      lengthMatcher.find();
+      int streamEnd = streamMatcher.end() + Integer.parseInt(lengthMatcher.group(1));
+      MatcherAssert.assertThat("The stream length did not match the expected value.",
+        document.startsWith("\nendstream", streamEnd), CoreMatchers.is(true));
+      numberOfStreams++;
+    }
+
+    MatcherAssert.assertThat("The number of pages did not match the expected value.",
+      numberOfStreams, CoreMatchers.is(3));
+  }
+
+  /**
+   * Test that PDF string delimiters in participant names are escaped.
+   */
+  @Test
+  void testExport_delimitersInText_delimitersEscaped() throws IOException {
+    // Set up test scenario.
+    MeetingDraw meetingDraw = createMeetingDraw(
+      Collections.singletonList(Arrays.asList("A (1)", "B\\2", "")));
+
+    // Call the code under test.
+    String document = export(meetingDraw);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The escaped text did not match the expected value.", document,
+      CoreMatchers.containsString("(A \\(1\\)) Tj"));
+    MatcherAssert.assertThat("The escaped text did not match the expected value.", document,
+      CoreMatchers.containsString("(B\\\\2) Tj"));
+  }
+
+  private String export(MeetingDraw meetingDraw) throws IOException {
+    Locale.setDefault(Locale.ENGLISH);
+    ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    new PdfDrawSheetExporter(labelsBundle)
+      .export(meetingDraw, Channels.newChannel(outputStream));
+
+    return new String(outputStream.toByteArray(), StandardCharsets.ISO_8859_1);
+  }
+
+  private MeetingDraw createMeetingDraw(List<List<String>> races) {
+    return new MeetingDraw("meeting", LocalDate.of(2019, 1, 1),
+      Collections.singletonMap("class", Collections.singletonList(races)));
+  }
+
+  private List<List<String>> createRaces(int numberOfRaces) {
+    List<List<String>> races = new ArrayList<>();
+
+    for (int race = 0; race < numberOfRaces; race++) {
+      races.add(Arrays.asList("A" + race, "B" + race, "C" + race, ""));
+    }
+
+    return races;
+  }
+}
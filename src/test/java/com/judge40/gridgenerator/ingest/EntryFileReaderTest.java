@@ -0,0 +1,185 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.ingest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit tests for {@link EntryFileReader}.
+ */
+class EntryFileReaderTest {
+
+  private Path entryFile;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    entryFile = Files.createTempFile("entries", ".csv");
+  }
+
+  /**
+   * Test that the entries are parsed in to participants keyed by class name, blank lines, comments
+   * and malformed lines are skipped.
+   */
+  @Test
+  void testReadNewEntries_newFile_entriesParsed() throws IOException {
+    // Set up test scenario.
+    write("# class,participant\n", "Class 1,A1\n", "\n", " Class, 2 , B2 \r\n", "C3\n",
+      "Class 1,\n", "Class 1,D4\n");
+    EntryFileReader entryFileReader = new EntryFileReader();
+    Map<String, List<String>> entries = new HashMap<>();
+
+    // Call the code under test.
+    entryFileReader.readNewEntries(entryFile, entries);
+
+    // Perform assertions.
+    Map<String, List<String>> expectedEntries = new HashMap<>();
+    expectedEntries.put("Class 1", Arrays.asList("A1", "D4"));
+    expectedEntries.put("Class, 2", Collections.singletonList("B2"));
+    MatcherAssert.assertThat("The entries did not match the expected value.", entries,
+      CoreMatchers.is(expectedEntries));
+  }
+
+  /**
+   * Test that only the lines appended since the committed read are parsed.
+   */
+  @Test
+  void testReadNewEntries_linesAppendedAfterCommit_onlyNewLinesParsed() throws IOException {
+    // Set up test scenario.
+    write("Class 1,A1\n");
+    EntryFileReader entryFileReader = new EntryFileReader();
+    entryFileReader.readNewEntries(entryFile, new HashMap<>());
+    entryFileReader.commit();
+    write("Class 1,B2\n");
+    Map<String, List<String>> entries = new HashMap<>();
+
+    // Call the code under test.
+    entryFileReader.readNewEntries(entryFile, entries);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The entries did not match the expected value.", entries,
+      CoreMatchers.is(Collections.singletonMap("Class 1", Collections.singletonList("B2"))));
+  }
+
+  /**
+   * Test that a partial last line is not parsed until it has been completed.
+   */
+  @Test
+  void testReadNewEntries_partialLastLine_parsedOnceCompleted() throws IOException {
+    // Set up test scenario.
+    write("Class 1,A1\n", "Class 1,B");
+    EntryFileReader entryFileReader = new EntryFileReader();
+    Map<String, List<String>> firstEntries = new HashMap<>();
+    entryFileReader.readNewEntries(entryFile, firstEntries);
+    entryFileReader.commit();
+    write("2\n");
+    Map<String, List<String>> secondEntries = new HashMap<>();
+
+    // Call the code under test.
+    entryFileReader.readNewEntries(entryFile, secondEntries);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The first entries did not match the expected value.", firstEntries,
+      CoreMatchers.is(Collections.singletonMap("Class 1", Collections.singletonList("A1"))));
+    MatcherAssert.assertThat("The second entries did not match the expected value.",
+      secondEntries,
+      CoreMatchers.is(Collections.singletonMap("Class 1", Collections.singletonList("B2"))));
+  }
+
+  /**
+   * Test that a file which was replaced rather than appended to is parsed from the start.
+   */
+  @Test
+  void testReadNewEntries_fileReplaced_wholeFileParsed() throws IOException {
+    // Set up test scenario.
+    write("Class 1,A1\n");
+    EntryFileReader entryFileReader = new EntryFileReader();
+    entryFileReader.readNewEntries(entryFile, new HashMap<>());
+    entryFileReader.commit();
+    Files.write(entryFile, "Class 2,B22\nClass 2,C3\n".getBytes(StandardCharsets.UTF_8));
+    Map<String, List<String>> entries = new HashMap<>();
+
+    // Call the code under test.
+    entryFileReader.readNewEntries(entryFile, entries);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The entries did not match the expected value.", entries,
+      CoreMatchers.is(Collections.singletonMap("Class 2", Arrays.asList("B22", "C3"))));
+  }
+
+  /**
+   * Test that a file which was replaced by content ending a line at the previous offset is parsed
+   * from the start.
+   */
+  @Test
+  void testReadNewEntries_fileReplacedWithLineEndAtOffset_wholeFileParsed() throws IOException {
+    // Set up test scenario.
+    write("Class 1,A1\n");
+    EntryFileReader entryFileReader = new EntryFileReader();
+    entryFileReader.readNewEntries(entryFile, new HashMap<>());
+    entryFileReader.commit();
+    Files.write(entryFile, "Class 2,B2\nClass 2,C3\n".getBytes(StandardCharsets.UTF_8));
+    Map<String, List<String>> entries = new HashMap<>();
+
+    // Call the code under test.
+    entryFileReader.readNewEntries(entryFile, entries);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The entries did not match the expected value.", entries,
+      CoreMatchers.is(Collections.singletonMap("Class 2", Arrays.asList("B2", "C3"))));
+  }
+
+  /**
+   * Test that the lines of a rolled back read are parsed again.
+   */
+  @Test
+  void testReadNewEntries_readRolledBack_linesParsedAgain() throws IOException {
+    // Set up test scenario.
+    write("Class 1,A1\n");
+    EntryFileReader entryFileReader = new EntryFileReader();
+    entryFileReader.readNewEntries(entryFile, new HashMap<>());
+    entryFileReader.rollback();
+    Map<String, List<String>> entries = new HashMap<>();
+
+    // Call the code under test.
+    entryFileReader.readNewEntries(entryFile, entries);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The entries did not match the expected value.", entries,
+      CoreMatchers.is(Collections.singletonMap("Class 1", Collections.singletonList("A1"))));
+  }
+
+  private void write(String... lines) throws IOException {
+    byte[] bytes = String.join("", lines).getBytes(StandardCharsets.UTF_8);
+    Files.write(entryFile, bytes, StandardOpenOption.APPEND);
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.ingest;
+
+import com.judge40.gridgenerator.PreferenceHelper;
+import com.judge40.gridgenerator.PreferenceTestHelper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.InvalidPreferencesFormatException;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit tests for {@link EntryFolderWatcher}.
+ */
+class EntryFolderWatcherTest {
+
+  private static PreferenceTestHelper preferenceTestHelper;
+
+  private Path folder;
+
+  @BeforeAll
+  static void setUpBeforeAll() throws BackingStoreException, IOException {
+    preferenceTestHelper = new PreferenceTestHelper();
+  }
+
+  @AfterAll
+  static void tearDownAfterAll()
+    throws BackingStoreException, IOException, InvalidPreferencesFormatException {
+    preferenceTestHelper.restorePreferences();
+  }
+
+  @BeforeEach
+  void setUp() throws BackingStoreException, IOException {
+    folder = Files.createTempDirectory("entry-folder");
+
+    PreferenceHelper.setParticipantValidator("[A-Z]+\\d+");
+    PreferenceHelper.setParticipantClassNames(Collections.singletonList("Class 1"));
+    PreferenceHelper.setClassParticipants("Class 1", Collections.singletonList("A1"));
+  }
+
+  @AfterEach
+  void tearDown() throws BackingStoreException {
+    preferenceTestHelper.clearPreferences();
+  }
+
+  /**
+   * Test that the valid entries from every file are stored and the listener is given the changed
+   * classes.
+   */
+  @Test
+  void testIngest_validAndInvalidEntries_validEntriesStored()
+    throws BackingStoreException, ClassNotFoundException, IOException {
+    // Set up test scenario.
+    Path firstFile = write("first.csv", "Class 1,A1\nClass 1,B2\nClass 2,invalid\n");
+    Path secondFile = write("second.csv", "Class 3,C3\n");
+    List<Set<String>> notifications = new ArrayList<>();
+    EntryFolderWatcher entryFolderWatcher = new EntryFolderWatcher(folder, notifications::add);
+
+    // Call the code under test.
+    entryFolderWatcher.ingest(Arrays.asList(firstFile, secondFile));
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The notifications did not match the expected value.",
+      notifications.size(), CoreMatchers.is(1));
+    MatcherAssert.assertThat("The changed classes did not match the expected value.",
+      new ArrayList<>(notifications.get(0)), CoreMatchers.is(Arrays.asList("Class 1", "Class 3")));
+    MatcherAssert.assertThat("The class names did not match the expected value.",
+      PreferenceHelper.getParticipantClassNames(),
+      CoreMatchers.is(Arrays.asList("Class 1", "Class 3")));
+    MatcherAssert.assertThat("The first class's participants did not match the expected value.",
+      PreferenceHelper.getClassParticipants("Class 1"), CoreMatchers.is(Arrays.asList("A1", "B2")));
+    MatcherAssert.assertThat("The third class's participants did not match the expected value.",
+      PreferenceHelper.getClassParticipants("Class 3"),
+      CoreMatchers.is(Collections.singletonList("C3")));
+  }
+
+  /**
+   * Test that the listener is not called when the files contain no new entries.
+   */
+  @Test
+  void testIngest_noNewEntries_listenerNotCalled() throws IOException {
+    // Set up test scenario.
+    Path file = write("entries.csv", "Class 1,A1\n");
+    List<Set<String>> notifications = new ArrayList<>();
+    EntryFolderWatcher entryFolderWatcher = new EntryFolderWatcher(folder, notifications::add);
+
+    // Call the code under test.
+    Set<String> changedClassNames = entryFolderWatcher.ingest(Collections.singletonList(file));
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The changed classes did not match the expected value.",
+      changedClassNames.isEmpty(), CoreMatchers.is(true));
+    MatcherAssert.assertThat("The notifications did not match the expected value.",
+      notifications.isEmpty(), CoreMatchers.is(true));
+  }
+
+  /**
+   * Test that an entry file created while the folder is watched is ingested.
+   */
+  @Test
+  void testStart_entryFileCreated_entriesIngested() throws BackingStoreException,
+    ClassNotFoundException, ExecutionException, InterruptedException, IOException,
+    TimeoutException {
+    // Set up test scenario.
+    CompletableFuture<Set<String>> changedClassNames = new CompletableFuture<>();
+
+    try (EntryFolderWatcher entryFolderWatcher = new EntryFolderWatcher(folder,
+      changedClassNames::complete)) {
+      // Call the code under test.
+      entryFolderWatcher.start();
+      write("entries.csv", "Class 1,B2\n");
+
+      // Perform assertions.
+      MatcherAssert.assertThat("The changed classes did not match the expected value.",
+        changedClassNames.get(30, TimeUnit.SECONDS),
+        CoreMatchers.is(Collections.singleton("Class 1")));
+    }
+
+    MatcherAssert.assertThat("The participants did not match the expected value.",
+      PreferenceHelper.getClassParticipants("Class 1"), CoreMatchers.is(Arrays.asList("A1", "B2")));
+  }
+
+  private Path write(String fileName, String entries) throws IOException {
+    return Files.write(folder.resolve(fileName), entries.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.print;
+
+import com.judge40.gridgenerator.MeetingDraw;
+import com.judge40.gridgenerator.print.DrawSheetPage.HeatSection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit tests for {@link DrawSheetPaginator}.
+ */
+class DrawSheetPaginatorTest {
+
+  /**
+   * Test that an exception is thrown when a page is too small for the headings and a single race.
+   */
+  @Test
+  void testPaginate_pageTooSmall_exceptionThrown() {
+    // Set up test scenario.
+    MeetingDraw meetingDraw = createMeetingDraw(Collections.singletonList(createRaces(1)));
+
+    // Call the code under test and perform assertions.
+    Assertions.assertThrows(IllegalArgumentException.class,
+      () -> DrawSheetPaginator.paginate(meetingDraw, 6, 4));
+  }
+
+  /**
+   * Test that a single page is returned when all of the class's heats fit on one page.
+   */
+  @Test
+  void testPaginate_heatsFitOnPage_onePage() {
+    // Set up test scenario.
+    MeetingDraw meetingDraw = createMeetingDraw(Arrays.asList(createRaces(3), createRaces(2)));
+
+    // Call the code under test.
+    List<DrawSheetPage> pages = DrawSheetPaginator.paginate(meetingDraw, 20, 4);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The number of pages did not match the expected value.",
+      pages.size(), CoreMatchers.is(1));
+
+    DrawSheetPage page = pages.get(0);
+    MatcherAssert.assertThat("The page's class name did not match the expected value.",
+      page.getClassName(), CoreMatchers.is("class"));
+    MatcherAssert.assertThat("The number of heat sections did not match the expected value.",
+      page.getHeatSections().size(), CoreMatchers.is(2));
+    MatcherAssert.assertThat("The heat section's races did not match the expected value.",
+      page.getHeatSections().get(1).getRaces().size(), CoreMatchers.is(2));
+  }
+
+  /**
+   * Test that a heat is continued on the next page with the correct race numbers when it does not
+   * fit on a single page.
+   */
+  @Test
+  void testPaginate_heatOverflowsPage_heatContinuedOnNextPage() {
+    // Set up test scenario.
+    MeetingDraw meetingDraw = createMeetingDraw(Collections.singletonList(createRaces(25)));
+
+    // Call the code under test.
+    List<DrawSheetPage> pages = DrawSheetPaginator.paginate(meetingDraw, 14, 4);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The number of pages did not match the expected value.",
+      pages.size(), CoreMatchers.is(4));
+
+    int expectedFirstRaceNumber = 1;
+
+    for (DrawSheetPage page : pages) {
+      MatcherAssert.assertThat("The number of heat sections did not match the expected value.",
+        page.getHeatSections().size(), CoreMatchers.is(1));
+
+      HeatSection heatSection = page.getHeatSections().get(0);
+      MatcherAssert.assertThat("The heat number did not match the expected value.",
+        heatSection.getHeatNumber(), CoreMatchers.is(1));
+      MatcherAssert.assertThat("The first race number did not match the expected value.",
+        heatSection.getFirstRaceNumber(), CoreMatchers.is(expectedFirstRaceNumber));
+      MatcherAssert.assertThat("The first race did not match the expected value.",
+        heatSection.getRaces().get(0).get(0), CoreMatchers.is("A" + expectedFirstRaceNumber));
+
+      expectedFirstRaceNumber += heatSection.getRaces().size();
+    }
+
+    MatcherAssert.assertThat("The number of races did not match the expected value.",
+      expectedFirstRaceNumber - 1, CoreMatchers.is(25));
+  }
+
+  /**
+   * Test that a new page is started when there is not enough space for a heat's headings and at
+   * least one race.
+   */
+  @Test
+  void testPaginate_noSpaceForNextHeat_nextHeatOnNewPage() {
+    // Set up test scenario.
+    MeetingDraw meetingDraw = createMeetingDraw(Arrays.asList(createRaces(12), createRaces(1)));
+
+    // Call the code under test.
+    List<DrawSheetPage> pages = DrawSheetPaginator.paginate(meetingDraw, 20, 4);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The number of pages did not match the expected value.",
+      pages.size(), CoreMatchers.is(2));
+    MatcherAssert.assertThat("The heat number did not match the expected value.",
+      pages.get(1).getHeatSections().get(0).getHeatNumber(), CoreMatchers.is(2));
+  }
+
+  /**
+   * Test that each class starts on a new page.
+   */
+  @Test
+  void testPaginate_multipleClasses_pagePerClass() {
+    // Set up test scenario.
+    Map<String, List<List<List<String>>>> classHeats = new LinkedHashMap<>();
+    classHeats.put("class1", Collections.singletonList(createRaces(1)));
+    classHeats.put("class2", Collections.singletonList(createRaces(1)));
+    MeetingDraw meetingDraw = new MeetingDraw("meeting", LocalDate.now(), classHeats);
+
+    // Call the code under test.
+    List<DrawSheetPage> pages = DrawSheetPaginator.paginate(meetingDraw, 20, 4);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The number of pages did not match the expected value.",
+      pages.size(), CoreMatchers.is(2));
+    MatcherAssert.assertThat("The page's class name did not match the expected value.",
+      pages.get(0).getClassName(), CoreMatchers.is("class1"));
+    MatcherAssert.assertThat("The page's class name did not match the expected value.",
+      pages.get(1).getClassName(), CoreMatchers.is("class2"));
+  }
+
+  private MeetingDraw createMeetingDraw(List<List<List<String>>> heats) {
+    return new MeetingDraw("meeting", LocalDate.now(), Collections.singletonMap("class", heats));
+  }
+
+  private List<List<String>> createRaces(int numberOfRaces) {
+    List<List<String>> races = new ArrayList<>();
+
+    for (int race = 1; race <= numberOfRaces; race++) {
+      races.add(Arrays.asList("A" + race, "B" + race, ""));
+    }
+
+    return races;
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.simulation;
+
+import com.judge40.gridgenerator.DrawConfiguration;
+import com.judge40.gridgenerator.DrawMode;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit tests for {@link DrawSimulator}.
+ */
+class DrawSimulatorTest {
+
+  /**
+   * Test that every participant starts from each grid an equal share of the time, within a small
+   * tolerance.
+   */
+  @Test
+  void testSimulate_randomDraw_gridSharesEven() {
+    // Set up test scenario.
+    List<String> participants = Arrays.asList("A1", "A2", "A3", "A4");
+    DrawConfiguration configuration = new DrawConfiguration(4, 1, "$^", 0, DrawMode.RANDOM, 0);
+    DrawSimulator drawSimulator = new DrawSimulator(participants, Collections.emptySet(),
+      configuration);
+
+    // Call the code under test.
+    SimulationReport report = drawSimulator.simulate(4000, 1);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The number of draws did not match the expected value.",
+      report.getNumberOfDraws(), CoreMatchers.is(4000L));
+    MatcherAssert.assertThat("The grid share deviation did not match the expected value.",
+      report.getMaxGridShareDeviation() < 0.05, CoreMatchers.is(true));
+
+    for (String participant : participants) {
+      MatcherAssert.assertThat("The number of starts did not match the expected value.",
+        Arrays.stream(report.getGridStarts(participant)).sum(), CoreMatchers.is(4000L));
+    }
+  }
+
+  /**
+   * Test that the same seed gives the same results.
+   */
+  @Test
+  void testSimulate_sameSeed_sameResults() {
+    // Set up test scenario.
+    DrawConfiguration configuration = new DrawConfiguration(4, 2, "$^", 0, DrawMode.RANDOM, 0);
+    DrawSimulator drawSimulator = new DrawSimulator(Arrays.asList("A1", "A2", "A3", "A4", "A5"),
+      Collections.emptySet(), configuration);
+
+    // Call the code under test.
+    SimulationReport report = drawSimulator.simulate(1000, 40);
+    SimulationReport repeatedReport = drawSimulator.simulate(1000, 40);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The grid starts did not match the expected value.",
+      repeatedReport.getGridStarts("A1"), CoreMatchers.is(report.getGridStarts("A1")));
+    MatcherAssert.assertThat("The repeated pairings did not match the expected value.",
+      repeatedReport.getRepeatPairings(), CoreMatchers.is(report.getRepeatPairings()));
+  }
+
+  /**
+   * Test that the ungrouped participants are spread between the grouped races when there are
+   * fewer of them than the grouping threshold.
+   */
+  @Test
+  void testSimulate_lessThanGroupingThreshold_mixedRaces() {
+    // Set up test scenario.
+    DrawConfiguration configuration = new DrawConfiguration(4, 1, "NW\\d+", 3, DrawMode.RANDOM,
+      0);
+    DrawSimulator drawSimulator = new DrawSimulator(Arrays.asList("NW1", "NW2", "NW3", "NW4",
+      "A1", "A2"), Collections.emptySet(), configuration);
+
+    // Call the code under test.
+    SimulationReport report = drawSimulator.simulate(100, 1);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The number of mixed races did not match the expected value.",
+      report.getMixedRaces(), CoreMatchers.is(200L));
+    MatcherAssert.assertThat("The number of mixed races with one ungrouped participant did not "
+      + "match the expected value.", report.getUngroupedPerMixedRace()[1],
+      CoreMatchers.is(200L));
+  }
+
+  /**
+   * Test that the grouped and ungrouped participants race separately when there are at least as
+   * many ungrouped participants as the grouping threshold.
+   */
+  @Test
+  void testSimulate_greaterThanGroupingThreshold_separateRaces() {
+    // Set up test scenario.
+    DrawConfiguration configuration = new DrawConfiguration(4, 1, "NW\\d+", 2, DrawMode.RANDOM,
+      0);
+    DrawSimulator drawSimulator = new DrawSimulator(Arrays.asList("NW1", "NW2", "NW3", "NW4",
+      "A1", "A2"), Collections.emptySet(), configuration);
+
+    // Call the code under test.
+    SimulationReport report = drawSimulator.simulate(100, 1);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The number of grouped races did not match the expected value.",
+      report.getGroupedRaces(), CoreMatchers.is(100L));
+    MatcherAssert.assertThat("The number of ungrouped races did not match the expected value.",
+      report.getUngroupedRaces(), CoreMatchers.is(100L));
+    MatcherAssert.assertThat("The number of mixed races did not match the expected value.",
+      report.getMixedRaces(), CoreMatchers.is(0L));
+  }
+
+  /**
+   * Test that participants who race each other in every heat are counted as repeated pairings.
+   */
+  @Test
+  void testSimulate_singleRaceMultipleHeats_repeatPairingsCounted() {
+    // Set up test scenario.
+    DrawConfiguration configuration = new DrawConfiguration(2, 3, "$^", 0, DrawMode.RANDOM, 0);
+    DrawSimulator drawSimulator = new DrawSimulator(Arrays.asList("A1", "A2"),
+      Collections.emptySet(), configuration);
+
+    // Call the code under test.
+    SimulationReport report = drawSimulator.simulate(10, 1);
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The mean repeated pairings did not match the expected value.",
+      report.getMeanRepeatPairings(), CoreMatchers.is(3.0));
+    MatcherAssert.assertThat("The number of draws with three repeated pairings did not match the "
+      + "expected value.", report.getRepeatPairings()[3], CoreMatchers.is(10L));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit tests for {@link FilePreferences}.
+ */
+class FilePreferencesTest {
+
+  private Path directory;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    directory = Files.createTempDirectory("file-preferences-test");
+  }
+
+  /**
+   * Test that flushed values and child nodes are loaded by a new root node for the same directory.
+   */
+  @Test
+  void testFlush_valuesChanged_valuesLoadedFromDisk() throws BackingStoreException {
+    // Set up test scenario.
+    Preferences root = new FilePreferences(null, "", directory);
+    root.node("participants/Class: 1?").put("testKey", "testValue");
+
+    // Call the code under test.
+    root.flush();
+
+    // Perform assertions.
+    Preferences reloadedRoot = new FilePreferences(null, "", directory);
+    MatcherAssert.assertThat("The child node existence did not match the expected value.",
+      reloadedRoot.nodeExists("participants/Class: 1?"), CoreMatchers.is(true));
+    MatcherAssert.assertThat("The loaded value did not match the expected value.",
+      reloadedRoot.node("participants/Class: 1?").get("testKey", null),
+      CoreMatchers.is("testValue"));
+  }
+
+  /**
+   * Test that a removed node is deleted from disk.
+   */
+  @Test
+  void testRemoveNode_flushedNode_deletedFromDisk() throws BackingStoreException {
+    // Set up test scenario.
+    Preferences root = new FilePreferences(null, "", directory);
+    root.node("participants").put("testKey", "testValue");
+    root.flush();
+
+    // Call the code under test.
+    root.node("participants").removeNode();
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The directory existence did not match the expected value.",
+      Files.exists(directory.resolve("participants")), CoreMatchers.is(false));
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.InvalidPreferencesFormatException;
+import java.util.prefs.Preferences;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit tests for {@link PreferenceStorage}.
+ */
+class PreferenceStorageTest {
+
+  private static final String TEST_NODE = "com/judge40/gridgenerator/storageTest";
+
+  @AfterEach
+  void tearDown() throws BackingStoreException {
+    PreferenceStorage.getUserRoot().node(TEST_NODE).removeNode();
+  }
+
+  /**
+   * Test that an exported subtree is imported back in to the same nodes with the same values.
+   */
+  @Test
+  void testImportPreferences_exportedSubtree_valuesImported()
+    throws BackingStoreException, IOException, InvalidPreferencesFormatException {
+    // Set up test scenario.
+    Preferences testNode = PreferenceStorage.getUserRoot().node(TEST_NODE);
+    testNode.put("testKey", "test <value> & \"quotes\"");
+    testNode.node("child/Class 1").putInt("testInt", 40);
+
+    byte[] export;
+
+    try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+      testNode.exportSubtree(baos);
+      export = baos.toByteArray();
+    }
+
+    testNode.removeNode();
+
+    // Call the code under test.
+    try (InputStream inputStream = new ByteArrayInputStream(export)) {
+      PreferenceStorage.importPreferences(inputStream);
+    }
+
+    // Perform assertions.
+    Preferences importedNode = PreferenceStorage.getUserRoot().node(TEST_NODE);
+    MatcherAssert.assertThat("The imported value did not match the expected value.",
+      importedNode.get("testKey", null), CoreMatchers.is("test <value> & \"quotes\""));
+    MatcherAssert.assertThat("The imported child value did not match the expected value.",
+      importedNode.node("child/Class 1").getInt("testInt", -1), CoreMatchers.is(40));
+  }
+
+  /**
+   * Test that a document which is not a preferences document is rejected.
+   */
+  @Test
+  void testImportPreferences_notPreferencesDocument_invalidFormat() {
+    // Set up test scenario.
+    InputStream inputStream = new ByteArrayInputStream(
+      "<invalid/>".getBytes(StandardCharsets.UTF_8));
+
+    // Call the code under test.
+    Assertions.assertThrows(InvalidPreferencesFormatException.class,
+      () -> PreferenceStorage.importPreferences(inputStream));
+  }
+
+  /**
+   * Test that system preferences are rejected rather than imported in to the user preferences.
+   */
+  @Test
+  void testImportPreferences_systemRoot_invalidFormat() {
+    // Set up test scenario.
+    InputStream inputStream = new ByteArrayInputStream(("<preferences><root type=\"system\">"
+      + "<map/></root></preferences>").getBytes(StandardCharsets.UTF_8));
+
+    // Call the code under test.
+    Assertions.assertThrows(InvalidPreferencesFormatException.class,
+      () -> PreferenceStorage.importPreferences(inputStream));
+  }
+
+  /**
+   * Test that a document type declaration is not processed, so external entities are never
+   * resolved.
+   */
+  @Test
+  void testImportPreferences_externalEntity_invalidFormat() {
+    // Set up test scenario.
+    InputStream inputStream = new ByteArrayInputStream(("<!DOCTYPE preferences ["
+      + "<!ENTITY external SYSTEM \"file:///etc/passwd\">]><preferences><root type=\"user\">"
+      + "<map><entry key=\"key\" value=\"&external;\"/></map></root></preferences>")
+      .getBytes(StandardCharsets.UTF_8));
+
+    // Call the code under test.
+    Assertions.assertThrows(InvalidPreferencesFormatException.class,
+      () -> PreferenceStorage.importPreferences(inputStream));
+  }
+
+  /**
+   * Test that an exported subtree is accepted when checked against the node it was exported from.
+   */
+  @Test
+  void testCheckSubtree_exportedSubtree_accepted()
+    throws BackingStoreException, IOException, InvalidPreferencesFormatException {
+    // Set up test scenario.
+    Preferences testNode = PreferenceStorage.getUserRoot().node(TEST_NODE);
+    testNode.put("testKey", "testValue");
+    testNode.node("child").putInt("testInt", 40);
+
+    byte[] export;
+
+    try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+      testNode.exportSubtree(baos);
+      export = baos.toByteArray();
+    }
+
+    // Call the code under test.
+    try (InputStream inputStream = new ByteArrayInputStream(export)) {
+      PreferenceStorage.checkSubtree(inputStream, testNode.absolutePath());
+    }
+  }
+
+  /**
+   * Test that a subtree exported from a different node is rejected.
+   */
+  @Test
+  void testCheckSubtree_otherNode_invalidFormat() {
+    // Set up test scenario.
+    InputStream inputStream = new ByteArrayInputStream(("<preferences><root type=\"user\"><map/>"
+      + "<node name=\"other\"><map><entry key=\"key\" value=\"value\"/></map></node></root>"
+      + "</preferences>").getBytes(StandardCharsets.UTF_8));
+
+    // Call the code under test.
+    Assertions.assertThrows(InvalidPreferencesFormatException.class,
+      () -> PreferenceStorage.checkSubtree(inputStream, "/" + TEST_NODE));
+  }
+
+  /**
+   * Test that a document which does not contain the node is rejected.
+   */
+  @Test
+  void testCheckSubtree_nodeMissing_invalidFormat() {
+    // Set up test scenario.
+    InputStream inputStream = new ByteArrayInputStream(
+      "<preferences><root type=\"user\"><map/></root></preferences>"
+        .getBytes(StandardCharsets.UTF_8));
+
+    // Call the code under test.
+    Assertions.assertThrows(InvalidPreferencesFormatException.class,
+      () -> PreferenceStorage.checkSubtree(inputStream, "/" + TEST_NODE));
+  }
+}
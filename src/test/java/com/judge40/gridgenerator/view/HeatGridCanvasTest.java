@@ -0,0 +1,163 @@
+/*
+ * Grid Generator Copyright (c) 2019 Judge40
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.judge40.gridgenerator.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import javafx.scene.Scene;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.api.FxRobot;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+
+/**
+ * The unit tests for {@link HeatGridCanvas}.
+ */
+@ExtendWith(ApplicationExtension.class)
+class HeatGridCanvasTest {
+
+  private static final double VIEWPORT_HEIGHT = 240;
+
+  private Stage stage;
+
+  @Start
+  void setUp(Stage stage) {
+    this.stage = stage;
+  }
+
+  /**
+   * Test that a heading row and a grid header row are added for each heat in addition to the races.
+   */
+  @Test
+  void testSetHeats_multipleHeats_rowsFlattened(FxRobot robot) {
+    // Set up test scenario.
+    HeatGridCanvas heatGridCanvas = createHeatGridCanvas();
+
+    // Call the code under test.
+    robot.interact(() -> heatGridCanvas.setHeats(Arrays.asList(createRaces(3), createRaces(5))));
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The number of rows did not match the expected value.",
+      heatGridCanvas.getNumberOfRows(), CoreMatchers.is(12));
+  }
+
+  /**
+   * Test that only the rows within the viewport are visible when there are more rows than can be
+   * displayed.
+   */
+  @Test
+  void testLayoutChildren_moreRowsThanViewport_visibleRowsCulled(FxRobot robot) {
+    // Set up test scenario.
+    HeatGridCanvas heatGridCanvas = createHeatGridCanvas();
+
+    // Call the code under test.
+    robot.interact(() -> {
+      heatGridCanvas.setHeats(Collections.singletonList(createRaces(1000)));
+      showCanvas(heatGridCanvas);
+    });
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The first visible row did not match the expected value.",
+      heatGridCanvas.getFirstVisibleRow(), CoreMatchers.is(0));
+    MatcherAssert.assertThat("The last visible row did not match the expected value.",
+      heatGridCanvas.getLastVisibleRow(),
+      CoreMatchers.is((int) (VIEWPORT_HEIGHT / HeatGridCanvas.ROW_HEIGHT)));
+    MatcherAssert.assertThat("The number of children did not match the expected value.",
+      heatGridCanvas.getChildrenUnmodifiable().size(), CoreMatchers.is(2));
+  }
+
+  /**
+   * Test that the visible rows move with the scroll position.
+   */
+  @Test
+  void testScroll_scrolledToRow_visibleRowsMoved(FxRobot robot) {
+    // Set up test scenario.
+    HeatGridCanvas heatGridCanvas = createHeatGridCanvas();
+
+    robot.interact(() -> {
+      heatGridCanvas.setHeats(Collections.singletonList(createRaces(1000)));
+      showCanvas(heatGridCanvas);
+    });
+
+    // Call the code under test.
+    robot.interact(() -> heatGridCanvas.getScrollBar().setValue(500 * HeatGridCanvas.ROW_HEIGHT));
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The first visible row did not match the expected value.",
+      heatGridCanvas.getFirstVisibleRow(), CoreMatchers.is(500));
+    MatcherAssert.assertThat("The last visible row did not match the expected value.",
+      heatGridCanvas.getLastVisibleRow(),
+      CoreMatchers.is(500 + (int) (VIEWPORT_HEIGHT / HeatGridCanvas.ROW_HEIGHT)));
+  }
+
+  /**
+   * Test that the last row is visible when scrolled to the end of the rows.
+   */
+  @Test
+  void testScroll_scrolledToEnd_lastRowVisible(FxRobot robot) {
+    // Set up test scenario.
+    HeatGridCanvas heatGridCanvas = createHeatGridCanvas();
+
+    robot.interact(() -> {
+      heatGridCanvas.setHeats(Collections.singletonList(createRaces(100)));
+      showCanvas(heatGridCanvas);
+    });
+
+    // Call the code under test.
+    robot.interact(() -> heatGridCanvas.getScrollBar()
+      .setValue(heatGridCanvas.getScrollBar().getMax()));
+
+    // Perform assertions.
+    MatcherAssert.assertThat("The last visible row did not match the expected value.",
+      heatGridCanvas.getLastVisibleRow(), CoreMatchers.is(102));
+  }
+
+  private HeatGridCanvas createHeatGridCanvas() {
+    Locale.setDefault(Locale.ENGLISH);
+    ResourceBundle labelsBundle = ResourceBundle.getBundle("i18n.Labels");
+    return new HeatGridCanvas(labelsBundle, 4);
+  }
+
+  private void showCanvas(HeatGridCanvas heatGridCanvas) {
+    StackPane root = new StackPane(heatGridCanvas);
+    stage.setScene(new Scene(root, 480, VIEWPORT_HEIGHT));
+    stage.show();
+    root.layout();
+  }
+
+  private List<List<String>> createRaces(int numberOfRaces) {
+    List<List<String>> races = new ArrayList<>();
+
+    for (int race = 0; race < numberOfRaces; race++) {
+      races.add(Arrays.asList("A" + race, "B" + race, "C" + race, ""));
+    }
+
+    return races;
+  }
+}